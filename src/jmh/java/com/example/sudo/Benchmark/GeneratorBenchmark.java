@@ -0,0 +1,56 @@
+package com.example.sudo.Benchmark;
+
+import com.example.sudo.Model.BoardGeometry;
+import com.example.sudo.Model.PuzzleGenerator;
+import com.example.sudo.Model.Sudoku;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide la generación de partidas: {@link Sudoku#generateSudoku()} tal como la usa la vista y el
+ * {@link PuzzleGenerator} por sí solo, con y sin mínimo de pistas. El generador arranca con una
+ * semilla fija para que cada ejecución produzca la misma secuencia de tableros.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class GeneratorBenchmark {
+
+    @Param({"6", "9"})
+    public int size;
+
+    private Sudoku sudoku;
+    private PuzzleGenerator minimal;
+    private int[][] puzzle;
+    private int[][] solution;
+
+    @Setup
+    public void setup() {
+        BoardGeometry geometry = BoardGeometry.of(size);
+        sudoku = new Sudoku(geometry);
+        minimal = new PuzzleGenerator(geometry, new Random(PuzzleCorpus.SEED));
+        puzzle = new int[size][size];
+        solution = new int[size][size];
+    }
+
+    @Benchmark
+    public int[][] generateSudoku() {
+        sudoku.generateSudoku();
+        return sudoku.getSudoku();
+    }
+
+    @Benchmark
+    public int generateMinimal() {
+        return minimal.generate(puzzle, solution);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.sudo.Benchmark;
+
+import com.example.sudo.Model.BoardGeometry;
+import com.example.sudo.Model.GridBatch;
+import com.example.sudo.Model.GridValidator;
+import com.example.sudo.Model.ScalarGridValidator;
+import com.example.sudo.Model.Sudoku;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide la validación por lotes de tableros de 6x6 completos, en tableros por segundo, con el
+ * validador escalar y con el que elige {@link GridValidator#create()} (el vectorial si la JVM se
+ * arranca con {@code --add-modules jdk.incubator.vector}), frente a {@link Sudoku#winCheck()}
+ * tablero por tablero. La mitad de los tableros tiene un número repetido.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class GridValidatorBenchmark {
+    private static final int BATCH = 4096;
+
+    @Param({"scalar", "auto"})
+    public String validatorKind;
+
+    private GridValidator validator;
+    private GridBatch batch;
+    private boolean[] valid;
+    private int[][][] grids;
+    private Sudoku sudoku;
+
+    @Setup
+    public void setup() {
+        validator = validatorKind.equals("scalar") ? new ScalarGridValidator() : GridValidator.create();
+        int[][][] solved = PuzzleCorpus.solved(BoardGeometry.SIZE_6);
+        grids = new int[BATCH][][];
+        batch = new GridBatch(BATCH);
+        valid = new boolean[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            int[][] grid = new int[6][6];
+            PuzzleCorpus.copy(solved[i % solved.length], grid);
+            if (i % 2 == 1) {
+                grid[5][5] = grid[5][0]; // Repite un número en la última fila
+            }
+            grids[i] = grid;
+            batch.add(grid);
+        }
+        sudoku = new Sudoku(BoardGeometry.SIZE_6);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int validateBatch() {
+        return validator.validate(batch, valid);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int winCheck() {
+        int count = 0;
+        for (int[][] grid : grids) {
+            sudoku.setSudoku(grid);
+            if (sudoku.winCheck()) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
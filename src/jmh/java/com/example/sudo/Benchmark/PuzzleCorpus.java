@@ -0,0 +1,121 @@
+package com.example.sudo.Benchmark;
+
+import com.example.sudo.Model.BitmaskSolver;
+import com.example.sudo.Model.BoardGeometry;
+import com.example.sudo.Model.PuzzleGenerator;
+
+import java.util.Random;
+
+/**
+ * Corpus fijos de tableros para los benchmarks. Se generan a partir de una semilla, así que
+ * dos ejecuciones miden exactamente los mismos tableros.
+ * <ul>
+ *     <li>{@code easy}: solución única dejando la mitad de las casillas como pistas.</li>
+ *     <li>{@code hard}: solución única con el mínimo de pistas que deja el generador.</li>
+ *     <li>{@code unsolvable}: tableros {@code hard} con una pista extra que no choca con
+ *     ninguna otra pero deja el tablero sin solución.</li>
+ * </ul>
+ */
+
+public final class PuzzleCorpus {
+    public static final long SEED = 20241016L;
+    public static final int SIZE = 512;
+
+    private PuzzleCorpus() {
+    }
+
+    /**
+     * Construye un corpus.
+     *
+     * @param geometry La geometría de los tableros.
+     * @param kind     {@code easy}, {@code hard} o {@code unsolvable}.
+     * @return Los tableros, con 0 en las casillas vacías.
+     */
+
+    public static int[][][] build(BoardGeometry geometry, String kind) {
+        int size = geometry.getSize();
+        Random random = new Random(SEED ^ kind.hashCode());
+        PuzzleGenerator generator = new PuzzleGenerator(geometry, random);
+        generator.setTargetClues(kind.equals("easy") ? geometry.getCellCount() / 2 : 0);
+        BitmaskSolver counter = new BitmaskSolver(geometry, null);
+        int[][][] corpus = new int[SIZE][][];
+        int[][] solution = new int[size][size];
+        int n = 0;
+        while (n < SIZE) {
+            int[][] puzzle = new int[size][size];
+            generator.generate(puzzle, solution);
+            if (kind.equals("unsolvable") && !breakPuzzle(puzzle, solution, counter, random)) {
+                continue;
+            }
+            corpus[n++] = puzzle;
+        }
+        return corpus;
+    }
+
+    /**
+     * Construye tableros completos y válidos.
+     *
+     * @param geometry La geometría de los tableros.
+     * @return Las soluciones.
+     */
+
+    public static int[][][] solved(BoardGeometry geometry) {
+        int size = geometry.getSize();
+        BitmaskSolver solver = new BitmaskSolver(geometry, new Random(SEED));
+        int[][][] corpus = new int[SIZE][][];
+        for (int n = 0; n < SIZE; n++) {
+            corpus[n] = new int[size][size];
+            solver.solve(corpus[n]);
+        }
+        return corpus;
+    }
+
+    /**
+     * Agrega una pista que no choca con las demás pero elimina todas las soluciones.
+     *
+     * @return true si se encontró una pista así.
+     */
+
+    private static boolean breakPuzzle(int[][] puzzle, int[][] solution, BitmaskSolver counter, Random random) {
+        int size = puzzle.length;
+        for (int attempt = 0; attempt < size * size; attempt++) {
+            int row = random.nextInt(size);
+            int col = random.nextInt(size);
+            if (puzzle[row][col] != 0) {
+                continue;
+            }
+            for (int value = 1; value <= size; value++) {
+                if (value == solution[row][col]) {
+                    continue;
+                }
+                puzzle[row][col] = value;
+                if (noDirectConflict(puzzle, row, col) && counter.countSolutions(puzzle, 1) == 0) {
+                    return true;
+                }
+                puzzle[row][col] = 0;
+            }
+        }
+        return false;
+    }
+
+    private static boolean noDirectConflict(int[][] puzzle, int row, int col) {
+        BoardGeometry geometry = BoardGeometry.of(puzzle.length);
+        int value = puzzle[row][col];
+        for (int peer : geometry.peers(geometry.cell(row, col))) {
+            if (puzzle[geometry.row(peer)][geometry.col(peer)] == value) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Copia un tablero sobre otro de la misma forma sin crear objetos.
+     */
+
+    public static void copy(int[][] from, int[][] to) {
+        for (int i = 0; i < from.length; i++) {
+            System.arraycopy(from[i], 0, to[i], 0, from[i].length);
+        }
+    }
+}
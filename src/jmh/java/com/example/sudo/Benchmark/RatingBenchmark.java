@@ -0,0 +1,49 @@
+package com.example.sudo.Benchmark;
+
+import com.example.sudo.Model.BoardGeometry;
+import com.example.sudo.Model.LogicalSolver;
+import com.example.sudo.Model.Rating;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide cuánto tarda el {@link LogicalSolver} en calificar un tablero del corpus.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RatingBenchmark {
+
+    @Param({"easy", "hard"})
+    public String corpus;
+
+    @Param({"6", "9"})
+    public int size;
+
+    private int[][][] puzzles;
+    private LogicalSolver solver;
+    private int next;
+
+    @Setup
+    public void setup() {
+        BoardGeometry geometry = BoardGeometry.of(size);
+        puzzles = PuzzleCorpus.build(geometry, corpus);
+        solver = new LogicalSolver(geometry);
+    }
+
+    @Benchmark
+    public Rating rate() {
+        int[][] puzzle = puzzles[next];
+        next = (next + 1) % puzzles.length;
+        return solver.rate(puzzle);
+    }
+}
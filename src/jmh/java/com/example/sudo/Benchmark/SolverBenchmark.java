@@ -0,0 +1,74 @@
+package com.example.sudo.Benchmark;
+
+import com.example.sudo.Model.BitmaskSolver;
+import com.example.sudo.Model.BoardGeometry;
+import com.example.sudo.Model.CachingSolver;
+import com.example.sudo.Model.DancingLinksSolver;
+import com.example.sudo.Model.ParallelSolver;
+import com.example.sudo.Model.SolutionCache;
+import com.example.sudo.Model.Sudoku;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide {@link Sudoku#resolveSudoku()} y la comprobación de unicidad con cada motor sobre los
+ * corpus de {@link PuzzleCorpus}. El motor {@code cached} pone una {@link SolutionCache} delante
+ * del de máscaras de bits; como el corpus se recorre en ciclo, mide el coste de un acierto.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SolverBenchmark {
+
+    @Param({"easy", "hard", "unsolvable"})
+    public String corpus;
+
+    @Param({"bitmask", "dlx", "parallel", "cached"})
+    public String engine;
+
+    @Param({"6"})
+    public int size;
+
+    private int[][][] puzzles;
+    private int[][] board;
+    private Sudoku sudoku;
+    private int next;
+
+    @Setup
+    public void setup() {
+        BoardGeometry geometry = BoardGeometry.of(size);
+        puzzles = PuzzleCorpus.build(geometry, corpus);
+        board = new int[size][size];
+        sudoku = new Sudoku(geometry);
+        sudoku.setSolver(switch (engine) {
+            case "dlx" -> new DancingLinksSolver(geometry, null);
+            case "parallel" -> new ParallelSolver(geometry);
+            case "cached" -> new CachingSolver(new BitmaskSolver(geometry, null), new SolutionCache(4096));
+            default -> new BitmaskSolver(geometry, null);
+        });
+        sudoku.setSudoku(board);
+    }
+
+    @Benchmark
+    public boolean resolveSudoku() {
+        PuzzleCorpus.copy(puzzles[next], board);
+        next = (next + 1) % puzzles.length;
+        return sudoku.resolveSudoku();
+    }
+
+    @Benchmark
+    public long countUpToTwo() {
+        int[][] puzzle = puzzles[next];
+        next = (next + 1) % puzzles.length;
+        return sudoku.getSolver().countSolutions(puzzle, 2);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.sudo.Benchmark;
+
+import com.example.sudo.Model.BoardGeometry;
+import com.example.sudo.Model.Sudoku;
+import com.example.sudo.Model.SudokuBoard;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide los validadores: {@link Sudoku#winCheck()} sobre tableros completos (válidos y con un
+ * número repetido) y {@link Sudoku#isNumberValid} sobre el {@link SudokuBoard} de un tablero a medio llenar.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ValidationBenchmark {
+
+    @Param({"6"})
+    public int size;
+
+    private int[][][] valid;
+    private int[][][] invalid;
+    private int[][][] puzzles;
+    private Sudoku sudoku;
+    private SudokuBoard board;
+    private int next;
+
+    @Setup
+    public void setup() {
+        BoardGeometry geometry = BoardGeometry.of(size);
+        valid = PuzzleCorpus.solved(geometry);
+        invalid = PuzzleCorpus.solved(geometry);
+        for (int[][] board : invalid) {
+            board[size - 1][size - 1] = board[size - 1][0]; // Repite un número en la última fila
+        }
+        puzzles = PuzzleCorpus.build(geometry, "easy");
+        sudoku = new Sudoku(geometry);
+        board = sudoku.getBoard();
+    }
+
+    @Benchmark
+    public boolean winCheckValid() {
+        sudoku.setSudoku(valid[next]);
+        next = (next + 1) % valid.length;
+        return sudoku.winCheck();
+    }
+
+    @Benchmark
+    public boolean winCheckInvalid() {
+        sudoku.setSudoku(invalid[next]);
+        next = (next + 1) % invalid.length;
+        return sudoku.winCheck();
+    }
+
+    /**
+     * Comprueba cada número posible en cada casilla vacía de un tablero, como al teclear.
+     */
+
+    @Benchmark
+    public int isNumberValid() {
+        int[][] puzzle = puzzles[next];
+        next = (next + 1) % puzzles.length;
+        board.load(puzzle);
+        int validCount = 0;
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                if (puzzle[row][col] != 0) {
+                    continue;
+                }
+                for (int num = 1; num <= size; num++) {
+                    if (sudoku.isNumberValid(row, col, num)) {
+                        validCount++;
+                    }
+                }
+            }
+        }
+        return validCount;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.sudo.Controller;
+
+import com.example.sudo.Model.BoardGeometry;
+import com.example.sudo.Model.CachingSolver;
+import com.example.sudo.Model.ParallelSolver;
+import com.example.sudo.Model.SolutionCache;
+import com.example.sudo.Model.SolveControl;
+import com.example.sudo.Model.SudokuSolver;
+import javafx.concurrent.Task;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Tarea que resuelve un tablero fuera del hilo de JavaFX.
+ * Trabaja sobre una copia de las pistas con su propio motor, así que no comparte estado con la partida;
+ * la búsqueda se reparte entre los núcleos con un {@link ParallelSolver}. Los tableros de 6x6 se
+ * buscan antes en la {@link SolutionCache}, si se indica una.
+ * Publica el número de nodos explorados como mensaje, se puede cancelar en cualquier momento y
+ * falla con {@link TimeoutException} si supera el plazo. Su valor es la solución, o null si el
+ * tablero no tiene solución.
+ */
+
+public class SolveTask extends Task<int[][]> {
+    private final BoardGeometry geometry;
+    private final int[][] board;
+    private final SolveControl control;
+    private final SolutionCache cache;
+
+    /**
+     * Crea la tarea copiando las pistas; debe construirse en el hilo de JavaFX.
+     *
+     * @param geometry La geometría del tablero.
+     * @param clues    Las pistas, con 0 en las casillas vacías.
+     * @param timeout  El tiempo máximo de búsqueda.
+     */
+
+    public SolveTask(BoardGeometry geometry, int[][] clues, Duration timeout) {
+        this(geometry, clues, timeout, null);
+    }
+
+    /**
+     * Crea la tarea copiando las pistas; debe construirse en el hilo de JavaFX.
+     *
+     * @param geometry La geometría del tablero.
+     * @param clues    Las pistas, con 0 en las casillas vacías.
+     * @param timeout  El tiempo máximo de búsqueda.
+     * @param cache    La caché de soluciones de 6x6, o null para buscar siempre.
+     */
+
+    public SolveTask(BoardGeometry geometry, int[][] clues, Duration timeout, SolutionCache cache) {
+        this.geometry = geometry;
+        this.cache = cache;
+        this.board = new int[clues.length][];
+        for (int i = 0; i < clues.length; i++) {
+            board[i] = clues[i].clone();
+        }
+        this.control = new SolveControl(timeout, nodes -> updateMessage("Resolviendo... " + nodes + " nodos"));
+    }
+
+    @Override
+    protected int[][] call() throws TimeoutException {
+        SudokuSolver solver = new ParallelSolver(geometry);
+        if (cache != null && geometry == BoardGeometry.SIZE_6) {
+            solver = new CachingSolver(solver, cache);
+        }
+        solver.setControl(control);
+        boolean solved = solver.solve(board);
+        if (control.isTimedOut()) {
+            throw new TimeoutException("Se agotó el tiempo tras " + control.getNodes() + " nodos");
+        }
+        if (!solved) {
+            return null; // Sin solución, o cancelada (en ese caso el valor se descarta)
+        }
+        long nodes = control.getNodes();
+        updateMessage(nodes == 0 ? "Resuelto (solución en caché)" : "Resuelto en " + nodes + " nodos");
+        return board;
+    }
+
+    /**
+     * Cancela la tarea y detiene la búsqueda en el siguiente punto de control del motor.
+     */
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        control.cancel();
+        return super.cancel(mayInterruptIfRunning);
+    }
+
+    /**
+     * @return Los nodos explorados hasta ahora.
+     */
+
+    public long getNodes() {
+        return control.getNodes();
+    }
+}
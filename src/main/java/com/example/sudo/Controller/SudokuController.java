@@ -1,67 +1,218 @@
 package com.example.sudo.Controller;
 
+import com.example.sudo.Model.BoardGeometry;
+import com.example.sudo.Model.CachingSolver;
+import com.example.sudo.Model.GameHistory;
+import com.example.sudo.Model.Hint;
+import com.example.sudo.Model.MetricsRegistry;
+import com.example.sudo.Model.PuzzlePool;
+import com.example.sudo.Model.SavedGame;
+import com.example.sudo.Model.SolutionCache;
+import com.example.sudo.Model.Sudoku;
 import com.example.sudo.View.AlertAdapter;
 import com.example.sudo.View.AlertHandler;
+import com.example.sudo.View.BoardView;
+import com.example.sudo.View.CanvasBoardView;
 import com.example.sudo.View.SudokuBoardView;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyCodeCombination;
+import javafx.scene.input.KeyCombination;
+import javafx.scene.input.KeyEvent;
 import javafx.scene.layout.Pane;
 import javafx.scene.paint.Color;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
 /**
  * Esta clase es el controlador de la vista del Sudoku. Se encarga de la lógica
  * relacionada con la interacción del usuario y la actualización de la vista del tablero.
  */
 
 public class SudokuController {
-    private SudokuBoardView sudokuBoard;
+    private static final int POOL_CAPACITY = 4; // Partidas pregeneradas por nivel de dificultad
+    private static final Duration SOLVE_TIMEOUT = Duration.ofSeconds(10);
+    private static final int SOLUTION_CACHE_CAPACITY = 4096;
+    private static final KeyCombination UNDO = new KeyCodeCombination(KeyCode.Z, KeyCombination.SHORTCUT_DOWN);
+    private static final KeyCombination REDO = new KeyCodeCombination(KeyCode.Y, KeyCombination.SHORTCUT_DOWN);
+    private static final KeyCombination REDO_ALT = new KeyCodeCombination(KeyCode.Z, KeyCombination.SHORTCUT_DOWN,
+            KeyCombination.SHIFT_DOWN);
+    private static final KeyCombination BRANCH = new KeyCodeCombination(KeyCode.B, KeyCombination.SHORTCUT_DOWN);
+    private static final KeyCombination ROLLBACK = new KeyCodeCombination(KeyCode.R, KeyCombination.SHORTCUT_DOWN);
+
+    private BoardView sudokuBoard;
+    private PuzzlePool puzzlePool;
+    private SolutionCache solutionCache;
+    private SolveTask solveTask;
 
     @FXML
     private Pane panelFondo;
+    @FXML
+    private Button resolveButton;
+    @FXML
+    private Label statusLabel;
     private AlertHandler alertHandler;
 
     /**
      * Inicializa los componentes de la vista del Sudoku.
-     * - Crea una instancia de `SudokuBoardView`.
-     * - Configura el tamaño y estilo de las casillas del tablero.
+     * - Crea la vista del tablero: la de un campo de texto por casilla o, con la propiedad del
+     *   sistema {@code sudo.renderer=canvas}, la dibujada en un solo lienzo.
      * - Agrega la vista del tablero al panel de fondo.
-     * - Hace visible la vista del tablero.
-     * - Genera un Sudoku inicial.
+     * - Crea la reserva de partidas que se llena en segundo plano.
+     * - Pone la caché de soluciones delante del motor de la partida (solo en 6x6).
+     * - Retoma la partida guardada o, si no hay, genera un Sudoku inicial.
+     * - Registra los atajos de teclado para deshacer, rehacer y las bifurcaciones.
      */
 
     public void startComponents() {
         this.alertHandler = new AlertAdapter();
-        this.sudokuBoard = new SudokuBoardView();
-        sudokuBoard.setTxtAltura(36);
-        sudokuBoard.setTxWidth(36);
-        sudokuBoard.setTxtLetterSize(27);
+        this.sudokuBoard = "canvas".equals(System.getProperty("sudo.renderer")) ? createCanvasBoard() : createTextBoard();
+        Pane pane = sudokuBoard.getPane();
+        pane.setLayoutX(20);
+        pane.setLayoutY(80);
+        panelFondo.getChildren().add(pane);
 
-        //tableroSudoku.setPanelBackground(new Color(89,43,25));
+        pane.setVisible(true);
+        sudokuBoard.makeSudoku();
+        puzzlePool = new PuzzlePool(sudokuBoard.getGeometry(), POOL_CAPACITY);
+        sudokuBoard.setPuzzlePool(puzzlePool);
+        MetricsRegistry metrics = MetricsRegistry.global();
+        metrics.gauge("pool.hits", puzzlePool::getHits);
+        metrics.gauge("pool.misses", puzzlePool::getMisses);
+        metrics.gauge("pool.generated", puzzlePool::getGeneratedCount);
+        metrics.gauge("pool.puzzles_per_second", () -> Math.round(puzzlePool.getPuzzlesPerSecond()));
+        if (sudokuBoard.getGeometry() == BoardGeometry.SIZE_6) {
+            solutionCache = new SolutionCache(SOLUTION_CACHE_CAPACITY);
+            Sudoku sudoku = sudokuBoard.getSudoku();
+            sudoku.setSolver(new CachingSolver(sudoku.getSolver(), solutionCache));
+            metrics.gauge("cache.hits", solutionCache::getHits);
+            metrics.gauge("cache.misses", solutionCache::getMisses);
+            metrics.gauge("cache.evictions", solutionCache::getEvictions);
+            metrics.gauge("cache.bytes", solutionCache::getMemoryFootprint);
+        }
+        resumeOrGenerate();
+        panelFondo.addEventFilter(KeyEvent.KEY_PRESSED, this::onHistoryKey);
+    }
 
-        sudokuBoard.setLayoutX(20);
-        sudokuBoard.setLayoutY(80);
+    /**
+     * Retoma la partida guardada al cerrar la última vez, si hay una del mismo tamaño de tablero;
+     * si no, o si el archivo está dañado, genera una nueva.
+     */
 
-        sudokuBoard.setTxtBackground1(Color.WHITE);
-        sudokuBoard.setTextForeground1(Color.BLACK);
-        sudokuBoard.setTxtBackground2(new Color((double) 232 / 255, (double) 102 / 255, (double) 102 / 255, 0));
-        sudokuBoard.setTextForeground2(Color.BLACK);
-        sudokuBoard.setTxtBackground3(new Color((double) 232 / 255, (double) 102 / 255, (double) 102 / 255, 0));
-        sudokuBoard.setTextForeground3(Color.WHITE);
+    private void resumeOrGenerate() {
+        Path file = saveFile();
+        if (Files.exists(file)) {
+            try {
+                SavedGame game = SavedGame.read(file);
+                if (game.getGeometry() == sudokuBoard.getGeometry()) {
+                    sudokuBoard.resumeGame(game);
+                    statusLabel.setText("Partida recuperada.");
+                    return;
+                }
+            } catch (IOException e) {
+                statusLabel.setText("No se pudo recuperar la partida guardada.");
+            }
+        }
+        sudokuBoard.generateSudoku();
+    }
 
+    /**
+     * Guarda la partida en curso para retomarla al volver a abrir el juego. Se llama al cerrar la ventana.
+     */
 
-        panelFondo.getChildren().add(sudokuBoard);
+    public void saveGame() {
+        if (solveTask != null && solveTask.isRunning()) {
+            solveTask.cancel();
+        }
+        try {
+            sudokuBoard.getSudoku().save().write(saveFile());
+        } catch (IOException | IllegalStateException e) {
+            System.err.println("No se pudo guardar la partida: " + e.getMessage());
+        }
+    }
 
-        sudokuBoard.setVisible(true);
-        sudokuBoard.makeSudoku();
-        sudokuBoard.generateSudoku();
+    /**
+     * @return El archivo de la partida guardada: el de la propiedad del sistema {@code sudo.save}, o
+     * {@code .sudo/partida.bin} en la carpeta del usuario.
+     */
 
+    private static Path saveFile() {
+        String file = System.getProperty("sudo.save");
+        return file != null ? Path.of(file) : Path.of(System.getProperty("user.home"), ".sudo", "partida.bin");
+    }
+
+    /**
+     * Atajos de la historia de la partida: Ctrl+Z deshace, Ctrl+Y o Ctrl+Shift+Z rehace,
+     * Ctrl+B marca un punto de bifurcación antes de probar un número y Ctrl+R vuelve a él.
+     * Se atienden antes que los campos del tablero, que tienen su propio deshacer de texto.
+     *
+     * @param event La tecla presionada.
+     */
 
+    private void onHistoryKey(KeyEvent event) {
+        GameHistory history = sudokuBoard.getSudoku().getHistory();
+        String message;
+        if (UNDO.match(event)) {
+            message = history.undo() ? null : "No hay nada para deshacer.";
+        } else if (REDO.match(event) || REDO_ALT.match(event)) {
+            message = history.redo() ? null : "No hay nada para rehacer.";
+        } else if (BRANCH.match(event)) {
+            message = "Punto de bifurcación " + history.markBranch() + " marcado.";
+        } else if (ROLLBACK.match(event)) {
+            message = history.rollback() ? "Vuelto al punto de bifurcación " + (history.getBranchDepth() + 1) + "."
+                    : "No hay un punto de bifurcación marcado.";
+        } else {
+            return;
+        }
+        event.consume();
+        if (message != null && !statusLabel.textProperty().isBound()) {
+            statusLabel.setText(message);
+        }
+    }
+
+    /**
+     * Crea la vista de un campo de texto por casilla, con su tamaño y colores.
+     */
+
+    private BoardView createTextBoard() {
+        SudokuBoardView view = new SudokuBoardView();
+        view.setTxtAltura(36);
+        view.setTxWidth(36);
+        view.setTxtLetterSize(27);
+
+        //tableroSudoku.setPanelBackground(new Color(89,43,25));
+
+        view.setTxtBackground1(Color.WHITE);
+        view.setTextForeground1(Color.BLACK);
+        view.setTxtBackground2(new Color((double) 232 / 255, (double) 102 / 255, (double) 102 / 255, 0));
+        view.setTextForeground2(Color.BLACK);
+        view.setTxtBackground3(new Color((double) 232 / 255, (double) 102 / 255, (double) 102 / 255, 0));
+        view.setTextForeground3(Color.WHITE);
+        return view;
+    }
+
+    /**
+     * Crea la vista dibujada en un lienzo, con las casillas del mismo tamaño que la de texto.
+     */
+
+    private BoardView createCanvasBoard() {
+        CanvasBoardView view = new CanvasBoardView();
+        view.setCellSize(36);
+        return view;
     }
 
     /**
      * Maneja el evento de click en el botón "Nuevo Juego".
-     * Genera un nuevo Sudoku aleatorio.
-     * Imprime un mensaje de consola (opcional).
+     * Toma un nuevo Sudoku de la reserva de partidas pregeneradas, sin generar en el hilo de JavaFX
+     * salvo que la reserva esté vacía.
+     * Los aciertos de la reserva se ven en el informe del {@link MetricsRegistry}.
      *
      * @param event El evento de click del botón.
      */
@@ -69,10 +220,11 @@ public class SudokuController {
     void onNewGamePressedButton(ActionEvent event) {
 
         alertHandler.showConfirmation("¿Seguro que desea iniciar una nueva partida?", () -> {
+            if (solveTask != null && solveTask.isRunning()) {
+                solveTask.cancel(); // Su solución ya no corresponde al tablero
+            }
             sudokuBoard.generateSudoku();
-            System.out.println("Nueva partida iniciada.");
         });
-        System.out.println("Hola");
     }
 
     /**
@@ -90,25 +242,66 @@ public class SudokuController {
 
     /**
      * Maneja el evento de click en el botón "Ayuda".
+     * Aplica la siguiente jugada lógica y muestra su explicación en la etiqueta de estado.
      * (La implementación de la funcionalidad de ayuda se delega a la clase SudokuBoardView)
      *
      * @param actionEvent El evento de click del botón.
      */
     @FXML
     public void onHelpButton(ActionEvent actionEvent) {
-        sudokuBoard.help();
+        Hint hint = sudokuBoard.help();
+        if (hint != null && !statusLabel.textProperty().isBound()) {
+            statusLabel.setText(hint.getReason());
+        }
     }
 
     /**
      * Maneja el evento de click en el botón "Resolver".
-     * Resuelve el Sudoku automáticamente.
-     * (La implementación del algoritmo de resolución se delega a la clase SudokuBoardView)
+     * Resuelve el Sudoku en un hilo virtual con una {@link SolveTask}, mostrando los nodos explorados;
+     * mientras tanto el botón cambia a "Cancelar" y un segundo click detiene la búsqueda.
+     * La solución se muestra de una vez al terminar.
      *
      * @param event El evento de click del botón.
      */
     @FXML
     void onResolveButton(ActionEvent event) {
-        // tableroSudoku.resolver();
-        sudokuBoard.completeSudoku();}
+        if (solveTask != null && solveTask.isRunning()) {
+            solveTask.cancel();
+            return;
+        }
+        SolveTask task = new SolveTask(sudokuBoard.getGeometry(), sudokuBoard.getSudoku().getClues(),
+                SOLVE_TIMEOUT, solutionCache);
+        task.setOnSucceeded(e -> {
+            finishSolve();
+            if (task.getValue() == null) {
+                alertHandler.showError("El tablero no tiene solución.");
+            } else {
+                sudokuBoard.applySolution(task.getValue());
+            }
+        });
+        task.setOnFailed(e -> {
+            finishSolve();
+            alertHandler.showError(task.getException() instanceof TimeoutException
+                    ? "No se encontró una solución a tiempo (" + task.getNodes() + " nodos)."
+                    : "No se pudo resolver el tablero.");
+        });
+        task.setOnCancelled(e -> {
+            finishSolve();
+            statusLabel.setText("Resolución cancelada.");
+        });
+        solveTask = task;
+        statusLabel.textProperty().bind(task.messageProperty());
+        resolveButton.setText("Cancelar");
+        Thread.ofVirtual().name("sudoku-solve").start(task);
+    }
+
+    /**
+     * Devuelve el botón y la etiqueta de estado a su estado normal al terminar una resolución.
+     */
+
+    private void finishSolve() {
+        statusLabel.textProperty().unbind();
+        resolveButton.setText("Resolver");
+    }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,347 @@
+package com.example.sudo.Main;
+
+import com.example.sudo.Model.BitmaskSolver;
+import com.example.sudo.Model.BoardCodec;
+import com.example.sudo.Model.BoardGeometry;
+import com.example.sudo.Model.CachingSolver;
+import com.example.sudo.Model.DancingLinksSolver;
+import com.example.sudo.Model.Difficulty;
+import com.example.sudo.Model.GeneratedPuzzle;
+import com.example.sudo.Model.GridStore;
+import com.example.sudo.Model.GridValidator;
+import com.example.sudo.Model.PuzzleStream;
+import com.example.sudo.Model.SolutionCache;
+import com.example.sudo.Model.SudokuSolver;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Punto de entrada sin interfaz gráfica para resolver, validar o generar tableros en lote.
+ * Lee un tablero por línea en el formato compacto de {@link BoardCodec} desde un archivo o
+ * desde la entrada estándar, reparte los tableros en bloques sobre un {@link ForkJoinPool} y
+ * escribe los resultados en el mismo orden de entrada. Solo se mantiene en memoria un número
+ * acotado de bloques a la vez, así que sirve para corpus de millones de tableros.
+ *
+ * <pre>
+ * BatchSolver [--engine bitmask|dlx] [--threads N] [--validate] [--cache N] [archivo]
+ * BatchSolver --generate N [--skip K] [--size 6] [--difficulty easy|medium|hard] [--seed S] [--threads N] [--grids archivo]
+ * BatchSolver --check [--threads N] [archivo]
+ * </pre>
+ *
+ * Con {@code --validate} cada línea de salida es {@code UNIQUE}, {@code MULTIPLE} o {@code NONE};
+ * al resolver es la solución, o {@code NONE} si no existe. Las líneas mal formadas producen
+ * {@code INVALID}. Las estadísticas de rendimiento se escriben en la salida de error.
+ * Los tableros generados tienen las pistas del nivel de {@code --difficulty}, difícil si no se indica.
+ * Con {@code --grids}, los tableros de 6x6 se generan a partir de la {@link GridStore} guardada en
+ * el archivo, que se construye y se escribe la primera vez. Los tableros generados salen de un
+ * {@link PuzzleStream}: con la misma semilla, {@code --skip K --generate N} escribe los tableros K a
+ * K+N-1 de la secuencia sin generar los anteriores, así que un trabajo grande se reparte entre varias
+ * JVM con rangos disjuntos y el resultado no depende del número de hilos.
+ * Con {@code --cache}, los tableros de 6x6 se resuelven o validan a través de una
+ * {@link SolutionCache} de N entradas compartida por todos los hilos, así que los tableros que se
+ * repiten salvo simetría se resuelven una sola vez; sus métricas se escriben al terminar.
+ * Con {@code --check} las líneas son tableros de 6x6 completos y cada línea de salida es
+ * {@code CORRECT} o {@code INCORRECT}; se comprueban por bloques con el {@link GridValidator} más
+ * rápido disponible, que usa la API de vectores si se arranca con
+ * {@code --add-modules jdk.incubator.vector}.
+ * Una opción desconocida termina con el código de salida 2.
+ */
+
+public class BatchSolver {
+    private static final int CHUNK_SIZE = 1024;
+
+    private final ForkJoinPool pool;
+    private final String engine;
+    private final boolean validate;
+    private final int maxInFlight;
+    private final ThreadLocal<Map<BoardGeometry, SudokuSolver>> solvers = ThreadLocal.withInitial(HashMap::new);
+    private GridStore grids;
+    private SolutionCache cache;
+    private GridValidator validator;
+    private ThreadLocal<GridChecker> checkers;
+
+    /**
+     * Crea un procesador por lotes.
+     *
+     * @param threads  El número de hilos de trabajo.
+     * @param engine   El motor de resolución, {@code bitmask} o {@code dlx}.
+     * @param validate true para comprobar la unicidad en lugar de resolver.
+     */
+
+    public BatchSolver(int threads, String engine, boolean validate) {
+        this.pool = new ForkJoinPool(threads);
+        this.engine = engine;
+        this.validate = validate;
+        this.maxInFlight = threads * 4;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        String engine = "bitmask";
+        boolean validate = false;
+        boolean check = false;
+        long generate = -1;
+        long skip = 0;
+        int size = 6;
+        String difficulty = "hard";
+        long seed = System.nanoTime();
+        String file = null;
+        String gridsFile = null;
+        int cacheCapacity = 0;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--engine" -> engine = args[++i];
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                case "--validate" -> validate = true;
+                case "--check" -> check = true;
+                case "--generate" -> generate = Long.parseLong(args[++i]);
+                case "--skip" -> skip = Long.parseLong(args[++i]);
+                case "--size" -> size = Integer.parseInt(args[++i]);
+                case "--difficulty" -> difficulty = args[++i];
+                case "--seed" -> seed = Long.parseLong(args[++i]);
+                case "--grids" -> gridsFile = args[++i];
+                case "--cache" -> cacheCapacity = Integer.parseInt(args[++i]);
+                default -> {
+                    if (args[i].startsWith("--")) {
+                        System.err.println("Opción desconocida: " + args[i]);
+                        System.exit(2);
+                    }
+                    file = args[i];
+                }
+            }
+        }
+        if (!engine.equals("bitmask") && !engine.equals("dlx")) {
+            System.err.println("Motor desconocido: " + engine);
+            System.exit(2);
+        }
+        Difficulty level = null;
+        try {
+            level = Difficulty.valueOf(difficulty.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Dificultad desconocida: " + difficulty);
+            System.exit(2);
+        }
+
+        BatchSolver batch = new BatchSolver(threads, engine, validate);
+        if (gridsFile != null && size == 6) {
+            batch.setGridStore(GridStore.loadOrBuild(Path.of(gridsFile), batch.pool));
+        }
+        if (cacheCapacity > 0) {
+            batch.setSolutionCache(new SolutionCache(cacheCapacity));
+        }
+        if (check) {
+            batch.setGridValidator(GridValidator.create());
+        }
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.US_ASCII), 1 << 16);
+        try {
+            if (generate >= 0) {
+                PuzzleStream puzzles = new PuzzleStream(BoardGeometry.of(size), level, seed);
+                if (size == 6) {
+                    puzzles.setGridStore(batch.grids);
+                }
+                batch.generate(puzzles, skip, skip + generate, out);
+            } else {
+                BufferedReader in = file == null
+                        ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.US_ASCII), 1 << 16)
+                        : Files.newBufferedReader(Path.of(file), StandardCharsets.US_ASCII);
+                try (in) {
+                    batch.process(in, out);
+                }
+            }
+        } finally {
+            out.flush();
+            batch.pool.shutdown();
+        }
+        if (batch.cache != null) {
+            System.err.println(batch.cache);
+        }
+    }
+
+    /**
+     * Asigna la tabla de soluciones de 6x6 usada al generar tableros de ese tamaño.
+     *
+     * @param grids La tabla, o null para generar por búsqueda.
+     */
+
+    public void setGridStore(GridStore grids) {
+        this.grids = grids;
+    }
+
+    /**
+     * Asigna la caché consultada antes de resolver o validar tableros de 6x6.
+     *
+     * @param cache La caché, o null para resolver siempre.
+     */
+
+    public void setSolutionCache(SolutionCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Asigna el validador con el que se comprueban tableros completos en lugar de resolverlos.
+     *
+     * @param validator El validador, o null para resolver o validar.
+     */
+
+    public void setGridValidator(GridValidator validator) {
+        this.validator = validator;
+        this.checkers = validator == null ? null : ThreadLocal.withInitial(() -> new GridChecker(validator, CHUNK_SIZE));
+    }
+
+    /**
+     * Procesa todas las líneas de la entrada y escribe un resultado por línea, en orden.
+     *
+     * @param in  La entrada con un tablero por línea.
+     * @param out La salida.
+     * @return El número de tableros procesados.
+     * @throws IOException Si falla la lectura o la escritura.
+     */
+
+    public long process(BufferedReader in, Writer out) throws IOException {
+        long start = System.nanoTime();
+        long total = 0;
+        ArrayDeque<ForkJoinTask<String>> inFlight = new ArrayDeque<>();
+        List<String> chunk = new ArrayList<>(CHUNK_SIZE);
+        String line;
+        while ((line = in.readLine()) != null) {
+            line = line.strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            chunk.add(line);
+            total++;
+            if (chunk.size() == CHUNK_SIZE) {
+                submit(inFlight, chunk, out);
+                chunk = new ArrayList<>(CHUNK_SIZE);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            submit(inFlight, chunk, out);
+        }
+        while (!inFlight.isEmpty()) {
+            out.write(inFlight.poll().join());
+        }
+        if (validator != null) {
+            report("comprobados con el validador " + validator.getName(), total, start);
+        } else {
+            report(validate ? "validados" : "resueltos", total, start);
+        }
+        return total;
+    }
+
+    /**
+     * Envía un bloque al pool; si ya hay demasiados bloques pendientes, primero espera y escribe
+     * el más antiguo para mantener el orden y acotar la memoria.
+     */
+
+    private void submit(ArrayDeque<ForkJoinTask<String>> inFlight, List<String> chunk, Writer out) throws IOException {
+        while (inFlight.size() >= maxInFlight) {
+            out.write(inFlight.poll().join());
+        }
+        inFlight.add(pool.submit(() -> processChunk(chunk)));
+    }
+
+    private String processChunk(List<String> chunk) {
+        StringBuilder sb = new StringBuilder(chunk.size() * (chunk.get(0).length() + 1));
+        if (checkers != null) {
+            checkers.get().check(chunk, sb);
+            return sb.toString();
+        }
+        for (String line : chunk) {
+            processLine(line, sb);
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    private void processLine(String line, StringBuilder sb) {
+        int[][] board;
+        try {
+            board = BoardCodec.parse(line);
+        } catch (IllegalArgumentException e) {
+            sb.append("INVALID");
+            return;
+        }
+        SudokuSolver solver = solverFor(BoardGeometry.of(board.length));
+        if (validate) {
+            long count = solver.countSolutions(board, 2);
+            sb.append(count == 0 ? "NONE" : count == 1 ? "UNIQUE" : "MULTIPLE");
+        } else if (solver.solve(board)) {
+            BoardCodec.appendTo(sb, board);
+        } else {
+            sb.append("NONE");
+        }
+    }
+
+    private SudokuSolver solverFor(BoardGeometry geometry) {
+        return solvers.get().computeIfAbsent(geometry, g -> {
+            SudokuSolver solver = engine.equals("dlx")
+                    ? new DancingLinksSolver(g, null)
+                    : new BitmaskSolver(g, null);
+            return cache != null && g == BoardGeometry.SIZE_6 ? new CachingSolver(solver, cache) : solver;
+        });
+    }
+
+    /**
+     * Genera tableros con solución única en paralelo, repartiendo el rango de la secuencia en
+     * bloques. Cada tablero depende solo de la semilla y de su posición, así que la salida es la
+     * misma sin importar el número de hilos ni cómo se parta el rango.
+     *
+     * @param puzzles La secuencia de partidas.
+     * @param from    La primera posición a generar, incluida.
+     * @param to      La última posición, excluida.
+     * @param out     La salida, las pistas de un tablero por línea.
+     * @throws IOException Si falla la escritura.
+     */
+
+    public void generate(PuzzleStream puzzles, long from, long to, Writer out) throws IOException {
+        long start = System.nanoTime();
+        ArrayDeque<ForkJoinTask<String>> inFlight = new ArrayDeque<>();
+        for (long first = from; first < to; first += CHUNK_SIZE) {
+            Spliterator<GeneratedPuzzle> chunk = puzzles.spliterator(first, Math.min(first + CHUNK_SIZE, to));
+            while (inFlight.size() >= maxInFlight) {
+                out.write(inFlight.poll().join());
+            }
+            inFlight.add(pool.submit(() -> generateChunk(puzzles.getGeometry(), chunk)));
+        }
+        while (!inFlight.isEmpty()) {
+            out.write(inFlight.poll().join());
+        }
+        report("generados", to - from, start);
+    }
+
+    private String generateChunk(BoardGeometry geometry, Spliterator<GeneratedPuzzle> chunk) {
+        int size = geometry.getSize();
+        int[][] puzzle = new int[size][size];
+        StringBuilder sb = new StringBuilder((int) chunk.estimateSize() * (geometry.getCellCount() + 1));
+        chunk.forEachRemaining(generated -> {
+            generated.copyPuzzleTo(puzzle);
+            BoardCodec.appendTo(sb, puzzle);
+            sb.append('\n');
+        });
+        return sb.toString();
+    }
+
+    private void report(String action, long total, long start) {
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.err.printf("%d tableros %s en %.3f s (%.0f tableros/s, %d hilos)%n",
+                total, action, seconds, total / Math.max(seconds, 1e-9), pool.getParallelism());
+    }
+}
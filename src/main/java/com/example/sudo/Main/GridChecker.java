@@ -0,0 +1,70 @@
+package com.example.sudo.Main;
+
+import com.example.sudo.Model.GridBatch;
+import com.example.sudo.Model.GridValidator;
+
+import java.util.List;
+
+/**
+ * Comprueba bloques de tableros de 6x6 completos, como los que envían los jugadores al terminar una
+ * partida, con un {@link GridValidator} sobre un {@link GridBatch} que se reutiliza entre bloques.
+ * Escribe {@code CORRECT} o {@code INCORRECT} por línea, o {@code INVALID} si la línea no es un
+ * tablero de 6x6. Cada hilo debe usar su propia instancia.
+ */
+
+final class GridChecker {
+    private final GridValidator validator;
+    private final GridBatch batch;
+    private final boolean[] valid;
+    private final int[] slots;
+
+    /**
+     * @param validator El validador, que puede compartirse entre hilos.
+     * @param capacity  El número máximo de líneas por bloque.
+     */
+
+    GridChecker(GridValidator validator, int capacity) {
+        this.validator = validator;
+        this.batch = new GridBatch(capacity);
+        this.valid = new boolean[capacity];
+        this.slots = new int[capacity];
+    }
+
+    /**
+     * Comprueba un bloque de líneas y agrega el resultado de cada una, en orden.
+     *
+     * @param lines Las líneas, como mucho tantas como la capacidad.
+     * @param sb    La salida, con una línea por tablero.
+     */
+
+    void check(List<String> lines, StringBuilder sb) {
+        batch.clear();
+        for (int i = 0; i < lines.size(); i++) {
+            try {
+                slots[i] = batch.add(lines.get(i));
+            } catch (IllegalArgumentException e) {
+                slots[i] = -1;
+            }
+        }
+        validator.validate(batch, valid);
+        for (int i = 0; i < lines.size(); i++) {
+            sb.append(slots[i] < 0 ? "INVALID" : valid[slots[i]] ? "CORRECT" : "INCORRECT").append('\n');
+        }
+    }
+
+    /**
+     * Comprueba un solo tablero y agrega el resultado sin salto de línea.
+     */
+
+    void check(String line, StringBuilder sb) {
+        batch.clear();
+        try {
+            batch.add(line);
+        } catch (IllegalArgumentException e) {
+            sb.append("INVALID");
+            return;
+        }
+        validator.validate(batch, valid);
+        sb.append(valid[0] ? "CORRECT" : "INCORRECT");
+    }
+}
@@ -1,4 +1,5 @@
 package com.example.sudo.Main;
+import com.example.sudo.Model.MetricsRegistry;
 import com.example.sudo.View.SudokuFormView;
 import javafx.application.Application;
 import javafx.stage.Stage;
@@ -6,6 +7,8 @@ import javafx.stage.Stage;
 /**
  * Clase principal que inicia la aplicación de Sudoku.
  * Este programa genera un tablero de Sudoku de 6x6 y permite al usuario interactuar con él.
+ * Con {@code -Dsudo.metrics=true}, al cerrar escribe en la salida de error el informe del
+ * {@link MetricsRegistry}.
  *
  * @version 1.0
  * @since 2024-10-16
@@ -17,7 +20,14 @@ public class Main extends Application {
     @Override
     public void start(Stage primaryStage) throws Exception {
         SudokuFormView.getInstance();
-        System.out.println("hola");
+    }
+
+    @Override
+    public void stop() {
+        MetricsRegistry metrics = MetricsRegistry.global();
+        if (metrics.isEnabled()) {
+            System.err.print(metrics.report());
+        }
     }
 
     public static void main(String[] args) {launch();}
@@ -0,0 +1,532 @@
+package com.example.sudo.Main;
+
+import com.example.sudo.Model.BitmaskSolver;
+import com.example.sudo.Model.BoardCodec;
+import com.example.sudo.Model.BoardGeometry;
+import com.example.sudo.Model.CachingSolver;
+import com.example.sudo.Model.Difficulty;
+import com.example.sudo.Model.GeneratedPuzzle;
+import com.example.sudo.Model.GridStore;
+import com.example.sudo.Model.GridValidator;
+import com.example.sudo.Model.LogicalSolver;
+import com.example.sudo.Model.MetricsRegistry;
+import com.example.sudo.Model.PuzzleGenerator;
+import com.example.sudo.Model.PuzzlePool;
+import com.example.sudo.Model.PuzzleStream;
+import com.example.sudo.Model.Rating;
+import com.example.sudo.Model.SolutionCache;
+import com.example.sudo.Model.SolveControl;
+import com.example.sudo.Model.SudokuSolver;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Servidor HTTP sin interfaz gráfica sobre el mismo modelo que usa la aplicación de escritorio.
+ * Usa {@code com.sun.net.httpserver} del JDK y atiende cada petición en un hilo virtual; el trabajo
+ * sobre tableros se hace en los hilos de un {@link ForkJoinPool}, cada uno con sus motores, que así
+ * se reutilizan entre peticiones en lugar de crearse en cada hilo virtual.
+ * Los tableros viajan en el formato compacto de {@link BoardCodec}, uno por línea, y las respuestas
+ * son texto plano con una línea por tablero:
+ * <pre>
+ * GET  /solve?board=L          solución, o NONE
+ * GET  /validate?board=L       UNIQUE, MULTIPLE o NONE
+ * GET  /rate?board=L           "dificultad puntuación técnica", o NONE si es contradictorio
+ * GET  /check?board=L          CORRECT o INCORRECT para un tablero de 6x6 completo
+ * GET  /generate?difficulty=easy|medium|hard&amp;size=6&amp;count=1&amp;seed=S
+ *                              "pistas solución" por tablero
+ * POST /batch/solve, /batch/validate, /batch/rate, /batch/check
+ *                              un tablero por línea en el cuerpo; una respuesta por línea, en orden
+ * GET  /stats                  percentiles de latencia por ruta y métricas de la caché, la reserva
+ *                              y el {@link MetricsRegistry}, que el servidor activa al arrancar
+ * </pre>
+ * Las líneas mal formadas producen {@code INVALID}. Cada petición tiene un plazo de
+ * {@code REQUEST_TIMEOUT} con un {@link SolveControl}: si se agota, las rutas de un tablero y
+ * /generate responden 503 con {@code TIMEOUT}, y en los lotes la línea afectada es {@code TIMEOUT}
+ * (el plazo cuenta por tablero). /generate admite hasta {@code MAX_GENERATE_SIZE}x{@code MAX_GENERATE_SIZE}
+ * y menos partidas por petición cuanto más grande es el tablero. Los lotes se reparten en bloques entre los hilos
+ * de un {@link ForkJoinPool} y la respuesta se va enviando por bloques, en orden, mientras llega el
+ * resto del cuerpo, así que un lote de miles de tableros no se guarda entero en memoria. Los bloques
+ * de /batch/check se comprueban de una vez con un {@link GridValidator}.
+ * Sin semilla, las partidas de 6x6 salen de una {@link PuzzlePool}; con semilla salen de un
+ * {@link PuzzleStream} y son reproducibles: la misma semilla da las mismas partidas, y las primeras
+ * de una petición con {@code count} mayor coinciden con las de una con {@code count} menor.
+ *
+ * <pre>
+ * SudokuServer [--host 127.0.0.1] [--port 8080] [--threads N] [--cache N] [--grids archivo]
+ * </pre>
+ */
+
+public class SudokuServer {
+    private static final int CHUNK_SIZE = 256;
+    private static final int POOL_CAPACITY = 64;
+    private static final int MAX_GENERATE = 10_000;
+    private static final int MAX_GENERATE_SIZE = 16;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    private final HttpServer server;
+    private final ForkJoinPool pool;
+    private final int maxInFlight;
+    private final PuzzlePool puzzles;
+    private final SolutionCache cache;
+    private final GridStore grids;
+    private final GridValidator validator = GridValidator.create();
+    private final ThreadLocal<Worker> workers = ThreadLocal.withInitial(Worker::new);
+    private final Map<String, LatencyHistogram> latencies = new LinkedHashMap<>();
+
+    /**
+     * Crea el servidor sin arrancarlo.
+     *
+     * @param address La dirección donde escuchar.
+     * @param threads El número de hilos que procesan los lotes.
+     * @param cache   La caché de soluciones de 6x6, o null para resolver siempre.
+     * @param grids   La tabla de soluciones de 6x6 usada al generar, o null para generar por búsqueda.
+     * @throws IOException Si no se puede abrir el puerto.
+     */
+
+    public SudokuServer(InetSocketAddress address, int threads, SolutionCache cache, GridStore grids) throws IOException {
+        this.pool = new ForkJoinPool(threads);
+        this.maxInFlight = threads * 4;
+        this.cache = cache;
+        this.grids = grids;
+        this.puzzles = new PuzzlePool(BoardGeometry.SIZE_6, POOL_CAPACITY);
+        this.server = HttpServer.create(address, 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        for (Op op : Op.values()) {
+            route("/" + op.path, exchange -> single(exchange, op));
+            route("/batch/" + op.path, exchange -> batch(exchange, op));
+        }
+        route("/generate", this::generate);
+        server.createContext("/stats", this::stats);
+        server.createContext("/", exchange -> {
+            try (exchange) {
+                send(exchange, 404, "Ruta desconocida\n");
+            }
+        });
+    }
+
+    public static void main(String[] args) throws IOException {
+        String host = "127.0.0.1";
+        int port = 8080;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int cacheCapacity = 0;
+        String gridsFile = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--host" -> host = args[++i];
+                case "--port" -> port = Integer.parseInt(args[++i]);
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                case "--cache" -> cacheCapacity = Integer.parseInt(args[++i]);
+                case "--grids" -> gridsFile = args[++i];
+                default -> {
+                    System.err.println("Opción desconocida: " + args[i]);
+                    System.exit(2);
+                }
+            }
+        }
+        GridStore grids = gridsFile == null ? null : GridStore.loadOrBuild(Path.of(gridsFile), ForkJoinPool.commonPool());
+        SolutionCache cache = cacheCapacity > 0 ? new SolutionCache(cacheCapacity) : null;
+        MetricsRegistry.global().setEnabled(true);
+        SudokuServer server = new SudokuServer(new InetSocketAddress(host, port), threads, cache, grids);
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+        server.start();
+        System.err.printf("Servidor escuchando en http://%s:%d/ (%d hilos)%n", host, port, threads);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Deja de aceptar peticiones, espera hasta un segundo a las que están en curso y libera los hilos.
+     */
+
+    public void stop() {
+        server.stop(1);
+        pool.shutdown();
+        puzzles.close();
+    }
+
+    /**
+     * @return El puerto donde escucha, útil si se pidió el puerto 0.
+     */
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Registra una ruta que mide su latencia y responde 500 si el manejador falla.
+     */
+
+    private void route(String path, Handler handler) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        latencies.put(path, histogram);
+        server.createContext(path, exchange -> {
+            long start = System.nanoTime();
+            try {
+                if (!exchange.getRequestURI().getPath().equals(path)) {
+                    send(exchange, 404, "Ruta desconocida\n");
+                } else {
+                    handler.handle(exchange);
+                }
+            } catch (IllegalArgumentException e) {
+                trySend(exchange, 400, e.getMessage() + "\n");
+            } catch (RequestTimeoutException e) {
+                trySend(exchange, 503, "TIMEOUT\n");
+            } catch (IOException e) {
+                // El cliente cerró la conexión; no hay a quién responder
+            } catch (RuntimeException e) {
+                trySend(exchange, 500, "Error interno\n");
+            } finally {
+                exchange.close();
+                histogram.record(System.nanoTime() - start);
+            }
+        });
+    }
+
+    private void single(HttpExchange exchange, Op op) throws IOException {
+        requireMethod(exchange, "GET");
+        String board = query(exchange).get("board");
+        if (board == null) {
+            throw new IllegalArgumentException("Falta el parámetro board");
+        }
+        SolveControl control = new SolveControl(REQUEST_TIMEOUT, null);
+        // En el pool, para usar los motores de sus hilos y no crear un Worker por hilo virtual
+        String answer = pool.submit(() -> {
+            StringBuilder sb = new StringBuilder(board.length() + 1);
+            return workers.get().apply(op, board, sb, control) ? sb.append('\n').toString() : null;
+        }).join();
+        if (answer == null) {
+            throw new RequestTimeoutException();
+        }
+        send(exchange, 200, answer);
+    }
+
+    /**
+     * Procesa el cuerpo por bloques de {@value #CHUNK_SIZE} líneas en el pool y escribe las
+     * respuestas en orden a medida que terminan, con al menos un bloque por hilo en vuelo.
+     */
+
+    private void batch(HttpExchange exchange, Op op) throws IOException {
+        requireMethod(exchange, "POST");
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=us-ascii");
+        exchange.sendResponseHeaders(200, 0); // Respuesta por bloques
+        BufferedReader in = new BufferedReader(
+                new InputStreamReader(exchange.getRequestBody(), StandardCharsets.US_ASCII), 1 << 16);
+        Writer out = new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.US_ASCII), 1 << 16);
+        ArrayDeque<ForkJoinTask<String>> inFlight = new ArrayDeque<>();
+        List<String> chunk = new ArrayList<>(CHUNK_SIZE);
+        String line;
+        while ((line = in.readLine()) != null) {
+            line = line.strip();
+            if (line.isEmpty()) {
+                continue;
+            }
+            chunk.add(line);
+            if (chunk.size() == CHUNK_SIZE) {
+                submit(inFlight, op, chunk, out);
+                chunk = new ArrayList<>(CHUNK_SIZE);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            submit(inFlight, op, chunk, out);
+        }
+        while (!inFlight.isEmpty()) {
+            out.write(inFlight.poll().join());
+        }
+        out.flush();
+    }
+
+    private void submit(ArrayDeque<ForkJoinTask<String>> inFlight, Op op, List<String> chunk, Writer out) throws IOException {
+        while (inFlight.size() >= maxInFlight) {
+            out.write(inFlight.poll().join());
+            out.flush();
+        }
+        inFlight.add(pool.submit(() -> {
+            Worker worker = workers.get();
+            StringBuilder sb = new StringBuilder(chunk.size() * (chunk.get(0).length() + 1));
+            if (op == Op.CHECK) {
+                worker.checker.check(chunk, sb);
+                return sb.toString();
+            }
+            for (String board : chunk) {
+                int mark = sb.length();
+                if (!worker.apply(op, board, sb, new SolveControl(REQUEST_TIMEOUT, null))) {
+                    sb.setLength(mark);
+                    sb.append("TIMEOUT");
+                }
+                sb.append('\n');
+            }
+            return sb.toString();
+        }));
+    }
+
+    private void generate(HttpExchange exchange) throws IOException {
+        requireMethod(exchange, "GET");
+        Map<String, String> params = query(exchange);
+        Difficulty difficulty = Difficulty.valueOf(params.getOrDefault("difficulty", "medium").toUpperCase(Locale.ROOT));
+        BoardGeometry geometry = BoardGeometry.of(Integer.parseInt(params.getOrDefault("size", "6")));
+        if (geometry.getSize() > MAX_GENERATE_SIZE) {
+            throw new IllegalArgumentException("size no puede ser mayor que " + MAX_GENERATE_SIZE);
+        }
+        int maxCount = maxGenerate(geometry);
+        int count = Integer.parseInt(params.getOrDefault("count", "1"));
+        if (count < 1 || count > maxCount) {
+            throw new IllegalArgumentException("count debe estar entre 1 y " + maxCount);
+        }
+        SolveControl control = new SolveControl(REQUEST_TIMEOUT, null);
+        String seed = params.get("seed");
+        int size = geometry.getSize();
+        StringBuilder sb = new StringBuilder(count * (2 * geometry.getCellCount() + 2));
+        if (seed == null && geometry == BoardGeometry.SIZE_6) {
+            for (int i = 0; i < count; i++) {
+                GeneratedPuzzle puzzle = puzzles.take(difficulty);
+                appendPuzzle(sb, puzzle.getPuzzle(), puzzle.getSolution());
+            }
+        } else if (seed != null) {
+            PuzzleStream stream = new PuzzleStream(geometry, difficulty, Long.parseLong(seed));
+            if (geometry == BoardGeometry.SIZE_6) {
+                stream.setGridStore(grids);
+            }
+            stream.setControl(control);
+            stream.stream(0, count).forEachOrdered(puzzle -> {
+                requireInTime(control);
+                appendPuzzle(sb, puzzle.getPuzzle(), puzzle.getSolution());
+            });
+        } else {
+            PuzzleGenerator generator = new PuzzleGenerator(geometry, new SplittableRandom());
+            generator.setTargetClues(difficulty.targetClues(geometry));
+            if (geometry == BoardGeometry.SIZE_6) {
+                generator.setGridStore(grids);
+            }
+            generator.setControl(control);
+            int[][] puzzle = new int[size][size];
+            int[][] solution = new int[size][size];
+            for (int i = 0; i < count; i++) {
+                generator.generate(puzzle, solution);
+                requireInTime(control);
+                appendPuzzle(sb, puzzle, solution);
+            }
+        }
+        send(exchange, 200, sb.toString());
+    }
+
+    /**
+     * @return El máximo de partidas por petición: generar una de 16x16 cuesta lo que miles de 6x6.
+     */
+
+    private static int maxGenerate(BoardGeometry geometry) {
+        return geometry.getSize() <= 6 ? MAX_GENERATE : geometry.getSize() <= 9 ? MAX_GENERATE / 10 : 10;
+    }
+
+    /**
+     * Corta la petición si se agotó su plazo; una partida generada con el plazo agotado puede
+     * estar incompleta.
+     */
+
+    private static void requireInTime(SolveControl control) {
+        if (control.isStopped() || control.isTimedOut()) {
+            throw new RequestTimeoutException();
+        }
+    }
+
+    private static void appendPuzzle(StringBuilder sb, int[][] puzzle, int[][] solution) {
+        BoardCodec.appendTo(sb, puzzle);
+        sb.append(' ');
+        BoardCodec.appendTo(sb, solution);
+        sb.append('\n');
+    }
+
+    /**
+     * Responde con una línea por ruta: peticiones y percentiles 50, 90, 99 y 99,9 y máximo en
+     * microsegundos; luego las métricas de la reserva, de la caché y del {@link MetricsRegistry}.
+     */
+
+    private void stats(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            StringBuilder sb = new StringBuilder();
+            sb.append("# ruta peticiones p50 p90 p99 p999 max (us)\n");
+            for (Map.Entry<String, LatencyHistogram> entry : latencies.entrySet()) {
+                LatencyHistogram h = entry.getValue();
+                sb.append(String.format(Locale.ROOT, "%s %d %d %d %d %d %d%n", entry.getKey(), h.count(),
+                        h.percentile(50) / 1000, h.percentile(90) / 1000, h.percentile(99) / 1000,
+                        h.percentile(99.9) / 1000, h.max() / 1000));
+            }
+            sb.append(String.format(Locale.ROOT, "# reserva %d aciertos %d fallos%n", puzzles.getHits(), puzzles.getMisses()));
+            if (cache != null) {
+                sb.append("# ").append(cache).append('\n');
+            }
+            MetricsRegistry metrics = MetricsRegistry.global();
+            if (metrics.isEnabled()) {
+                metrics.report().lines().forEach(line -> sb.append("# ").append(line).append('\n'));
+            }
+            send(exchange, 200, sb.toString());
+        }
+    }
+
+    private static void requireMethod(HttpExchange exchange, String method) {
+        if (!exchange.getRequestMethod().equals(method)) {
+            throw new IllegalArgumentException("Método no admitido, use " + method);
+        }
+    }
+
+    private static Map<String, String> query(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    /**
+     * Responde con un error si aún no se enviaron las cabeceras; en un lote ya empezado solo se
+     * puede cortar la respuesta.
+     */
+
+    private static void trySend(HttpExchange exchange, int status, String body) {
+        if (exchange.getResponseCode() != -1) {
+            return;
+        }
+        try {
+            send(exchange, status, body);
+        } catch (IOException e) {
+            // El cliente cerró la conexión
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    /**
+     * Las operaciones sobre un tablero, con su ruta.
+     */
+
+    private enum Op {
+        SOLVE("solve"), VALIDATE("validate"), RATE("rate"), CHECK("check");
+
+        final String path;
+
+        Op(String path) {
+            this.path = path;
+        }
+    }
+
+    /**
+     * Se agotó el plazo de la petición; se responde 503.
+     */
+
+    private static final class RequestTimeoutException extends RuntimeException {
+        RequestTimeoutException() {
+            super("TIMEOUT", null, false, false);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        void handle(HttpExchange exchange) throws IOException;
+    }
+
+    /**
+     * Los motores de un hilo del pool, uno por geometría; los de 6x6 pasan por la caché si hay una.
+     * Solo se usa desde hilos del pool, que viven lo que el servidor.
+     */
+
+    private final class Worker {
+        private final Map<BoardGeometry, SudokuSolver> solvers = new HashMap<>();
+        private final Map<BoardGeometry, LogicalSolver> raters = new HashMap<>();
+        private final GridChecker checker = new GridChecker(validator, CHUNK_SIZE);
+
+        /**
+         * Aplica una operación a un tablero.
+         *
+         * @param control El control con el plazo de la búsqueda.
+         * @return false si se agotó el plazo antes de tener la respuesta.
+         */
+
+        boolean apply(Op op, String line, StringBuilder sb, SolveControl control) {
+            if (op == Op.CHECK) {
+                checker.check(line, sb);
+                return true;
+            }
+            int[][] board;
+            try {
+                board = BoardCodec.parse(line);
+            } catch (IllegalArgumentException e) {
+                sb.append("INVALID");
+                return true;
+            }
+            BoardGeometry geometry = BoardGeometry.of(board.length);
+            SudokuSolver solver = solver(geometry);
+            solver.setControl(control);
+            try {
+                switch (op) {
+                    case SOLVE -> {
+                        if (solver.solve(board)) {
+                            BoardCodec.appendTo(sb, board);
+                        } else {
+                            sb.append("NONE");
+                        }
+                    }
+                    case VALIDATE -> {
+                        long count = solver.countSolutions(board, 2);
+                        sb.append(count == 0 ? "NONE" : count == 1 ? "UNIQUE" : "MULTIPLE");
+                    }
+                    case RATE -> {
+                        Rating rating = raters.computeIfAbsent(geometry, LogicalSolver::new).rate(board);
+                        if (!rating.isConsistent()) {
+                            sb.append("NONE");
+                        } else {
+                            sb.append(rating.getDifficulty()).append(' ').append(rating.getScore()).append(' ')
+                                    .append(rating.getHardest() == null ? "-" : rating.getHardest().name());
+                        }
+                    }
+                }
+            } finally {
+                solver.setControl(null);
+            }
+            return !control.isStopped();
+        }
+
+        private SudokuSolver solver(BoardGeometry geometry) {
+            return solvers.computeIfAbsent(geometry, g -> {
+                SudokuSolver solver = new BitmaskSolver(g, null);
+                return cache != null && g == BoardGeometry.SIZE_6 ? new CachingSolver(solver, cache) : solver;
+            });
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package com.example.sudo.Model;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Motor de resolución por backtracking basado en máscaras de bits.
+ * Mantiene para cada fila, columna y bloque una máscara con los números
+ * ya colocados, de modo que colocar o quitar un número cuesta O(1). En cada paso
+ * elige la casilla vacía con menos candidatos (MRV) y no crea objetos durante la búsqueda.
+ * Las tablas de fila, columna y bloque de cada casilla provienen de {@link BoardGeometry}.
+ * Una instancia no es segura para usarse desde varios hilos a la vez.
+ */
+
+public class BitmaskSolver implements SudokuSolver {
+    private final BoardGeometry geometry;
+    private final int size;
+    private final int cellCount;
+    private final int all;
+    private final int[] cellRow;
+    private final int[] cellCol;
+    private final int[] cellBox;
+
+    private final int[] cells;
+    private final int[] rowMask;
+    private final int[] colMask;
+    private final int[] boxMask;
+    private final int[] empty;
+    private final int[] order; // Orden de candidatos por profundidad
+    private int emptyCount;
+    private RandomGenerator random;
+    private SolveControl control;
+    private long solutions;
+    private long limit;
+
+    /**
+     * Crea un motor de 6x6 que prueba los candidatos en orden ascendente.
+     */
+
+    public BitmaskSolver() {
+        this(BoardGeometry.SIZE_6, null);
+    }
+
+    /**
+     * Crea un motor de 6x6 que prueba los candidatos en orden aleatorio.
+     *
+     * @param random El generador usado para mezclar los candidatos, o null para orden ascendente.
+     */
+
+    public BitmaskSolver(RandomGenerator random) {
+        this(BoardGeometry.SIZE_6, random);
+    }
+
+    /**
+     * Crea un motor para la geometría indicada.
+     *
+     * @param geometry La geometría de los tableros a resolver.
+     * @param random   El generador usado para mezclar los candidatos, o null para orden ascendente.
+     */
+
+    public BitmaskSolver(BoardGeometry geometry, RandomGenerator random) {
+        this.geometry = geometry;
+        this.size = geometry.getSize();
+        this.cellCount = geometry.getCellCount();
+        this.all = geometry.getAllMask();
+        this.cellRow = geometry.cellRow;
+        this.cellCol = geometry.cellCol;
+        this.cellBox = geometry.cellBox;
+        this.cells = new int[cellCount];
+        this.rowMask = new int[size];
+        this.colMask = new int[size];
+        this.boxMask = new int[size];
+        this.empty = new int[cellCount];
+        this.order = new int[cellCount * size];
+        this.random = random;
+    }
+
+    @Override
+    public boolean solve(int[][] board) {
+        if (!load(board)) {
+            return false;
+        }
+        boolean solved = search(0);
+        if (control != null) {
+            control.finish();
+        }
+        if (!solved) {
+            return false;
+        }
+        store(board);
+        return true;
+    }
+
+    @Override
+    public long countSolutions(int[][] board, long limit) {
+        if (!load(board)) {
+            return 0;
+        }
+        this.solutions = 0;
+        this.limit = limit;
+        count(0);
+        if (control != null) {
+            control.finish();
+        }
+        return solutions;
+    }
+
+    @Override
+    public void setRandom(RandomGenerator random) {
+        this.random = random;
+    }
+
+    @Override
+    public void setControl(SolveControl control) {
+        this.control = control;
+    }
+
+    /**
+     * @return La geometría de los tableros que resuelve este motor.
+     */
+
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * Carga el tablero en las máscaras internas.
+     *
+     * @param board La matriz de origen.
+     * @return false si el tablero ya contiene un número repetido en una fila, columna o bloque.
+     */
+
+    private boolean load(int[][] board) {
+        for (int i = 0; i < size; i++) {
+            rowMask[i] = 0;
+            colMask[i] = 0;
+            boxMask[i] = 0;
+        }
+        emptyCount = 0;
+        for (int cell = 0; cell < cellCount; cell++) {
+            int value = board[cellRow[cell]][cellCol[cell]];
+            cells[cell] = value;
+            if (value == 0) {
+                empty[emptyCount++] = cell;
+                continue;
+            }
+            int bit = 1 << (value - 1);
+            int row = cellRow[cell];
+            int col = cellCol[cell];
+            int box = cellBox[cell];
+            if (((rowMask[row] | colMask[col] | boxMask[box]) & bit) != 0) {
+                return false;
+            }
+            rowMask[row] |= bit;
+            colMask[col] |= bit;
+            boxMask[box] |= bit;
+        }
+        return true;
+    }
+
+    private void store(int[][] board) {
+        for (int cell = 0; cell < cellCount; cell++) {
+            board[cellRow[cell]][cellCol[cell]] = cells[cell];
+        }
+    }
+
+    /**
+     * Busca la primera solución a partir del estado actual.
+     * Devuelve false tanto si no hay solución como si el control detuvo la búsqueda.
+     */
+
+    private boolean search(int depth) {
+        if (emptyCount == 0) {
+            return true;
+        }
+        if (control != null && control.node()) {
+            return false;
+        }
+        int index = pickCell();
+        if (index < 0) {
+            backtrack();
+            return false;
+        }
+        int cell = takeEmpty(index);
+        int row = cellRow[cell];
+        int col = cellCol[cell];
+        int box = cellBox[cell];
+        int n = candidateOrder(depth, all & ~(rowMask[row] | colMask[col] | boxMask[box]));
+        for (int k = 0; k < n; k++) {
+            int bit = order[depth * size + k];
+            place(cell, row, col, box, bit);
+            if (search(depth + 1)) {
+                return true;
+            }
+            unplace(cell, row, col, box, bit);
+        }
+        emptyCount++;
+        backtrack();
+        return false;
+    }
+
+    /**
+     * Cuenta soluciones a partir del estado actual hasta alcanzar {@code limit}.
+     */
+
+    private void count(int depth) {
+        if (emptyCount == 0) {
+            solutions++;
+            return;
+        }
+        if (control != null && control.node()) {
+            return;
+        }
+        int index = pickCell();
+        if (index < 0) {
+            backtrack();
+            return;
+        }
+        int cell = takeEmpty(index);
+        int row = cellRow[cell];
+        int col = cellCol[cell];
+        int box = cellBox[cell];
+        int free = all & ~(rowMask[row] | colMask[col] | boxMask[box]);
+        while (free != 0 && solutions < limit) {
+            int bit = free & -free;
+            free ^= bit;
+            place(cell, row, col, box, bit);
+            count(depth + 1);
+            unplace(cell, row, col, box, bit);
+        }
+        emptyCount++;
+    }
+
+    private void backtrack() {
+        if (control != null) {
+            control.backtrack();
+        }
+    }
+
+    /**
+     * Elige la casilla vacía con menos candidatos.
+     *
+     * @return La posición en la lista de casillas vacías, o -1 si alguna casilla no tiene candidatos.
+     */
+
+    private int pickCell() {
+        int best = -1;
+        int bestCount = size + 1;
+        for (int i = 0; i < emptyCount; i++) {
+            int cell = empty[i];
+            int free = all & ~(rowMask[cellRow[cell]] | colMask[cellCol[cell]] | boxMask[cellBox[cell]]);
+            int count = Integer.bitCount(free);
+            if (count < bestCount) {
+                if (count == 0) {
+                    return -1;
+                }
+                best = i;
+                bestCount = count;
+                if (count == 1) {
+                    break;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Saca una casilla de la lista de vacías moviéndola al final; se recupera
+     * incrementando {@code emptyCount}.
+     */
+
+    private int takeEmpty(int index) {
+        int cell = empty[index];
+        int last = --emptyCount;
+        empty[index] = empty[last];
+        empty[last] = cell;
+        return cell;
+    }
+
+    /**
+     * Escribe los candidatos de la máscara en el orden de prueba para la profundidad dada.
+     *
+     * @return El número de candidatos.
+     */
+
+    private int candidateOrder(int depth, int free) {
+        int base = depth * size;
+        int n = 0;
+        while (free != 0) {
+            int bit = free & -free;
+            free ^= bit;
+            order[base + n++] = bit;
+        }
+        if (random != null) {
+            for (int i = n - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int tmp = order[base + i];
+                order[base + i] = order[base + j];
+                order[base + j] = tmp;
+            }
+        }
+        return n;
+    }
+
+    private void place(int cell, int row, int col, int box, int bit) {
+        cells[cell] = Integer.numberOfTrailingZeros(bit) + 1;
+        rowMask[row] |= bit;
+        colMask[col] |= bit;
+        boxMask[box] |= bit;
+    }
+
+    private void unplace(int cell, int row, int col, int box, int bit) {
+        cells[cell] = 0;
+        rowMask[row] &= ~bit;
+        colMask[col] &= ~bit;
+        boxMask[box] &= ~bit;
+    }
+}
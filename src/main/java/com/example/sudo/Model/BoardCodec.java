@@ -0,0 +1,86 @@
+package com.example.sudo.Model;
+
+/**
+ * Convierte tableros al formato compacto de una línea usado por las herramientas sin interfaz gráfica.
+ * Cada casilla es un carácter, recorriendo filas: {@code 1}-{@code 9} y luego {@code A}-{@code P}
+ * para los números del 10 al 25, y {@code 0} o {@code .} para las casillas vacías.
+ * La geometría se deduce de la longitud de la línea (16, 36, 81, 144, 256 o 625 caracteres).
+ */
+
+public final class BoardCodec {
+    private static final String DIGITS = "0123456789ABCDEFGHIJKLMNOP";
+
+    private BoardCodec() {
+    }
+
+    /**
+     * Interpreta una línea compacta.
+     *
+     * @param line La línea a interpretar, sin espacios.
+     * @return El tablero con 0 en las casillas vacías.
+     * @throws IllegalArgumentException Si la longitud no corresponde a ninguna geometría o hay
+     *                                  caracteres fuera de rango.
+     */
+
+    public static int[][] parse(CharSequence line) {
+        BoardGeometry geometry = BoardGeometry.ofCellCount(line.length());
+        int size = geometry.getSize();
+        int[][] board = new int[size][size];
+        for (int cell = 0; cell < line.length(); cell++) {
+            board[geometry.row(cell)][geometry.col(cell)] = digitValue(line.charAt(cell), size);
+        }
+        return board;
+    }
+
+    /**
+     * Escribe un tablero en formato compacto, usando {@code .} para las casillas vacías.
+     *
+     * @param board El tablero a escribir.
+     * @return La línea compacta.
+     */
+
+    public static String format(int[][] board) {
+        StringBuilder sb = new StringBuilder(board.length * board.length);
+        appendTo(sb, board);
+        return sb.toString();
+    }
+
+    /**
+     * Agrega un tablero en formato compacto al final de un {@link StringBuilder}.
+     *
+     * @param sb    El destino.
+     * @param board El tablero a escribir.
+     */
+
+    public static void appendTo(StringBuilder sb, int[][] board) {
+        for (int[] row : board) {
+            for (int value : row) {
+                sb.append(digitChar(value));
+            }
+        }
+    }
+
+    /**
+     * @return El carácter que representa un número en formato compacto ({@code .} para 0).
+     */
+
+    public static char digitChar(int value) {
+        return value == 0 ? '.' : DIGITS.charAt(value);
+    }
+
+    /**
+     * @return El número representado por el carácter, o 0 si la casilla está vacía.
+     * @throws IllegalArgumentException Si el carácter no es un número válido para el tamaño indicado.
+     */
+
+    public static int digitValue(char c, int size) {
+        if (c == '.' || c == '0') {
+            return 0;
+        }
+        int value = DIGITS.indexOf(Character.toUpperCase(c));
+        if (value < 1 || value > size) {
+            throw new IllegalArgumentException("Carácter inválido '" + c + "' para un tablero de " + size + "x" + size);
+        }
+        return value;
+    }
+}
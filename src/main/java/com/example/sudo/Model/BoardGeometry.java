@@ -0,0 +1,233 @@
+package com.example.sudo.Model;
+
+import java.util.List;
+
+/**
+ * Describe la forma de un tablero de Sudoku: su tamaño y las dimensiones de sus bloques rectangulares.
+ * Cada geometría precalcula las tablas de índices (fila, columna y bloque de cada casilla, la
+ * primera casilla de cada bloque, las casillas de cada unidad y los vecinos de cada casilla) para
+ * que solucionadores, validadores y la vista no tengan que dividir ni recorrer el tablero en cada acceso.
+ * Las casillas se numeran de 0 a {@code size * size - 1} recorriendo filas. Las unidades se numeran
+ * con las filas primero ({@code 0..size-1}), luego las columnas y al final los bloques.
+ */
+
+public final class BoardGeometry {
+    public static final BoardGeometry SIZE_4 = new BoardGeometry(2, 2);
+    public static final BoardGeometry SIZE_6 = new BoardGeometry(2, 3);
+    public static final BoardGeometry SIZE_9 = new BoardGeometry(3, 3);
+    public static final BoardGeometry SIZE_12 = new BoardGeometry(3, 4);
+    public static final BoardGeometry SIZE_16 = new BoardGeometry(4, 4);
+    public static final BoardGeometry SIZE_25 = new BoardGeometry(5, 5);
+
+    private static final List<BoardGeometry> ALL = List.of(SIZE_4, SIZE_6, SIZE_9, SIZE_12, SIZE_16, SIZE_25);
+
+    private final int size;
+    private final int boxRows;
+    private final int boxCols;
+    private final int cellCount;
+    private final int allMask;
+    final int[] cellRow;
+    final int[] cellCol;
+    final int[] cellBox;
+    final int[] boxFirstCell;
+    final int[][] unitCells;
+    final int[][] peers;
+
+    /**
+     * Crea una geometría con bloques de {@code boxRows} filas por {@code boxCols} columnas.
+     *
+     * @param boxRows El número de filas de cada bloque.
+     * @param boxCols El número de columnas de cada bloque.
+     */
+
+    private BoardGeometry(int boxRows, int boxCols) {
+        this.boxRows = boxRows;
+        this.boxCols = boxCols;
+        this.size = boxRows * boxCols;
+        this.cellCount = size * size;
+        this.allMask = (1 << size) - 1;
+        this.cellRow = new int[cellCount];
+        this.cellCol = new int[cellCount];
+        this.cellBox = new int[cellCount];
+        this.boxFirstCell = new int[size];
+        int boxesPerBand = size / boxCols;
+        for (int cell = 0; cell < cellCount; cell++) {
+            int row = cell / size;
+            int col = cell % size;
+            cellRow[cell] = row;
+            cellCol[cell] = col;
+            cellBox[cell] = (row / boxRows) * boxesPerBand + col / boxCols;
+        }
+        for (int box = 0; box < size; box++) {
+            boxFirstCell[box] = (box / boxesPerBand) * boxRows * size + (box % boxesPerBand) * boxCols;
+        }
+        this.unitCells = new int[3 * size][size];
+        int[] filled = new int[3 * size];
+        for (int cell = 0; cell < cellCount; cell++) {
+            int rowUnit = cellRow[cell];
+            int colUnit = size + cellCol[cell];
+            int boxUnit = 2 * size + cellBox[cell];
+            unitCells[rowUnit][filled[rowUnit]++] = cell;
+            unitCells[colUnit][filled[colUnit]++] = cell;
+            unitCells[boxUnit][filled[boxUnit]++] = cell;
+        }
+        // Vecinos: casillas distintas que comparten fila, columna o bloque
+        int peerCount = 3 * size - boxRows - boxCols - 1;
+        this.peers = new int[cellCount][peerCount];
+        for (int cell = 0; cell < cellCount; cell++) {
+            int n = 0;
+            for (int other = 0; other < cellCount; other++) {
+                if (other != cell && (cellRow[other] == cellRow[cell] || cellCol[other] == cellCol[cell]
+                        || cellBox[other] == cellBox[cell])) {
+                    peers[cell][n++] = other;
+                }
+            }
+        }
+    }
+
+    /**
+     * Obtiene la geometría soportada para un tamaño de tablero.
+     *
+     * @param size El número de filas (y columnas) del tablero.
+     * @return La geometría correspondiente.
+     * @throws IllegalArgumentException Si el tamaño no está soportado.
+     */
+
+    public static BoardGeometry of(int size) {
+        for (BoardGeometry geometry : ALL) {
+            if (geometry.size == size) {
+                return geometry;
+            }
+        }
+        throw new IllegalArgumentException("Tamaño de tablero no soportado: " + size);
+    }
+
+    /**
+     * Obtiene la geometría que corresponde a un número de casillas.
+     *
+     * @param cellCount El número total de casillas del tablero.
+     * @return La geometría correspondiente.
+     * @throws IllegalArgumentException Si ninguna geometría tiene ese número de casillas.
+     */
+
+    public static BoardGeometry ofCellCount(int cellCount) {
+        for (BoardGeometry geometry : ALL) {
+            if (geometry.cellCount == cellCount) {
+                return geometry;
+            }
+        }
+        throw new IllegalArgumentException("Número de casillas no soportado: " + cellCount);
+    }
+
+    /**
+     * @return Todas las geometrías soportadas, de menor a mayor.
+     */
+
+    public static List<BoardGeometry> all() {
+        return ALL;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getBoxRows() {
+        return boxRows;
+    }
+
+    public int getBoxCols() {
+        return boxCols;
+    }
+
+    public int getCellCount() {
+        return cellCount;
+    }
+
+    /**
+     * @return La máscara con un bit por cada número posible (bit {@code d - 1} para el número {@code d}).
+     */
+
+    public int getAllMask() {
+        return allMask;
+    }
+
+    public int row(int cell) {
+        return cellRow[cell];
+    }
+
+    public int col(int cell) {
+        return cellCol[cell];
+    }
+
+    public int box(int cell) {
+        return cellBox[cell];
+    }
+
+    public int cell(int row, int col) {
+        return row * size + col;
+    }
+
+    /**
+     * @return El índice del bloque que contiene la casilla indicada.
+     */
+
+    public int box(int row, int col) {
+        return cellBox[row * size + col];
+    }
+
+    /**
+     * @return La primera casilla (esquina superior izquierda) del bloque.
+     */
+
+    public int boxFirstCell(int box) {
+        return boxFirstCell[box];
+    }
+
+    /**
+     * @return El número de unidades (filas, columnas y bloques) del tablero.
+     */
+
+    public int getUnitCount() {
+        return 3 * size;
+    }
+
+    public int rowUnit(int row) {
+        return row;
+    }
+
+    public int colUnit(int col) {
+        return size + col;
+    }
+
+    public int boxUnit(int box) {
+        return 2 * size + box;
+    }
+
+    /**
+     * Obtiene las casillas de una unidad. El arreglo es compartido y no debe modificarse.
+     *
+     * @param unit El índice de la unidad.
+     * @return Las casillas de la unidad, en orden de lectura.
+     */
+
+    public int[] unitCells(int unit) {
+        return unitCells[unit];
+    }
+
+    /**
+     * Obtiene los vecinos de una casilla: las demás casillas de su fila, columna y bloque, sin repetir.
+     * El arreglo es compartido y no debe modificarse.
+     *
+     * @param cell El índice de la casilla.
+     * @return Los vecinos, en orden de lectura.
+     */
+
+    public int[] peers(int cell) {
+        return peers[cell];
+    }
+
+    @Override
+    public String toString() {
+        return size + "x" + size + " (" + boxRows + "x" + boxCols + ")";
+    }
+}
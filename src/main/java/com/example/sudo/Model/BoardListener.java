@@ -0,0 +1,19 @@
+package com.example.sudo.Model;
+
+/**
+ * Observador de los cambios de un {@link SudokuBoard}.
+ * La vista lo implementa para reflejar el estado del modelo sin que el modelo conozca la vista.
+ */
+
+@FunctionalInterface
+public interface BoardListener {
+
+    /**
+     * Se invoca cada vez que cambia el valor de una casilla o su condición de pista fija.
+     *
+     * @param cell     El índice de la casilla.
+     * @param oldValue El valor anterior (0 si estaba vacía).
+     * @param newValue El valor nuevo (0 si quedó vacía).
+     */
+    void cellChanged(int cell, int oldValue, int newValue);
+}
@@ -0,0 +1,200 @@
+package com.example.sudo.Model;
+
+import java.util.Arrays;
+
+/**
+ * Copia inmutable de los valores de un tablero, empaquetada en unos pocos {@code long}: cada casilla
+ * ocupa los bits justos para su número (3 en 6x6, 4 en 9x9 y 5 en 25x25) y ninguna cruza el límite
+ * de una palabra. Un tablero de 6x6 cabe en dos palabras y uno de 9x9 en seis.
+ * {@link SudokuBoard} mantiene sus palabras al día en cada jugada, así que tomar una copia es copiar
+ * esas palabras y volver a ella solo toca las casillas que cambiaron. Guarda todos los números del
+ * tablero, incluidas las pistas fijas; es {@link SudokuBoard#restore(BoardSnapshot)} el que no las
+ * modifica al volver a una copia. Sirve igual para la historia de la partida que como punto de control
+ * de un solucionador: {@link ParallelSolver} guarda así el tablero de cada rama pendiente.
+ */
+
+public final class BoardSnapshot {
+    private final BoardGeometry geometry;
+    private final long[] words;
+
+    BoardSnapshot(BoardGeometry geometry, long[] words) {
+        this.geometry = geometry;
+        this.words = words;
+    }
+
+    /**
+     * Empaqueta una matriz.
+     *
+     * @param geometry La geometría del tablero.
+     * @param board    La matriz, con 0 en las casillas vacías.
+     * @return La copia.
+     */
+
+    public static BoardSnapshot of(BoardGeometry geometry, int[][] board) {
+        long[] words = new long[wordCount(geometry)];
+        for (int cell = 0; cell < geometry.getCellCount(); cell++) {
+            set(geometry, words, cell, board[geometry.row(cell)][geometry.col(cell)]);
+        }
+        return new BoardSnapshot(geometry, words);
+    }
+
+    /**
+     * Empaqueta un arreglo de casillas en el orden de {@link BoardGeometry#cell(int, int)}, como el
+     * que usan los solucionadores.
+     *
+     * @param geometry La geometría del tablero.
+     * @param cells    Los valores, con 0 en las casillas vacías.
+     * @return La copia.
+     */
+
+    public static BoardSnapshot of(BoardGeometry geometry, int[] cells) {
+        long[] words = new long[wordCount(geometry)];
+        for (int cell = 0; cell < cells.length; cell++) {
+            set(geometry, words, cell, cells[cell]);
+        }
+        return new BoardSnapshot(geometry, words);
+    }
+
+    /**
+     * @return El valor de la casilla, o 0 si está vacía.
+     */
+
+    public int get(int cell) {
+        return get(geometry, words, cell);
+    }
+
+    /**
+     * Devuelve una copia igual a esta salvo en una casilla; esta copia no cambia.
+     *
+     * @param cell  El índice de la casilla.
+     * @param value El número, o 0 para vaciarla.
+     * @return La copia nueva, o esta misma si la casilla ya tenía ese valor.
+     */
+
+    public BoardSnapshot with(int cell, int value) {
+        if (get(cell) == value) {
+            return this;
+        }
+        long[] copy = words.clone();
+        set(geometry, copy, cell, value);
+        return new BoardSnapshot(geometry, copy);
+    }
+
+    /**
+     * @return El número de casillas vacías.
+     */
+
+    public int emptyCount() {
+        int count = 0;
+        for (int cell = 0; cell < geometry.getCellCount(); cell++) {
+            if (get(cell) == 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Copia los valores a una matriz.
+     *
+     * @param board La matriz de destino, del tamaño del tablero.
+     */
+
+    public void copyTo(int[][] board) {
+        for (int cell = 0; cell < geometry.getCellCount(); cell++) {
+            board[geometry.row(cell)][geometry.col(cell)] = get(cell);
+        }
+    }
+
+    /**
+     * Copia los valores a un arreglo de casillas.
+     *
+     * @param cells El arreglo de destino, de {@link BoardGeometry#getCellCount()} casillas.
+     */
+
+    public void copyTo(int[] cells) {
+        for (int cell = 0; cell < cells.length; cell++) {
+            cells[cell] = get(cell);
+        }
+    }
+
+    /**
+     * @return Una matriz nueva con los valores de la copia.
+     */
+
+    public int[][] toMatrix() {
+        int[][] board = new int[geometry.getSize()][geometry.getSize()];
+        copyTo(board);
+        return board;
+    }
+
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * @return Una palabra del empaquetado, para comparar copias palabra por palabra.
+     */
+
+    long word(int index) {
+        return words[index];
+    }
+
+    int getWordCount() {
+        return words.length;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof BoardSnapshot other && geometry == other.geometry && Arrays.equals(words, other.words);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(words);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(geometry.getCellCount());
+        for (int cell = 0; cell < geometry.getCellCount(); cell++) {
+            sb.append(Character.forDigit(get(cell), 36));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @return Los bits que ocupa cada casilla en esta geometría.
+     */
+
+    static int bitsPerCell(BoardGeometry geometry) {
+        return 32 - Integer.numberOfLeadingZeros(geometry.getSize());
+    }
+
+    /**
+     * @return Las casillas que caben en una palabra.
+     */
+
+    static int cellsPerWord(BoardGeometry geometry) {
+        return Long.SIZE / bitsPerCell(geometry);
+    }
+
+    static int wordCount(BoardGeometry geometry) {
+        int perWord = cellsPerWord(geometry);
+        return (geometry.getCellCount() + perWord - 1) / perWord;
+    }
+
+    static int get(BoardGeometry geometry, long[] words, int cell) {
+        int bits = bitsPerCell(geometry);
+        int perWord = Long.SIZE / bits;
+        return (int) (words[cell / perWord] >>> (cell % perWord * bits)) & ((1 << bits) - 1);
+    }
+
+    static void set(BoardGeometry geometry, long[] words, int cell, int value) {
+        int bits = bitsPerCell(geometry);
+        int perWord = Long.SIZE / bits;
+        int shift = cell % perWord * bits;
+        long mask = ((1L << bits) - 1) << shift;
+        words[cell / perWord] = (words[cell / perWord] & ~mask) | ((long) value << shift);
+    }
+}
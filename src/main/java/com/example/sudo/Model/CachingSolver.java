@@ -0,0 +1,121 @@
+package com.example.sudo.Model;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Motor de resolución de 6x6 que consulta una {@link SolutionCache} antes de delegar en otro motor.
+ * Cada tablero se lleva a su forma canónica; si la caché ya conoce la solución o la cuenta de esa
+ * forma, la solución se devuelve a las coordenadas y números del tablero original sin buscar.
+ * Si no, resuelve o cuenta con el motor delegado y guarda el resultado, salvo que la búsqueda se haya
+ * detenido por cancelación o plazo. Un tablero con pistas repetidas se descarta con una revisión de
+ * bits sobre el tablero empaquetado, sin consultar la caché.
+ * Al resolver un tablero con varias soluciones devuelve siempre la misma, así que no conviene
+ * ponerlo delante del motor que llena tableros aleatorios al generar.
+ * Como los demás motores, una instancia no es segura para usarse desde varios hilos a la vez; la
+ * caché sí puede compartirse entre instancias.
+ */
+
+public class CachingSolver implements SudokuSolver {
+    private final SudokuSolver delegate;
+    private final SolutionCache cache;
+    private final Canonicalizer canonicalizer = new Canonicalizer();
+    private final PackedBoard packed = new PackedBoard(); // Tablero de trabajo, sin reservar memoria por llamada
+    private SolveControl control;
+
+    /**
+     * Crea el motor.
+     *
+     * @param delegate El motor que resuelve los tableros que no están en la caché; debe ser de 6x6.
+     * @param cache    La caché, que puede compartirse.
+     */
+
+    public CachingSolver(SudokuSolver delegate, SolutionCache cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public boolean solve(int[][] board) {
+        if (!isConsistent(board)) {
+            return false;
+        }
+        SolutionCache.Key key = canonicalize(board);
+        SolutionCache.Entry entry = cache.get(key);
+        if (entry != null && entry.hasSolution()) {
+            entry.copySolution(packed);
+            canonicalizer.fromCanonical(packed, board);
+            return true;
+        }
+        if (entry != null && entry.countUpTo(1) == 0) {
+            return false;
+        }
+        if (delegate.solve(board)) {
+            // La transformación del tablero con pistas vale también para su solución
+            canonicalizer.toCanonical(board, packed);
+            cache.put(key, new SolutionCache.Entry(packed, -1, 0));
+            return true;
+        }
+        if (!isStopped()) {
+            cache.put(key, new SolutionCache.Entry(null, 0, Long.MAX_VALUE));
+        }
+        return false;
+    }
+
+    @Override
+    public long countSolutions(int[][] board, long limit) {
+        if (!isConsistent(board)) {
+            return 0;
+        }
+        SolutionCache.Key key = canonicalize(board);
+        SolutionCache.Entry entry = cache.get(key);
+        if (entry != null) {
+            long count = entry.countUpTo(limit);
+            if (count >= 0) {
+                return count;
+            }
+        }
+        long count = delegate.countSolutions(board, limit);
+        if (!isStopped()) {
+            cache.put(key, new SolutionCache.Entry(null, count, limit));
+        }
+        return count;
+    }
+
+    @Override
+    public void setRandom(RandomGenerator random) {
+        delegate.setRandom(random);
+    }
+
+    @Override
+    public void setControl(SolveControl control) {
+        this.control = control;
+        delegate.setControl(control);
+    }
+
+    public SolutionCache getCache() {
+        return cache;
+    }
+
+    private SolutionCache.Key canonicalize(int[][] board) {
+        long hash = canonicalizer.canonicalize(board);
+        canonicalizer.copyCanonical(packed);
+        return new SolutionCache.Key(hash, packed.getLow(), packed.getHigh());
+    }
+
+    private boolean isStopped() {
+        return control != null && control.isStopped();
+    }
+
+    /**
+     * Empaqueta el tablero y revisa sus pistas con operaciones de bits: uno con números repetidos no
+     * tiene solución y no vale la pena canonizarlo ni guardarlo.
+     */
+
+    private boolean isConsistent(int[][] board) {
+        if (board.length != 6) {
+            throw new IllegalArgumentException("La caché solo admite tableros de 6x6");
+        }
+        packed.copyFrom(board);
+        return packed.isConsistent();
+    }
+}
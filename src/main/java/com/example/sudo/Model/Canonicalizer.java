@@ -0,0 +1,318 @@
+package com.example.sudo.Model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Forma canónica de tableros de 6x6 (bloques de 2x3) bajo las simetrías que conservan la validez:
+ * renombrar los números, intercambiar filas dentro de una banda, intercambiar bandas, intercambiar
+ * columnas dentro de una pila e intercambiar pilas. El giro de 180° ya es una de esas combinaciones
+ * (invertir las bandas y las filas de cada banda, y lo mismo con las columnas). Hay 48 órdenes de
+ * filas y 72 de columnas; para cada uno los números se renombran por orden de aparición, y la forma
+ * canónica es la menor en orden lexicográfico leyendo por filas (las casillas vacías valen 0).
+ * Para cada orden de columnas las filas se eligen una a una, y una rama se poda en cuanto su fila
+ * queda mayor que la de la mejor forma encontrada, así que casi nunca se recorren las 3456 combinaciones.
+ * Guarda la transformación elegida para llevar otros tableros (por ejemplo la solución) a la forma
+ * canónica y de vuelta. No crea objetos por llamada; una instancia no es segura para usarse desde
+ * varios hilos a la vez.
+ */
+
+public class Canonicalizer {
+    private static final int SIZE = 6;
+    private static final int CELLS = SIZE * SIZE;
+    private static final int[][] COL_ORDERS = orders(3, 2); // 2 pilas de 3 columnas con sus columnas
+
+    private final int[] cells = new int[CELLS];
+    private final int[] current = new int[CELLS];
+    private final int[] best = new int[CELLS];
+    private final int[][] relabels = new int[SIZE + 1][SIZE + 1]; // Renombramiento tras cada fila
+    private final int[] rows = new int[SIZE];
+    private final int[] bestRows = new int[SIZE];
+    private final int[] bestRelabel = new int[SIZE + 1]; // Número original -> número canónico
+    private final int[] inverse = new int[SIZE + 1];     // Número canónico -> número original
+    private int[] cols;
+    private int colOrder;
+    private int bestCols;
+    private int improvements;
+    private long hash;
+    private final PackedBoard packed = new PackedBoard(); // La mejor forma, empaquetada
+
+    /**
+     * Calcula la forma canónica de un tablero y la transformación que lleva a ella.
+     *
+     * @param board La matriz de 6x6, con 0 en las casillas vacías.
+     * @return El hash de 64 bits de la forma canónica; es igual para todos los tableros equivalentes.
+     */
+
+    public long canonicalize(int[][] board) {
+        for (int cell = 0; cell < CELLS; cell++) {
+            cells[cell] = board[cell / SIZE][cell % SIZE];
+        }
+        best[0] = Integer.MAX_VALUE;
+        for (int c = 0; c < COL_ORDERS.length; c++) {
+            cols = COL_ORDERS[c];
+            colOrder = c;
+            placeRow(0, 0, 0, false);
+        }
+        completeRelabel();
+        for (int cell = 0; cell < CELLS; cell++) {
+            packed.set(cell, best[cell]);
+        }
+        hash = packed.hash64();
+        return hash;
+    }
+
+    /**
+     * Elige la fila original que ocupa la fila {@code level} de la forma, podando en cuanto una
+     * fila queda mayor que la de la mejor forma encontrada.
+     *
+     * @param used  Máscara de filas originales ya colocadas.
+     * @param next  El último número canónico asignado.
+     * @param less  Si las filas anteriores ya son menores que las de la mejor forma.
+     */
+
+    private void placeRow(int level, int used, int next, boolean less) {
+        if (level == SIZE) {
+            if (less) {
+                System.arraycopy(current, 0, best, 0, CELLS);
+                System.arraycopy(relabels[SIZE], 0, bestRelabel, 0, SIZE + 1);
+                System.arraycopy(rows, 0, bestRows, 0, SIZE);
+                bestCols = colOrder;
+                improvements++;
+            }
+            return;
+        }
+        // En las filas impares solo cabe la otra fila de la misma banda
+        int from = (level & 1) == 0 ? 0 : rows[level - 1] ^ 1;
+        int to = (level & 1) == 0 ? SIZE - 1 : from;
+        for (int row = from; row <= to; row++) {
+            if ((used & (1 << row)) != 0) {
+                continue;
+            }
+            int[] relabel = relabels[level + 1];
+            System.arraycopy(relabels[level], 0, relabel, 0, SIZE + 1);
+            int labels = next;
+            int cmp = less ? -1 : 0;
+            int offset = row * SIZE;
+            int k = level * SIZE;
+            for (int j = 0; j < SIZE; j++, k++) {
+                int value = cells[offset + cols[j]];
+                int label = 0;
+                if (value != 0) {
+                    label = relabel[value];
+                    if (label == 0) {
+                        label = ++labels;
+                        relabel[value] = label;
+                    }
+                }
+                current[k] = label;
+                if (cmp == 0 && label != best[k]) {
+                    cmp = label < best[k] ? -1 : 1;
+                    if (cmp > 0) {
+                        break;
+                    }
+                }
+            }
+            if (cmp <= 0) {
+                rows[level] = row;
+                int before = improvements;
+                placeRow(level + 1, used | 1 << row, labels, cmp < 0);
+                if (improvements != before) {
+                    less = false; // La mejor forma ahora comparte estas filas: hay que volver a comparar
+                }
+            }
+        }
+    }
+
+    /**
+     * Completa el renombramiento con los números que no aparecen en el tablero, en orden, para que
+     * sea una biyección y se pueda invertir.
+     */
+
+    private void completeRelabel() {
+        int used = 0;
+        for (int d = 1; d <= SIZE; d++) {
+            if (bestRelabel[d] != 0) {
+                used |= 1 << bestRelabel[d];
+            }
+        }
+        int label = 1;
+        for (int d = 1; d <= SIZE; d++) {
+            if (bestRelabel[d] == 0) {
+                while ((used & (1 << label)) != 0) {
+                    label++;
+                }
+                bestRelabel[d] = label;
+                used |= 1 << label;
+            }
+        }
+        for (int d = 1; d <= SIZE; d++) {
+            inverse[bestRelabel[d]] = d;
+        }
+    }
+
+    /**
+     * @return El hash de la última forma canónica calculada.
+     */
+
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * Copia la última forma canónica calculada, empaquetada. Sus dos palabras la identifican sin
+     * colisiones.
+     *
+     * @param out El tablero de destino.
+     */
+
+    public void copyCanonical(PackedBoard out) {
+        out.copyFrom(packed);
+    }
+
+    /**
+     * Copia la última forma canónica calculada.
+     *
+     * @param out La matriz de destino, de 6x6.
+     */
+
+    public void copyCanonical(int[][] out) {
+        for (int cell = 0; cell < CELLS; cell++) {
+            out[cell / SIZE][cell % SIZE] = best[cell];
+        }
+    }
+
+    /**
+     * Indica si la última forma canónica calculada es igual a la de otro tablero ya canónico.
+     *
+     * @param canonical La matriz de 6x6 en forma canónica.
+     * @return true si ambas formas son iguales.
+     */
+
+    public boolean matchesCanonical(int[][] canonical) {
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (canonical[cell / SIZE][cell % SIZE] != best[cell]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Lleva otro tablero con la misma transformación que el último canonizado, por ejemplo su solución.
+     *
+     * @param board El tablero original.
+     * @param out   La matriz de destino, de 6x6, en coordenadas canónicas.
+     */
+
+    public void toCanonical(int[][] board, int[][] out) {
+        int[] cols = COL_ORDERS[bestCols];
+        for (int i = 0; i < SIZE; i++) {
+            for (int j = 0; j < SIZE; j++) {
+                int value = board[bestRows[i]][cols[j]];
+                out[i][j] = value == 0 ? 0 : bestRelabel[value];
+            }
+        }
+    }
+
+    /**
+     * Lleva otro tablero con la misma transformación que el último canonizado, empaquetando el resultado.
+     *
+     * @param board El tablero original.
+     * @param out   El tablero de destino, en coordenadas canónicas.
+     */
+
+    public void toCanonical(int[][] board, PackedBoard out) {
+        int[] cols = COL_ORDERS[bestCols];
+        for (int i = 0; i < SIZE; i++) {
+            for (int j = 0; j < SIZE; j++) {
+                int value = board[bestRows[i]][cols[j]];
+                out.set(i, j, value == 0 ? 0 : bestRelabel[value]);
+            }
+        }
+    }
+
+    /**
+     * Deshace la transformación del último tablero canonizado, por ejemplo para llevar la solución
+     * de la forma canónica al tablero original.
+     *
+     * @param canonical El tablero en coordenadas canónicas.
+     * @param out       La matriz de destino, de 6x6, distinta de {@code canonical}.
+     */
+
+    public void fromCanonical(int[][] canonical, int[][] out) {
+        int[] cols = COL_ORDERS[bestCols];
+        for (int i = 0; i < SIZE; i++) {
+            for (int j = 0; j < SIZE; j++) {
+                int value = canonical[i][j];
+                out[bestRows[i]][cols[j]] = value == 0 ? 0 : inverse[value];
+            }
+        }
+    }
+
+    /**
+     * Deshace la transformación del último tablero canonizado sobre un tablero empaquetado.
+     *
+     * @param canonical El tablero en coordenadas canónicas.
+     * @param out       La matriz de destino, de 6x6.
+     */
+
+    public void fromCanonical(PackedBoard canonical, int[][] out) {
+        int[] cols = COL_ORDERS[bestCols];
+        for (int i = 0; i < SIZE; i++) {
+            for (int j = 0; j < SIZE; j++) {
+                int value = canonical.get(i, j);
+                out[bestRows[i]][cols[j]] = value == 0 ? 0 : inverse[value];
+            }
+        }
+    }
+
+    /**
+     * Genera todos los órdenes de {@code groups} grupos de {@code groupSize} líneas consecutivas que
+     * conservan los grupos: los grupos se permutan entre sí y las líneas dentro de cada grupo.
+     */
+
+    private static int[][] orders(int groupSize, int groups) {
+        List<int[]> groupOrders = permutations(groups);
+        List<int[]> lineOrders = permutations(groupSize);
+        List<int[]> result = new ArrayList<>();
+        int[] choice = new int[groups];
+        int total = groupOrders.size();
+        for (int g = 0; g < groups; g++) {
+            total *= lineOrders.size();
+        }
+        for (int[] groupOrder : groupOrders) {
+            for (int combo = 0; combo < total / groupOrders.size(); combo++) {
+                int rest = combo;
+                for (int g = 0; g < groups; g++) {
+                    choice[g] = rest % lineOrders.size();
+                    rest /= lineOrders.size();
+                }
+                int[] order = new int[groups * groupSize];
+                for (int g = 0; g < groups; g++) {
+                    int[] lines = lineOrders.get(choice[g]);
+                    for (int l = 0; l < groupSize; l++) {
+                        order[g * groupSize + l] = groupOrder[g] * groupSize + lines[l];
+                    }
+                }
+                result.add(order);
+            }
+        }
+        return result.toArray(new int[0][]);
+    }
+
+    private static List<int[]> permutations(int n) {
+        int[] values = new int[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = i + 1;
+        }
+        List<int[]> result = new ArrayList<>();
+        for (int[] perm : GridStore.permutationsOf(values)) {
+            for (int i = 0; i < n; i++) {
+                perm[i]--;
+            }
+            result.add(perm);
+        }
+        return result;
+    }
+}
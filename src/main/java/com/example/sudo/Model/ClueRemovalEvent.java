@@ -0,0 +1,13 @@
+package com.example.sudo.Model;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Una llamada a {@link PuzzleGenerator#removeClues(int[][])}, que esconde números mientras la solución siga siendo única.
+ */
+
+@Name("com.example.sudo.ClueRemoval")
+@Label("Quitar pistas")
+final class ClueRemovalEvent extends SearchEvent {
+}
@@ -0,0 +1,95 @@
+package com.example.sudo.Model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Índice incremental de las casillas en conflicto de un {@link SudokuBoard}.
+ * Una casilla está en conflicto si su número se repite en su fila, columna o bloque. En cada
+ * edición solo se revisan la casilla editada y los vecinos que tienen el número quitado o el puesto,
+ * recorriendo la tabla de vecinos de {@link BoardGeometry}; el estado de cada una se decide en O(1) con los conteos del tablero.
+ * Los observadores reciben únicamente las casillas cuyo estado cambió.
+ */
+
+public class ConflictIndex implements BoardListener {
+    private final SudokuBoard board;
+    private final BoardGeometry geometry;
+    private final boolean[] conflicting;
+    private int conflictCount;
+    private final List<ConflictListener> listeners = new ArrayList<>();
+
+    /**
+     * Crea el índice y lo registra como observador del tablero.
+     *
+     * @param board El tablero a vigilar.
+     */
+
+    public ConflictIndex(SudokuBoard board) {
+        this.board = board;
+        this.geometry = board.getGeometry();
+        this.conflicting = new boolean[geometry.getCellCount()];
+        for (int cell = 0; cell < conflicting.length; cell++) {
+            update(cell);
+        }
+        board.addListener(this);
+    }
+
+    public void addListener(ConflictListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(ConflictListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * @return true si el número de la casilla se repite en alguna de sus unidades.
+     */
+
+    public boolean isConflicting(int cell) {
+        return conflicting[cell];
+    }
+
+    /**
+     * @return El número de casillas en conflicto.
+     */
+
+    public int getConflictCount() {
+        return conflictCount;
+    }
+
+    @Override
+    public void cellChanged(int cell, int oldValue, int newValue) {
+        update(cell);
+        if (oldValue != 0) {
+            updatePeers(cell, oldValue);
+        }
+        if (newValue != 0) {
+            updatePeers(cell, newValue);
+        }
+    }
+
+    /**
+     * Revisa los vecinos de {@code cell} que tienen el número indicado.
+     */
+
+    private void updatePeers(int cell, int value) {
+        for (int peer : geometry.peers(cell)) {
+            if (board.get(peer) == value) {
+                update(peer);
+            }
+        }
+    }
+
+    private void update(int cell) {
+        boolean now = board.isConflicting(cell);
+        if (now == conflicting[cell]) {
+            return;
+        }
+        conflicting[cell] = now;
+        conflictCount += now ? 1 : -1;
+        for (ConflictListener listener : listeners) {
+            listener.conflictChanged(cell, now);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.sudo.Model;
+
+/**
+ * Observador de los cambios del {@link ConflictIndex}.
+ */
+
+@FunctionalInterface
+public interface ConflictListener {
+
+    /**
+     * Se invoca solo cuando una casilla entra o sale del conjunto de casillas en conflicto.
+     *
+     * @param cell        El índice de la casilla.
+     * @param conflicting true si ahora comparte número con otra casilla de su fila, columna o bloque.
+     */
+    void conflictChanged(int cell, boolean conflicting);
+}
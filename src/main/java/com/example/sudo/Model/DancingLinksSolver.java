@@ -0,0 +1,309 @@
+package com.example.sudo.Model;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Motor de resolución basado en el Algoritmo X de Knuth con Dancing Links.
+ * El Sudoku se modela como un problema de cobertura exacta con {@code 4 * n * n} columnas
+ * (casilla, fila-número, columna-número y bloque-número) y {@code n * n * n} filas
+ * (casilla y número); para 6x6 son 144 columnas y 216 filas.
+ * La matriz se construye una sola vez en arreglos de enteros y se restaura al terminar
+ * cada búsqueda, de modo que resolver no crea objetos.
+ * Una instancia no es segura para usarse desde varios hilos a la vez.
+ */
+
+public class DancingLinksSolver implements SudokuSolver {
+    private final BoardGeometry geometry;
+    private final int size;
+    private final int cellCount;
+    private final int columns;
+    private final int root;
+    private final int firstNode;
+
+    private final int[] left;
+    private final int[] right;
+    private final int[] up;
+    private final int[] down;
+    private final int[] column;
+    private final int[] rowOf;
+    private final int[] nodeSize;
+    private final boolean[] covered;
+    private final int[] clues;   // Filas seleccionadas por las pistas
+    private final int[] partial; // Filas elegidas en la búsqueda
+    private final int[] result;  // Primera solución encontrada
+    private int clueCount;
+    private int resultLength;
+    private RandomGenerator random;
+    private SolveControl control;
+    private long solutions;
+    private long limit;
+    private boolean stopAtFirst;
+
+    /**
+     * Crea un motor de 6x6 que recorre las filas en orden fijo.
+     */
+
+    public DancingLinksSolver() {
+        this(BoardGeometry.SIZE_6, null);
+    }
+
+    /**
+     * Crea un motor de 6x6 que empieza cada columna por una fila aleatoria.
+     *
+     * @param random El generador usado para variar el orden, o null para orden fijo.
+     */
+
+    public DancingLinksSolver(RandomGenerator random) {
+        this(BoardGeometry.SIZE_6, random);
+    }
+
+    /**
+     * Crea un motor para la geometría indicada y construye su matriz.
+     *
+     * @param geometry La geometría de los tableros a resolver.
+     * @param random   El generador usado para variar el orden, o null para orden fijo.
+     */
+
+    public DancingLinksSolver(BoardGeometry geometry, RandomGenerator random) {
+        this.geometry = geometry;
+        this.size = geometry.getSize();
+        this.cellCount = geometry.getCellCount();
+        this.columns = 4 * cellCount;
+        this.root = columns;
+        this.firstNode = columns + 1;
+        int nodes = firstNode + cellCount * size * 4;
+        this.left = new int[nodes];
+        this.right = new int[nodes];
+        this.up = new int[nodes];
+        this.down = new int[nodes];
+        this.column = new int[nodes];
+        this.rowOf = new int[nodes];
+        this.nodeSize = new int[columns];
+        this.covered = new boolean[columns];
+        this.clues = new int[cellCount];
+        this.partial = new int[cellCount];
+        this.result = new int[cellCount];
+        this.random = random;
+        build();
+    }
+
+    @Override
+    public boolean solve(int[][] board) {
+        if (!loadClues(board)) {
+            return false;
+        }
+        stopAtFirst = true;
+        solutions = 0;
+        limit = 1;
+        search(0);
+        unloadClues();
+        if (control != null) {
+            control.finish();
+        }
+        if (solutions == 0) {
+            return false;
+        }
+        for (int i = 0; i < resultLength; i++) {
+            int row = result[i];
+            int cell = row / size;
+            board[geometry.cellRow[cell]][geometry.cellCol[cell]] = row % size + 1;
+        }
+        return true;
+    }
+
+    @Override
+    public long countSolutions(int[][] board, long limit) {
+        if (!loadClues(board)) {
+            return 0;
+        }
+        stopAtFirst = false;
+        solutions = 0;
+        this.limit = limit;
+        search(0);
+        unloadClues();
+        if (control != null) {
+            control.finish();
+        }
+        return solutions;
+    }
+
+    @Override
+    public void setRandom(RandomGenerator random) {
+        this.random = random;
+    }
+
+    @Override
+    public void setControl(SolveControl control) {
+        this.control = control;
+    }
+
+    /**
+     * @return La geometría de los tableros que resuelve este motor.
+     */
+
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * Construye la matriz de cobertura exacta con sus listas doblemente enlazadas.
+     */
+
+    private void build() {
+        for (int c = 0; c <= columns; c++) {
+            left[c] = c == 0 ? root : c - 1;
+            right[c] = c == root ? 0 : c + 1;
+            up[c] = c;
+            down[c] = c;
+            column[c] = c;
+        }
+        int node = firstNode;
+        for (int cell = 0; cell < cellCount; cell++) {
+            int r = geometry.cellRow[cell];
+            int c = geometry.cellCol[cell];
+            int b = geometry.cellBox[cell];
+            for (int d = 0; d < size; d++) {
+                int row = cell * size + d;
+                int first = node;
+                appendNode(node++, cell, row);
+                appendNode(node++, cellCount + r * size + d, row);
+                appendNode(node++, 2 * cellCount + c * size + d, row);
+                appendNode(node++, 3 * cellCount + b * size + d, row);
+                for (int k = 0; k < 4; k++) {
+                    left[first + k] = first + (k + 3) % 4;
+                    right[first + k] = first + (k + 1) % 4;
+                }
+            }
+        }
+    }
+
+    private void appendNode(int node, int col, int row) {
+        column[node] = col;
+        rowOf[node] = row;
+        up[node] = up[col];
+        down[node] = col;
+        down[up[col]] = node;
+        up[col] = node;
+        nodeSize[col]++;
+    }
+
+    /**
+     * Selecciona las filas correspondientes a las pistas del tablero.
+     *
+     * @return false si dos pistas se contradicen; en ese caso la matriz queda restaurada.
+     */
+
+    private boolean loadClues(int[][] board) {
+        clueCount = 0;
+        for (int cell = 0; cell < cellCount; cell++) {
+            int value = board[geometry.cellRow[cell]][geometry.cellCol[cell]];
+            if (value == 0) {
+                continue;
+            }
+            int first = firstNode + (cell * size + value - 1) * 4;
+            for (int k = 0; k < 4; k++) {
+                if (covered[column[first + k]]) {
+                    unloadClues();
+                    return false;
+                }
+            }
+            for (int k = 0; k < 4; k++) {
+                cover(column[first + k]);
+            }
+            clues[clueCount++] = first;
+        }
+        return true;
+    }
+
+    private void unloadClues() {
+        while (clueCount > 0) {
+            int first = clues[--clueCount];
+            for (int k = 3; k >= 0; k--) {
+                uncover(column[first + k]);
+            }
+        }
+    }
+
+    /**
+     * Algoritmo X: elige la columna con menos filas y prueba cada una de ellas.
+     *
+     * @return true si la búsqueda debe detenerse, por haber terminado o porque el control lo pidió.
+     */
+
+    private boolean search(int depth) {
+        if (right[root] == root) {
+            if (solutions == 0) {
+                System.arraycopy(partial, 0, result, 0, depth);
+                resultLength = depth;
+            }
+            solutions++;
+            return stopAtFirst || solutions >= limit;
+        }
+        if (control != null && control.node()) {
+            return true;
+        }
+        int col = right[root];
+        for (int c = right[col]; c != root; c = right[c]) {
+            if (nodeSize[c] < nodeSize[col]) {
+                col = c;
+            }
+        }
+        int n = nodeSize[col];
+        if (n == 0) {
+            if (control != null) {
+                control.backtrack(); // Una restricción sin filas: callejón sin salida
+            }
+            return false;
+        }
+        cover(col);
+        int node = down[col];
+        if (random != null) {
+            for (int skip = random.nextInt(n); skip > 0; skip--) {
+                node = down[node];
+            }
+        }
+        boolean stop = false;
+        for (int i = 0; i < n && !stop; i++) {
+            if (node == col) {
+                node = down[node];
+            }
+            partial[depth] = rowOf[node];
+            for (int j = right[node]; j != node; j = right[j]) {
+                cover(column[j]);
+            }
+            stop = search(depth + 1);
+            for (int j = left[node]; j != node; j = left[j]) {
+                uncover(column[j]);
+            }
+            node = down[node];
+        }
+        uncover(col);
+        return stop;
+    }
+
+    private void cover(int col) {
+        covered[col] = true;
+        right[left[col]] = right[col];
+        left[right[col]] = left[col];
+        for (int i = down[col]; i != col; i = down[i]) {
+            for (int j = right[i]; j != i; j = right[j]) {
+                down[up[j]] = down[j];
+                up[down[j]] = up[j];
+                nodeSize[column[j]]--;
+            }
+        }
+    }
+
+    private void uncover(int col) {
+        for (int i = up[col]; i != col; i = up[i]) {
+            for (int j = left[i]; j != i; j = left[j]) {
+                nodeSize[column[j]]++;
+                down[up[j]] = j;
+                up[down[j]] = j;
+            }
+        }
+        right[left[col]] = col;
+        left[right[col]] = col;
+        covered[col] = false;
+    }
+}
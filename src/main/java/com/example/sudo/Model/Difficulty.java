@@ -0,0 +1,28 @@
+package com.example.sudo.Model;
+
+/**
+ * Niveles de dificultad de las partidas generadas.
+ * Cada nivel fija el mínimo de pistas que el {@link PuzzleGenerator} deja en el tablero;
+ * todas las partidas tienen solución única sin importar el nivel.
+ */
+
+public enum Difficulty {
+    EASY(2),    // Mitad de las casillas como pistas
+    MEDIUM(3),  // Un tercio de las casillas (dos por bloque en 6x6)
+    HARD(0);    // Tantas pistas como se puedan quitar sin perder la unicidad
+
+    private final int clueDivisor;
+
+    Difficulty(int clueDivisor) {
+        this.clueDivisor = clueDivisor;
+    }
+
+    /**
+     * @param geometry La geometría del tablero.
+     * @return El mínimo de pistas para este nivel en la geometría indicada.
+     */
+
+    public int targetClues(BoardGeometry geometry) {
+        return clueDivisor == 0 ? 0 : geometry.getCellCount() / clueDivisor;
+    }
+}
@@ -0,0 +1,282 @@
+package com.example.sudo.Model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Historia de una partida para deshacer y rehacer sin límite, con puntos de bifurcación para probar
+ * un número y volver atrás si no sirve.
+ * Escucha el {@link SudokuBoard} y guarda cada cambio como un solo {@code int} (casilla, valor anterior,
+ * valor nuevo y si lo reveló una pista), así que una sesión larga de un millón de jugadas ocupa unos 4 MB. Cada punto de
+ * bifurcación guarda además una {@link BoardSnapshot} (dos {@code long} en 6x6), de modo que volver a
+ * él no deshace jugada por jugada.
+ * Deshacer, rehacer y volver a una bifurcación aplican los cambios sobre el mismo tablero, que los
+ * notifica a la vista como cualquier otra jugada; esos cambios no se vuelven a registrar.
+ * No es segura para varios hilos: se usa desde el hilo de la partida, como el tablero.
+ */
+
+public final class GameHistory implements BoardListener {
+    private static final int VALUE_BITS = 5; // Alcanza para números hasta 31
+    private static final int VALUE_MASK = (1 << VALUE_BITS) - 1;
+    private static final int CELL_SHIFT = 2 * VALUE_BITS;
+    private static final int CELL_MASK = (1 << 10) - 1; // Alcanza para 25x25
+    private static final int CONTINUES = 1 << 20; // La jugada sigue a la anterior en un mismo paso
+    private static final int GIVEN = 1 << 21; // El número lo reveló una pista o una solución
+
+    private final SudokuBoard board;
+    private final List<Branch> branches = new ArrayList<>();
+    private int[] moves = new int[64];
+    private int size; // Jugadas registradas, incluidas las que se pueden rehacer
+    private int cursor; // Jugadas aplicadas; las de cursor a size se pueden rehacer
+    private boolean applying; // Los cambios vienen de la propia historia
+    private int grouping; // Profundidad de runAsOneStep en curso
+    private boolean groupStarted;
+
+    /**
+     * Crea una historia vacía y la registra como observador del tablero.
+     *
+     * @param board El tablero de la partida.
+     */
+
+    public GameHistory(SudokuBoard board) {
+        this.board = board;
+        board.addListener(this);
+    }
+
+    @Override
+    public void cellChanged(int cell, int oldValue, int newValue) {
+        if (applying) {
+            return;
+        }
+        int move = cell << CELL_SHIFT | oldValue << VALUE_BITS | newValue;
+        if (board.isGiven(cell)) {
+            move |= GIVEN;
+        }
+        if (grouping > 0) {
+            if (groupStarted) {
+                move |= CONTINUES;
+            }
+            groupStarted = true;
+        }
+        size = cursor; // Una jugada nueva descarta lo que se podía rehacer
+        branches.removeIf(branch -> branch.position > cursor);
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, size * 2);
+        }
+        moves[size++] = move;
+        cursor = size;
+    }
+
+    /**
+     * Ejecuta una acción que cambia varias casillas, como aplicar una solución, de modo que se deshaga
+     * y se rehaga en un solo paso.
+     *
+     * @param action La acción.
+     */
+
+    public void runAsOneStep(Runnable action) {
+        if (grouping++ == 0) {
+            groupStarted = false;
+        }
+        try {
+            action.run();
+        } finally {
+            grouping--;
+        }
+    }
+
+    /**
+     * Deshace el último paso.
+     *
+     * @return true si había algo para deshacer.
+     */
+
+    public boolean undo() {
+        if (cursor == 0) {
+            return false;
+        }
+        applying = true;
+        try {
+            int move;
+            do {
+                move = moves[--cursor];
+                int cell = move >>> CELL_SHIFT & CELL_MASK;
+                board.place(cell, move >>> VALUE_BITS & VALUE_MASK);
+                if ((move & GIVEN) != 0) {
+                    board.conceal(cell); // La pista pudo coincidir con el número que ya había
+                }
+            } while ((move & CONTINUES) != 0 && cursor > 0);
+        } finally {
+            applying = false;
+        }
+        return true;
+    }
+
+    /**
+     * Rehace el último paso deshecho.
+     *
+     * @return true si había algo para rehacer.
+     */
+
+    public boolean redo() {
+        if (cursor == size) {
+            return false;
+        }
+        applying = true;
+        try {
+            do {
+                int move = moves[cursor++];
+                if ((move & GIVEN) != 0) {
+                    board.reveal(move >>> CELL_SHIFT & CELL_MASK, move & VALUE_MASK);
+                } else {
+                    board.place(move >>> CELL_SHIFT & CELL_MASK, move & VALUE_MASK);
+                }
+            } while (cursor < size && (moves[cursor] & CONTINUES) != 0);
+        } finally {
+            applying = false;
+        }
+        return true;
+    }
+
+    /**
+     * Marca el estado actual como punto de bifurcación, antes de probar un número dudoso.
+     * Las bifurcaciones se anidan: {@link #rollback()} vuelve a la más reciente.
+     *
+     * @return El número de bifurcaciones abiertas, contando esta.
+     */
+
+    public int markBranch() {
+        branches.add(new Branch(cursor, board.snapshot()));
+        return branches.size();
+    }
+
+    /**
+     * Vuelve a la bifurcación más reciente y la cierra. Las jugadas hechas desde entonces se
+     * descartan y no se pueden rehacer.
+     *
+     * @return true si había una bifurcación abierta.
+     */
+
+    public boolean rollback() {
+        if (branches.isEmpty()) {
+            return false;
+        }
+        Branch branch = branches.remove(branches.size() - 1);
+        applying = true;
+        try {
+            board.restore(branch.snapshot);
+        } finally {
+            applying = false;
+        }
+        cursor = branch.position;
+        size = branch.position;
+        return true;
+    }
+
+    /**
+     * Cierra la bifurcación más reciente conservando las jugadas hechas desde entonces, porque el
+     * número probado resultó correcto.
+     *
+     * @return true si había una bifurcación abierta.
+     */
+
+    public boolean commitBranch() {
+        if (branches.isEmpty()) {
+            return false;
+        }
+        branches.remove(branches.size() - 1);
+        return true;
+    }
+
+    /**
+     * Olvida todas las jugadas y bifurcaciones, por ejemplo al empezar una partida nueva.
+     */
+
+    public void clear() {
+        size = 0;
+        cursor = 0;
+        branches.clear();
+        if (moves.length > 1024) {
+            moves = new int[64];
+        }
+    }
+
+    public boolean canUndo() {
+        return cursor > 0;
+    }
+
+    public boolean canRedo() {
+        return cursor < size;
+    }
+
+    /**
+     * @return El número de bifurcaciones abiertas.
+     */
+
+    public int getBranchDepth() {
+        return branches.size();
+    }
+
+    /**
+     * @return El número de jugadas aplicadas, sin contar las que se pueden rehacer.
+     */
+
+    public int getPosition() {
+        return cursor;
+    }
+
+    /**
+     * @return Las jugadas registradas, incluidas las que se pueden rehacer, en el formato interno.
+     */
+
+    int[] getMoves() {
+        return Arrays.copyOf(moves, size);
+    }
+
+    int[] getBranchPositions() {
+        return branches.stream().mapToInt(Branch::position).toArray();
+    }
+
+    BoardSnapshot[] getBranchSnapshots() {
+        return branches.stream().map(Branch::snapshot).toArray(BoardSnapshot[]::new);
+    }
+
+    /**
+     * Reemplaza la historia por una guardada, sin tocar el tablero, que ya debe estar en el estado
+     * que corresponde a la posición.
+     *
+     * @param savedMoves      Las jugadas, en el formato de {@link #getMoves()}.
+     * @param position        Las jugadas aplicadas.
+     * @param branchPositions La posición de cada bifurcación abierta.
+     * @param branchSnapshots Los valores del tablero en cada bifurcación.
+     */
+
+    void restore(int[] savedMoves, int position, int[] branchPositions, BoardSnapshot[] branchSnapshots) {
+        clear();
+        moves = Arrays.copyOf(savedMoves, Math.max(64, savedMoves.length));
+        size = savedMoves.length;
+        cursor = position;
+        for (int i = 0; i < branchPositions.length; i++) {
+            branches.add(new Branch(branchPositions[i], branchSnapshots[i]));
+        }
+    }
+
+    /**
+     * Indica si una jugada en el formato interno es válida para una geometría.
+     */
+
+    static boolean isValidMove(BoardGeometry geometry, int move) {
+        return (move & ~(GIVEN | CONTINUES | CELL_MASK << CELL_SHIFT | VALUE_MASK << VALUE_BITS | VALUE_MASK)) == 0
+                && (move >>> CELL_SHIFT & CELL_MASK) < geometry.getCellCount()
+                && (move >>> VALUE_BITS & VALUE_MASK) <= geometry.getSize()
+                && (move & VALUE_MASK) <= geometry.getSize();
+    }
+
+    /**
+     * Punto de bifurcación: la posición en la historia y los valores del tablero en ese momento.
+     */
+
+    private record Branch(int position, BoardSnapshot snapshot) {
+    }
+}
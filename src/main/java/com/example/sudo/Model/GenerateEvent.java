@@ -0,0 +1,13 @@
+package com.example.sudo.Model;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Una llamada a {@link Sudoku#generateSudoku()}: llenar la solución y quitar pistas.
+ */
+
+@Name("com.example.sudo.Generate")
+@Label("Generar partida")
+final class GenerateEvent extends SearchEvent {
+}
@@ -0,0 +1,83 @@
+package com.example.sudo.Model;
+
+/**
+ * Una partida generada: las pistas y su única solución.
+ * Ambos tableros se guardan empaquetados en un solo arreglo de {@code long}, como en
+ * {@link BoardSnapshot} (en 6x6, dos palabras por tablero con el formato de {@link PackedBoard}), así
+ * que una partida ocupa unos 70 bytes en lugar de los casi 600 de dos matrices; las reservas y los
+ * lotes de partidas pueden guardar muchas.
+ * No se modifica después de crearla, así que puede pasarse entre hilos.
+ */
+
+public final class GeneratedPuzzle {
+    private final BoardGeometry geometry;
+    private final long[] words; // Las pistas y a continuación la solución
+    private final Difficulty difficulty;
+
+    public GeneratedPuzzle(int[][] puzzle, int[][] solution, Difficulty difficulty) {
+        this.geometry = BoardGeometry.of(puzzle.length);
+        int wordCount = BoardSnapshot.wordCount(geometry);
+        this.words = new long[2 * wordCount];
+        for (int cell = 0; cell < geometry.getCellCount(); cell++) {
+            int row = geometry.row(cell);
+            int col = geometry.col(cell);
+            BoardSnapshot.set(geometry, words, cell, puzzle[row][col]);
+            BoardSnapshot.set(geometry, words, cell + wordCount * BoardSnapshot.cellsPerWord(geometry), solution[row][col]);
+        }
+        this.difficulty = difficulty;
+    }
+
+    /**
+     * @return Una matriz nueva con las pistas, con 0 en las casillas vacías.
+     */
+
+    public int[][] getPuzzle() {
+        int[][] puzzle = new int[geometry.getSize()][geometry.getSize()];
+        copyPuzzleTo(puzzle);
+        return puzzle;
+    }
+
+    /**
+     * @return Una matriz nueva con la solución completa.
+     */
+
+    public int[][] getSolution() {
+        int[][] solution = new int[geometry.getSize()][geometry.getSize()];
+        copySolutionTo(solution);
+        return solution;
+    }
+
+    /**
+     * Copia las pistas sin reservar memoria.
+     *
+     * @param out La matriz de destino, del tamaño del tablero.
+     */
+
+    public void copyPuzzleTo(int[][] out) {
+        copyTo(0, out);
+    }
+
+    /**
+     * Copia la solución sin reservar memoria.
+     *
+     * @param out La matriz de destino, del tamaño del tablero.
+     */
+
+    public void copySolutionTo(int[][] out) {
+        copyTo(BoardSnapshot.wordCount(geometry) * BoardSnapshot.cellsPerWord(geometry), out);
+    }
+
+    private void copyTo(int offset, int[][] out) {
+        for (int cell = 0; cell < geometry.getCellCount(); cell++) {
+            out[geometry.row(cell)][geometry.col(cell)] = BoardSnapshot.get(geometry, words, offset + cell);
+        }
+    }
+
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
+}
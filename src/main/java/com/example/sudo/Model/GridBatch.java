@@ -0,0 +1,125 @@
+package com.example.sudo.Model;
+
+/**
+ * Lote de tableros de 6x6 completos para validar de una vez con un {@link GridValidator}.
+ * Se guarda como estructura de arreglos: un byte por casilla, agrupados por casilla y no por tablero
+ * ({@code cells[casilla * capacidad + tablero]}), así que la misma casilla de tableros consecutivos
+ * queda contigua en memoria y se puede leer en un solo vector.
+ * Se reutiliza con {@link #clear()}; no es segura para usarse desde varios hilos a la vez.
+ */
+
+public final class GridBatch {
+    static final int SIZE = 6;
+    static final int CELLS = SIZE * SIZE;
+
+    private final int capacity;
+    private final byte[] cells;
+    private int size;
+
+    /**
+     * Crea un lote vacío.
+     *
+     * @param capacity El número máximo de tableros.
+     */
+
+    public GridBatch(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("La capacidad debe ser positiva: " + capacity);
+        }
+        this.capacity = capacity;
+        this.cells = new byte[CELLS * capacity];
+    }
+
+    /**
+     * Agrega un tablero.
+     *
+     * @param grid La matriz de 6x6; las casillas vacías (0) hacen que el tablero no sea válido.
+     * @return El índice del tablero en el lote.
+     * @throws IllegalStateException    Si el lote está lleno.
+     * @throws IllegalArgumentException Si la matriz no es de 6x6 o tiene un número fuera de 0 a 6.
+     */
+
+    public int add(int[][] grid) {
+        if (grid.length != SIZE) {
+            throw new IllegalArgumentException("Se esperaba un tablero de 6x6");
+        }
+        int index = next();
+        for (int cell = 0; cell < CELLS; cell++) {
+            int value = grid[cell / SIZE][cell % SIZE];
+            if (value < 0 || value > SIZE) {
+                size--;
+                throw new IllegalArgumentException("Número fuera de rango para un tablero de 6x6: " + value);
+            }
+            cells[cell * capacity + index] = (byte) value;
+        }
+        return index;
+    }
+
+    /**
+     * Agrega un tablero en el formato compacto de {@link BoardCodec}, sin crear la matriz.
+     *
+     * @param line La línea de 36 caracteres.
+     * @return El índice del tablero en el lote.
+     * @throws IllegalStateException    Si el lote está lleno.
+     * @throws IllegalArgumentException Si la línea no es un tablero de 6x6.
+     */
+
+    public int add(CharSequence line) {
+        if (line.length() != CELLS) {
+            throw new IllegalArgumentException("Se esperaba un tablero de 6x6: " + line);
+        }
+        int index = next();
+        try {
+            for (int cell = 0; cell < CELLS; cell++) {
+                cells[cell * capacity + index] = (byte) BoardCodec.digitValue(line.charAt(cell), SIZE);
+            }
+        } catch (IllegalArgumentException e) {
+            size--;
+            throw e;
+        }
+        return index;
+    }
+
+    private int next() {
+        if (size == capacity) {
+            throw new IllegalStateException("El lote está lleno (" + capacity + " tableros)");
+        }
+        return size++;
+    }
+
+    /**
+     * @return El valor de una casilla de un tablero del lote.
+     */
+
+    public int get(int index, int cell) {
+        return cells[cell * capacity + index];
+    }
+
+    /**
+     * Vacía el lote para reutilizarlo.
+     */
+
+    public void clear() {
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public boolean isFull() {
+        return size == capacity;
+    }
+
+    /**
+     * @return Las casillas de todos los tableros, agrupadas por casilla.
+     */
+
+    byte[] cells() {
+        return cells;
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.sudo.Model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Enumera todas las soluciones de 6x6 (bloques de 2x3) salvo renombrar los números.
+ * Toda solución se puede renombrar para que su primera fila sea {@code 1 2 3 4 5 6}, así que basta
+ * enumerar las 39.168 soluciones con esa primera fila; las 28.200.960 soluciones se obtienen
+ * aplicando las 720 permutaciones de números. La búsqueda se reparte en el pool según la segunda fila,
+ * que tiene 36 opciones ({@code 4 5 6} y {@code 1 2 3} permutados dentro de cada bloque).
+ * Cada solución se codifica en un {@code long} con el índice de permutación de las filas 2 a 6
+ * (ver {@link GridStore}).
+ */
+
+public class GridEnumerator {
+    private static final BoardGeometry GEOMETRY = BoardGeometry.SIZE_6;
+    private static final int SIZE = 6;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Crea un enumerador que reparte el trabajo en el pool indicado.
+     *
+     * @param pool El pool de hilos.
+     */
+
+    public GridEnumerator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Enumera las soluciones con la primera fila {@code 1 2 3 4 5 6}.
+     *
+     * @return Los códigos de las soluciones, ordenados de menor a mayor.
+     */
+
+    public long[] enumerate() {
+        List<ForkJoinTask<long[]>> tasks = new ArrayList<>();
+        for (int[] left : GridStore.permutationsOf(4, 5, 6)) {
+            for (int[] right : GridStore.permutationsOf(1, 2, 3)) {
+                int[] secondRow = {left[0], left[1], left[2], right[0], right[1], right[2]};
+                tasks.add(pool.submit(() -> new Branch(secondRow).run()));
+            }
+        }
+        long[][] parts = new long[tasks.size()][];
+        int total = 0;
+        for (int i = 0; i < parts.length; i++) {
+            parts[i] = tasks.get(i).join();
+            total += parts[i].length;
+        }
+        long[] codes = new long[total];
+        int n = 0;
+        for (long[] part : parts) {
+            System.arraycopy(part, 0, codes, n, part.length);
+            n += part.length;
+        }
+        Arrays.sort(codes);
+        return codes;
+    }
+
+    /**
+     * Búsqueda secuencial de todas las soluciones con las dos primeras filas fijas.
+     */
+
+    private static final class Branch {
+        private final int[] cells = new int[GEOMETRY.getCellCount()];
+        private final int[] rowMask = new int[SIZE];
+        private final int[] colMask = new int[SIZE];
+        private final int[] boxMask = new int[SIZE];
+        private long[] found = new long[2048];
+        private int count;
+
+        Branch(int[] secondRow) {
+            for (int col = 0; col < SIZE; col++) {
+                set(col, col + 1);
+                set(SIZE + col, secondRow[col]);
+            }
+        }
+
+        long[] run() {
+            fill(2 * SIZE);
+            return Arrays.copyOf(found, count);
+        }
+
+        private void fill(int cell) {
+            if (cell == cells.length) {
+                if (count == found.length) {
+                    found = Arrays.copyOf(found, count * 2);
+                }
+                found[count++] = GridStore.encode(cells);
+                return;
+            }
+            int row = GEOMETRY.row(cell);
+            int col = GEOMETRY.col(cell);
+            int box = GEOMETRY.box(cell);
+            int free = GEOMETRY.getAllMask() & ~(rowMask[row] | colMask[col] | boxMask[box]);
+            while (free != 0) {
+                int bit = free & -free;
+                free ^= bit;
+                set(cell, Integer.numberOfTrailingZeros(bit) + 1);
+                fill(cell + 1);
+                rowMask[row] &= ~bit;
+                colMask[col] &= ~bit;
+                boxMask[box] &= ~bit;
+            }
+            cells[cell] = 0;
+        }
+
+        private void set(int cell, int value) {
+            int bit = 1 << (value - 1);
+            cells[cell] = value;
+            rowMask[GEOMETRY.row(cell)] |= bit;
+            colMask[GEOMETRY.col(cell)] |= bit;
+            boxMask[GEOMETRY.box(cell)] |= bit;
+        }
+    }
+}
@@ -0,0 +1,524 @@
+package com.example.sudo.Model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.random.RandomGenerator;
+import java.util.zip.CRC32C;
+
+/**
+ * Tabla con todas las soluciones de 6x6 (bloques de 2x3), guardadas salvo renombrar los números.
+ * Cada una de las 39.168 soluciones base tiene la primera fila {@code 1 2 3 4 5 6} y se codifica en
+ * un {@code long}: el índice (0 a 719) de la permutación de cada una de las filas 2 a 6, en base 720.
+ * Las 28.200.960 soluciones son las bases con sus números renombrados.
+ * El archivo ocupa unos 306 KB: una cabecera ({@code SDG6}, versión y cantidad), los códigos ordenados
+ * y un CRC32C de todo lo anterior. Al leerlo se comprueba además que estén las 39.168 bases y que cada
+ * una sea una solución válida, porque una tabla dañada daría partidas sin solución.
+ * En memoria las bases se guardan además desplegadas, un byte por casilla, y para cada par de casillas
+ * un conjunto de bits con las bases donde ambas tienen el mismo número (unos 3 MB en total).
+ * Como renombrar conserva qué casillas son iguales, las bases que coinciden con unas pistas son
+ * exactamente las que tienen iguales las casillas con la misma pista y distintas las de pistas
+ * distintas; una consulta es una intersección de pocos conjuntos de bits.
+ * Las permutaciones de filas, columnas, bandas y pilas no se usan para reducir la tabla, porque
+ * deshacerlas en cada consulta costaría más que recorrer las bases.
+ * Es inmutable y se puede consultar desde varios hilos.
+ */
+
+public final class GridStore {
+    private static final int MAGIC = 0x53444736; // "SDG6"
+    private static final int VERSION = 2;
+    private static final int BASE_COUNT = 39168;
+    private static final long CODE_LIMIT = 720L * 720 * 720 * 720 * 720; // Cinco filas en base 720
+    private static final int SIZE = 6;
+    private static final int CELLS = SIZE * SIZE;
+    private static final int[][] PERMS = new int[720][];
+    private static final short[] RANK = new short[46656]; // Índice de permutación por código en base 6
+    private static final int[] FACTORIAL = {1, 1, 2, 6, 24, 120, 720};
+
+    static {
+        int n = 0;
+        for (int[] perm : permutations(new int[]{1, 2, 3, 4, 5, 6})) {
+            PERMS[n] = perm;
+            RANK[base6(perm, 0)] = (short) n;
+            n++;
+        }
+    }
+
+    private static final int[][] PAIR = new int[CELLS][CELLS]; // Índice de cada par de casillas distintas
+
+    static {
+        int n = 0;
+        for (int a = 0; a < CELLS; a++) {
+            for (int b = a + 1; b < CELLS; b++) {
+                PAIR[a][b] = n;
+                PAIR[b][a] = n;
+                n++;
+            }
+        }
+    }
+
+    private final long[] codes;
+    private final byte[] grids;
+    private final int words; // Palabras de 64 bits por conjunto de bases
+    private final long[] same; // same[PAIR[a][b] * words + w]: bases con el mismo número en a y b
+
+    /**
+     * Crea la tabla a partir de los códigos de las soluciones base.
+     *
+     * @param codes Los códigos, ordenados de menor a mayor.
+     */
+
+    public GridStore(long[] codes) {
+        this.codes = codes;
+        this.grids = new byte[codes.length * CELLS];
+        for (int i = 0; i < codes.length; i++) {
+            decode(codes[i], grids, i * CELLS);
+        }
+        this.words = (codes.length + 63) >>> 6;
+        this.same = new long[CELLS * (CELLS - 1) / 2 * words];
+        for (int i = 0; i < codes.length; i++) {
+            int offset = i * CELLS;
+            for (int a = 0; a < CELLS; a++) {
+                for (int b = a + 1; b < CELLS; b++) {
+                    if (grids[offset + a] == grids[offset + b]) {
+                        same[PAIR[a][b] * words + (i >>> 6)] |= 1L << i;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Construye la tabla enumerando todas las soluciones en el pool indicado.
+     *
+     * @param pool El pool de hilos.
+     * @return La tabla completa.
+     */
+
+    public static GridStore build(ForkJoinPool pool) {
+        return new GridStore(new GridEnumerator(pool).enumerate());
+    }
+
+    /**
+     * Lee la tabla de un archivo escrito con {@link #write(Path)} y comprueba que esté completa.
+     *
+     * @param file El archivo.
+     * @return La tabla.
+     * @throws IOException Si no se puede leer, no tiene el formato esperado o está dañada.
+     */
+
+    public static GridStore read(Path file) throws IOException {
+        long length = Files.size(file);
+        if (length != 16 + BASE_COUNT * (long) Long.BYTES) {
+            throw new IOException("No es una tabla de soluciones de 6x6 completa: " + file);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), 0, buffer.limit() - Integer.BYTES);
+        if ((int) crc.getValue() != buffer.getInt(buffer.limit() - Integer.BYTES)) {
+            throw new IOException("Tabla de soluciones dañada: " + file);
+        }
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new IOException("No es una tabla de soluciones de 6x6: " + file);
+        }
+        if (buffer.getInt() != BASE_COUNT) {
+            throw new IOException("Tabla de soluciones incompleta: " + file);
+        }
+        long[] codes = new long[BASE_COUNT];
+        buffer.asLongBuffer().get(codes);
+        if (!isValid(codes)) {
+            throw new IOException("Tabla de soluciones dañada: " + file);
+        }
+        return new GridStore(codes);
+    }
+
+    /**
+     * Comprueba que los códigos estén en orden estricto, como exige la búsqueda binaria, y que cada
+     * uno sea una solución. Con las 39.168 bases distintas y válidas, la tabla es la completa.
+     */
+
+    private static boolean isValid(long[] codes) {
+        byte[] cells = new byte[CELLS];
+        PackedBoard board = new PackedBoard();
+        long previous = -1;
+        for (long code : codes) {
+            if (code <= previous || code >= CODE_LIMIT) {
+                return false;
+            }
+            previous = code;
+            decode(code, cells, 0);
+            for (int cell = 0; cell < CELLS; cell++) {
+                board.set(cell, cells[cell]);
+            }
+            if (!board.isSolved()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Lee la tabla del archivo, o la construye y la escribe si el archivo no existe o no se puede
+     * usar, por ejemplo porque está dañado o es de otra versión.
+     *
+     * @param file El archivo.
+     * @param pool El pool usado si hay que construirla.
+     * @return La tabla.
+     * @throws IOException Si falla la escritura.
+     */
+
+    public static GridStore loadOrBuild(Path file, ForkJoinPool pool) throws IOException {
+        if (Files.exists(file)) {
+            try {
+                return read(file);
+            } catch (IOException e) {
+                System.err.println("Se reconstruye la tabla de soluciones: " + e.getMessage());
+            }
+        }
+        GridStore store = build(pool);
+        store.write(file);
+        return store;
+    }
+
+    /**
+     * Escribe la tabla en formato compacto. Se escribe en un archivo temporal que luego reemplaza al
+     * anterior, así que un corte a mitad de la escritura no deja una tabla a medias.
+     *
+     * @param file El archivo de destino; se reemplaza si existe.
+     * @throws IOException Si falla la escritura.
+     */
+
+    public void write(Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(16 + codes.length * Long.BYTES);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(codes.length);
+        buffer.asLongBuffer().put(codes);
+        buffer.position(buffer.position() + codes.length * Long.BYTES);
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue());
+
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, buffer.array());
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * @return El número de soluciones base (con la primera fila {@code 1 2 3 4 5 6}).
+     */
+
+    public int getBaseCount() {
+        return codes.length;
+    }
+
+    /**
+     * @return El número total de soluciones, contando todos los renombramientos.
+     */
+
+    public long getGridCount() {
+        return codes.length * (long) FACTORIAL[SIZE];
+    }
+
+    /**
+     * Copia una solución base.
+     *
+     * @param index El índice de la base, de 0 a {@link #getBaseCount()} - 1.
+     * @param out   La matriz de destino, de 6x6.
+     */
+
+    public void baseGrid(int index, int[][] out) {
+        int offset = index * CELLS;
+        for (int cell = 0; cell < CELLS; cell++) {
+            out[cell / SIZE][cell % SIZE] = grids[offset + cell];
+        }
+    }
+
+    /**
+     * Elige una solución al azar, con la misma probabilidad para todas: una base al azar con los
+     * números renombrados por una permutación al azar.
+     *
+     * @param random El generador aleatorio.
+     * @param out    La matriz de destino, de 6x6.
+     */
+
+    public void randomGrid(RandomGenerator random, int[][] out) {
+        int offset = random.nextInt(codes.length) * CELLS;
+        int[] relabel = {0, 1, 2, 3, 4, 5, 6};
+        for (int i = SIZE; i > 1; i--) {
+            int j = random.nextInt(i) + 1;
+            int tmp = relabel[i];
+            relabel[i] = relabel[j];
+            relabel[j] = tmp;
+        }
+        for (int cell = 0; cell < CELLS; cell++) {
+            out[cell / SIZE][cell % SIZE] = relabel[grids[offset + cell]];
+        }
+    }
+
+    /**
+     * Indica si una matriz completa es una solución válida.
+     *
+     * @param grid La matriz de 6x6.
+     * @return true si está en la tabla.
+     */
+
+    public boolean contains(int[][] grid) {
+        int[] relabel = new int[SIZE + 1];
+        for (int col = 0; col < SIZE; col++) {
+            int value = grid[0][col];
+            if (value < 1 || value > SIZE || relabel[value] != 0) {
+                return false;
+            }
+            relabel[value] = col + 1; // Renombra para que la primera fila sea 1 2 3 4 5 6
+        }
+        int[] cells = new int[CELLS];
+        for (int cell = 0; cell < CELLS; cell++) {
+            int value = grid[cell / SIZE][cell % SIZE];
+            if (value < 1 || value > SIZE) {
+                return false;
+            }
+            cells[cell] = relabel[value];
+        }
+        for (int row = 1; row < SIZE; row++) {
+            if (!isPermutation(cells, row * SIZE)) {
+                return false;
+            }
+        }
+        return Arrays.binarySearch(codes, encode(cells)) >= 0;
+    }
+
+    /**
+     * Cuenta las soluciones que coinciden con las pistas, deteniéndose al llegar al límite.
+     * Cada base que coincide fija el renombramiento de los números de las pistas, y cada forma de
+     * completarlo con los números libres da una solución distinta.
+     *
+     * @param clues La matriz de 6x6 con 0 en las casillas vacías.
+     * @param limit El número de soluciones a partir del cual se deja de contar.
+     * @return El número de soluciones, como máximo {@code limit}.
+     */
+
+    public long countCompletions(int[][] clues, long limit) {
+        long[] matches = new long[words];
+        int groups = matchingBases(clues, matches);
+        long total = 0;
+        for (long word : matches) {
+            total += Long.bitCount(word) * (long) FACTORIAL[SIZE - groups];
+            if (total >= limit) {
+                return limit;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Recorre todas las soluciones que coinciden con las pistas.
+     *
+     * @param clues  La matriz de 6x6 con 0 en las casillas vacías.
+     * @param action Recibe cada solución; la matriz se reutiliza entre llamadas y no debe guardarse.
+     */
+
+    public void forEachCompletion(int[][] clues, Consumer<int[][]> action) {
+        long[] matches = new long[words];
+        matchingBases(clues, matches);
+        int[] clueCells = new int[CELLS];
+        int[] clueValues = new int[CELLS];
+        int clueCount = collectClues(clues, clueCells, clueValues);
+        int[] relabel = new int[SIZE + 1];
+        int[][] out = new int[SIZE][SIZE];
+        for (int w = 0; w < words; w++) {
+            long word = matches[w];
+            while (word != 0) {
+                int offset = ((w << 6) + Long.numberOfTrailingZeros(word)) * CELLS;
+                word &= word - 1;
+                relabel(offset, clueCells, clueValues, clueCount, relabel);
+                extend(offset, relabel, 1, out, action);
+            }
+        }
+    }
+
+    /**
+     * Calcula las bases que coinciden con las pistas: iguales donde las pistas se repiten y
+     * distintas donde no. Basta comparar cada pista con la primera de su número y las primeras
+     * de cada número entre sí.
+     *
+     * @param clues   La matriz de pistas.
+     * @param matches Recibe un bit por base que coincide.
+     * @return El número de números distintos en las pistas.
+     */
+
+    private int matchingBases(int[][] clues, long[] matches) {
+        Arrays.fill(matches, -1L);
+        if ((codes.length & 63) != 0) {
+            matches[words - 1] = (1L << (codes.length & 63)) - 1;
+        }
+        int[] first = new int[SIZE + 1]; // Primera casilla con cada número, más uno
+        int groups = 0;
+        for (int cell = 0; cell < CELLS; cell++) {
+            int value = clues[cell / SIZE][cell % SIZE];
+            if (value == 0) {
+                continue;
+            }
+            if (first[value] != 0) {
+                and(matches, PAIR[first[value] - 1][cell], false);
+                continue;
+            }
+            for (int other = 1; other <= SIZE; other++) {
+                if (first[other] != 0) {
+                    and(matches, PAIR[first[other] - 1][cell], true);
+                }
+            }
+            first[value] = cell + 1;
+            groups++;
+        }
+        return groups;
+    }
+
+    private void and(long[] matches, int pair, boolean different) {
+        int base = pair * words;
+        for (int w = 0; w < words; w++) {
+            matches[w] &= different ? ~same[base + w] : same[base + w];
+        }
+    }
+
+    /**
+     * Completa el renombramiento con los números libres en todas las formas posibles.
+     */
+
+    private void extend(int offset, int[] relabel, int digit, int[][] out, Consumer<int[][]> action) {
+        if (digit > SIZE) {
+            for (int cell = 0; cell < CELLS; cell++) {
+                out[cell / SIZE][cell % SIZE] = relabel[grids[offset + cell]];
+            }
+            action.accept(out);
+            return;
+        }
+        if (relabel[digit] != 0) {
+            extend(offset, relabel, digit + 1, out, action);
+            return;
+        }
+        for (int value = 1; value <= SIZE; value++) {
+            if (!isUsed(relabel, value)) {
+                relabel[digit] = value;
+                extend(offset, relabel, digit + 1, out, action);
+                relabel[digit] = 0;
+            }
+        }
+    }
+
+    private static boolean isUsed(int[] relabel, int value) {
+        for (int digit = 1; digit <= SIZE; digit++) {
+            if (relabel[digit] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int collectClues(int[][] clues, int[] clueCells, int[] clueValues) {
+        int n = 0;
+        for (int cell = 0; cell < CELLS; cell++) {
+            int value = clues[cell / SIZE][cell % SIZE];
+            if (value != 0) {
+                clueCells[n] = cell;
+                clueValues[n] = value;
+                n++;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Calcula el renombramiento de una base que coincide con las pistas.
+     *
+     * @param relabel Recibe el renombramiento parcial: {@code relabel[d]} es el número que toma {@code d},
+     *                o 0 si queda libre.
+     */
+
+    private void relabel(int offset, int[] clueCells, int[] clueValues, int clueCount, int[] relabel) {
+        Arrays.fill(relabel, 0);
+        for (int k = 0; k < clueCount; k++) {
+            relabel[grids[offset + clueCells[k]]] = clueValues[k];
+        }
+    }
+
+    private static boolean isPermutation(int[] cells, int offset) {
+        int seen = 0;
+        for (int i = 0; i < SIZE; i++) {
+            seen |= 1 << cells[offset + i];
+        }
+        return seen == 0b1111110;
+    }
+
+    /**
+     * Codifica una solución cuya primera fila es {@code 1 2 3 4 5 6}.
+     */
+
+    static long encode(int[] cells) {
+        long code = 0;
+        for (int row = 1; row < SIZE; row++) {
+            code = code * 720 + RANK[base6(cells, row * SIZE)];
+        }
+        return code;
+    }
+
+    private static void decode(long code, byte[] out, int offset) {
+        for (int col = 0; col < SIZE; col++) {
+            out[offset + col] = (byte) (col + 1);
+        }
+        for (int row = SIZE - 1; row >= 1; row--) {
+            int[] perm = PERMS[(int) (code % 720)];
+            code /= 720;
+            for (int col = 0; col < SIZE; col++) {
+                out[offset + row * SIZE + col] = (byte) perm[col];
+            }
+        }
+    }
+
+    private static int base6(int[] values, int offset) {
+        int code = 0;
+        for (int i = 0; i < SIZE; i++) {
+            code = code * SIZE + values[offset + i] - 1;
+        }
+        return code;
+    }
+
+    /**
+     * @return Las permutaciones de los números indicados, en orden lexicográfico si vienen ordenados.
+     */
+
+    static List<int[]> permutationsOf(int... values) {
+        return permutations(values);
+    }
+
+    private static List<int[]> permutations(int[] values) {
+        List<int[]> result = new ArrayList<>();
+        permute(values.clone(), 0, result);
+        return result;
+    }
+
+    private static void permute(int[] values, int k, List<int[]> result) {
+        if (k == values.length) {
+            result.add(values.clone());
+            return;
+        }
+        for (int i = k; i < values.length; i++) {
+            int[] next = values.clone();
+            int chosen = next[i];
+            System.arraycopy(next, k, next, k + 1, i - k); // Mantiene el orden lexicográfico
+            next[k] = chosen;
+            permute(next, k + 1, result);
+        }
+    }
+}
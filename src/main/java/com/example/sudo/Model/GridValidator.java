@@ -0,0 +1,43 @@
+package com.example.sudo.Model;
+
+/**
+ * Validador por lotes de tableros de 6x6 completos: un tablero es válido si cada fila, columna y
+ * bloque tiene los números del 1 al 6 sin repetir.
+ * Para cada unidad se juntan con OR los bits {@code 1 << número} de sus seis casillas y el resultado
+ * debe ser {@code 0b1111110}; una casilla vacía aporta el bit 0 y un número repetido deja otro bit
+ * apagado, así que ambos fallan la misma comparación.
+ * {@link #create()} elige la implementación con la API de vectores de {@code jdk.incubator.vector} si
+ * el módulo está disponible (por ejemplo con {@code --add-modules jdk.incubator.vector}), y si no,
+ * la escalar.
+ */
+
+public interface GridValidator {
+
+    /**
+     * Valida todos los tableros de un lote.
+     *
+     * @param batch El lote.
+     * @param valid El resultado de cada tablero, por índice; debe tener al menos {@code batch.size()} posiciones.
+     * @return El número de tableros válidos.
+     */
+    int validate(GridBatch batch, boolean[] valid);
+
+    /**
+     * @return El nombre de la implementación, para los informes de rendimiento.
+     */
+    String getName();
+
+    /**
+     * @return El validador más rápido disponible en esta máquina virtual.
+     */
+    static GridValidator create() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return new VectorGridValidator();
+            } catch (LinkageError e) {
+                // El módulo existe pero esta plataforma no lo soporta: se usa el escalar
+            }
+        }
+        return new ScalarGridValidator();
+    }
+}
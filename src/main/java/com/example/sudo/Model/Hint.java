@@ -0,0 +1,51 @@
+package com.example.sudo.Model;
+
+/**
+ * Una pista del {@link HintEngine}: la casilla, el número que va en ella y la explicación para el jugador.
+ */
+
+public final class Hint {
+    private final int cell;
+    private final int value;
+    private final Technique technique;
+    private final String reason;
+
+    /**
+     * @param cell      La casilla de la pista.
+     * @param value     El número a colocar, o 0 si la pista señala un error en la casilla.
+     * @param technique La técnica que lleva a la jugada, o null si no viene de una deducción.
+     * @param reason    La explicación para el jugador.
+     */
+
+    public Hint(int cell, int value, Technique technique, String reason) {
+        this.cell = cell;
+        this.value = value;
+        this.technique = technique;
+        this.reason = reason;
+    }
+
+    public int getCell() {
+        return cell;
+    }
+
+    /**
+     * @return El número a colocar, o 0 si la pista señala un error en la casilla.
+     */
+
+    public int getValue() {
+        return value;
+    }
+
+    public Technique getTechnique() {
+        return technique;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    @Override
+    public String toString() {
+        return reason;
+    }
+}
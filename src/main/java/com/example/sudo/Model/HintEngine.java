@@ -0,0 +1,140 @@
+package com.example.sudo.Model;
+
+/**
+ * Calcula la jugada más fácil que se puede deducir del estado actual de la partida, con su explicación.
+ * Observa el {@link SudokuBoard} y mantiene los candidatos de cada casilla al día: cuando el jugador
+ * coloca un número solo lo quita de los vecinos, y conserva las eliminaciones que encontraron pistas
+ * anteriores (pares, apuntadores...). Solo recalcula todo cuando se borra o cambia un número.
+ * Mientras el tablero no cambie, devuelve la misma pista sin volver a calcularla.
+ */
+
+public class HintEngine implements BoardListener {
+    private final SudokuBoard board;
+    private final BoardGeometry geometry;
+    private final LogicalSolver solver;
+    private final int[] cand;
+    private boolean stale = true;
+    private Hint cached;
+
+    /**
+     * Crea el motor de pistas y lo registra como observador del tablero.
+     *
+     * @param board El tablero de la partida.
+     */
+
+    public HintEngine(SudokuBoard board) {
+        this.board = board;
+        this.geometry = board.getGeometry();
+        this.solver = new LogicalSolver(geometry);
+        this.cand = new int[geometry.getCellCount()];
+        board.addListener(this);
+    }
+
+    @Override
+    public void cellChanged(int cell, int oldValue, int newValue) {
+        if (oldValue == newValue) {
+            return; // Solo cambió la condición de pista fija o revelada
+        }
+        cached = null;
+        if (stale) {
+            return;
+        }
+        int bit = newValue == 0 ? 0 : 1 << (newValue - 1);
+        if (oldValue != 0 || (cand[cell] & bit) == 0) {
+            stale = true; // Las eliminaciones guardadas pueden depender del número que se quitó
+            return;
+        }
+        cand[cell] = 0;
+        for (int peer : geometry.peers(cell)) {
+            cand[peer] &= ~bit;
+        }
+    }
+
+    /**
+     * Obtiene la siguiente pista para el estado actual del tablero.
+     *
+     * @return La pista, o null si el tablero está completo o no se puede avanzar sin adivinar.
+     */
+
+    public Hint nextHint() {
+        if (cached != null) {
+            return cached;
+        }
+        for (int cell = 0; cell < cand.length; cell++) {
+            if (board.isConflicting(cell)) {
+                cached = new Hint(cell, 0, null, "El " + board.get(cell) + " de la " + cellName(cell)
+                        + " se repite en su fila, columna o bloque.");
+                return cached;
+            }
+        }
+        if (stale) {
+            for (int cell = 0; cell < cand.length; cell++) {
+                cand[cell] = board.get(cell) == 0 ? board.candidates(cell) : 0;
+            }
+            stale = false;
+        }
+        solver.load(board, cand);
+        StringBuilder reason = new StringBuilder();
+        Technique technique;
+        while ((technique = solver.step()) != null) {
+            if (technique.isPlacement()) {
+                cached = placementHint(technique, reason);
+                return cached;
+            }
+            // Las eliminaciones siguen valiendo mientras solo se agreguen números
+            solver.copyCandidates(cand);
+            reason.append(capitalize(technique.getDisplayName())).append(" de ").append(digitList(solver.getStepDigits()))
+                    .append(" en ").append(unitName(solver.getStepUnit())).append(". ");
+        }
+        if (solver.isContradiction()) {
+            cached = new Hint(-1, 0, null, "Algún número ingresado es incorrecto: el tablero ya no tiene solución.");
+            return cached;
+        }
+        return null;
+    }
+
+    private Hint placementHint(Technique technique, StringBuilder reason) {
+        int cell = solver.getStepCell();
+        int value = Integer.numberOfTrailingZeros(solver.getStepDigits()) + 1;
+        if (technique == Technique.HIDDEN_SINGLE) {
+            reason.append("Single oculto en ").append(unitName(solver.getStepUnit())).append(": el ").append(value)
+                    .append(" solo puede ir en la ").append(cellName(cell)).append('.');
+        } else {
+            reason.append("Single desnudo: la casilla de la ").append(cellName(cell))
+                    .append(" solo admite el ").append(value).append('.');
+        }
+        return new Hint(cell, value, technique, reason.toString());
+    }
+
+    private String unitName(int unit) {
+        int size = geometry.getSize();
+        if (unit < size) {
+            return "la fila " + (unit + 1);
+        }
+        if (unit < 2 * size) {
+            return "la columna " + (unit - size + 1);
+        }
+        return "el bloque " + (unit - 2 * size + 1);
+    }
+
+    private String cellName(int cell) {
+        return "fila " + (geometry.row(cell) + 1) + ", columna " + (geometry.col(cell) + 1);
+    }
+
+    private static String digitList(int digits) {
+        StringBuilder sb = new StringBuilder(digits == (digits & -digits) ? "el " : "los ");
+        while (digits != 0) {
+            int bit = digits & -digits;
+            digits ^= bit;
+            sb.append(Integer.numberOfTrailingZeros(bit) + 1);
+            if (digits != 0) {
+                sb.append(Integer.bitCount(digits) == 1 ? " y " : ", ");
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String capitalize(String text) {
+        return Character.toUpperCase(text.charAt(0)) + text.substring(1);
+    }
+}
@@ -0,0 +1,538 @@
+package com.example.sudo.Model;
+
+/**
+ * Motor de resolución paso a paso con técnicas humanas, sin adivinar.
+ * Mantiene una máscara de candidatos por casilla y en cada paso aplica la técnica más fácil
+ * que produzca progreso (ver {@link Technique}): singles ocultos y desnudos, pares apuntadores,
+ * reducción bloque-línea, y pares y tríos desnudos y ocultos. Sirve para calificar la dificultad
+ * de un tablero con {@link #rate(int[][])} y para explicar jugadas, porque después de cada
+ * {@link #step()} guarda qué técnica se usó, dónde y sobre qué números.
+ * No crea objetos durante la búsqueda. Una instancia no es segura para usarse desde varios hilos a la vez.
+ */
+
+public class LogicalSolver {
+    private final BoardGeometry geometry;
+    private final int size;
+    private final int cellCount;
+    private final int all;
+    private final int[] cellRow;
+    private final int[] cellCol;
+    private final int[] cellBox;
+    private final int[][] unitCells;
+    private final int[][] peers;
+
+    private final int[] values;
+    private final int[] cand; // Candidatos de cada casilla vacía; 0 en las casillas llenas
+    private final int[] subset; // Casillas o números considerados al buscar subconjuntos
+    private final int[] positions; // positions[d - 1]: posiciones del número d dentro de una unidad
+    private int emptyCount;
+    private boolean contradiction;
+
+    private Technique stepTechnique;
+    private int stepUnit;
+    private int stepCell;
+    private int stepDigits;
+    private int stepEliminations;
+
+    /**
+     * Crea un motor para la geometría indicada.
+     *
+     * @param geometry La geometría de los tableros.
+     */
+
+    public LogicalSolver(BoardGeometry geometry) {
+        this.geometry = geometry;
+        this.size = geometry.getSize();
+        this.cellCount = geometry.getCellCount();
+        this.all = geometry.getAllMask();
+        this.cellRow = geometry.cellRow;
+        this.cellCol = geometry.cellCol;
+        this.cellBox = geometry.cellBox;
+        this.unitCells = geometry.unitCells;
+        this.peers = geometry.peers;
+        this.values = new int[cellCount];
+        this.cand = new int[cellCount];
+        this.subset = new int[size];
+        this.positions = new int[size];
+    }
+
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * Carga un tablero y calcula los candidatos de cada casilla vacía.
+     *
+     * @param board La matriz con 0 en las casillas vacías.
+     * @return false si el tablero tiene un número repetido en una fila, columna o bloque.
+     */
+
+    public boolean load(int[][] board) {
+        for (int cell = 0; cell < cellCount; cell++) {
+            values[cell] = 0;
+            cand[cell] = all;
+        }
+        emptyCount = cellCount;
+        contradiction = false;
+        stepTechnique = null;
+        for (int cell = 0; cell < cellCount; cell++) {
+            int value = board[cellRow[cell]][cellCol[cell]];
+            if (value != 0) {
+                if (values[cell] == 0 && (cand[cell] & (1 << (value - 1))) == 0) {
+                    contradiction = true; // Un vecino ya tiene ese número
+                }
+                assign(cell, value);
+            }
+        }
+        return !contradiction;
+    }
+
+    /**
+     * Coloca un número y lo quita de los candidatos de los vecinos.
+     *
+     * @param cell  El índice de la casilla, que debe estar vacía.
+     * @param value El número.
+     */
+
+    public void assign(int cell, int value) {
+        int bit = 1 << (value - 1);
+        values[cell] = value;
+        cand[cell] = 0;
+        emptyCount--;
+        for (int peer : peers[cell]) {
+            cand[peer] &= ~bit;
+        }
+    }
+
+    /**
+     * Carga el estado de una partida con candidatos ya calculados, que pueden incluir eliminaciones
+     * hechas en pasos anteriores, sin recalcularlos.
+     *
+     * @param board      La partida.
+     * @param candidates Los candidatos de cada casilla vacía, un bit por número.
+     */
+
+    public void load(SudokuBoard board, int[] candidates) {
+        emptyCount = 0;
+        for (int cell = 0; cell < cellCount; cell++) {
+            values[cell] = board.get(cell);
+            if (values[cell] == 0) {
+                cand[cell] = candidates[cell];
+                emptyCount++;
+            } else {
+                cand[cell] = 0;
+            }
+        }
+        contradiction = false;
+        stepTechnique = null;
+    }
+
+    /**
+     * Copia los candidatos actuales, con todas las eliminaciones hechas hasta ahora.
+     *
+     * @param candidates El arreglo de destino, con una posición por casilla.
+     */
+
+    public void copyCandidates(int[] candidates) {
+        System.arraycopy(cand, 0, candidates, 0, cellCount);
+    }
+
+    /**
+     * @return El número de la casilla, o 0 si está vacía.
+     */
+
+    public int get(int cell) {
+        return values[cell];
+    }
+
+    /**
+     * @return Los candidatos que le quedan a la casilla, un bit por número; 0 si está llena.
+     */
+
+    public int candidates(int cell) {
+        return cand[cell];
+    }
+
+    public int getEmptyCount() {
+        return emptyCount;
+    }
+
+    /**
+     * @return true si la lógica llegó a una casilla sin candidatos o a un número sin lugar en una unidad.
+     */
+
+    public boolean isContradiction() {
+        return contradiction;
+    }
+
+    /**
+     * Aplica la técnica más fácil que produzca progreso: colocar un número o eliminar candidatos.
+     *
+     * @return La técnica aplicada, o null si el tablero está completo, no hay ninguna aplicable
+     *         o se encontró una contradicción.
+     */
+
+    public Technique step() {
+        stepTechnique = null;
+        if (contradiction || emptyCount == 0) {
+            return null;
+        }
+        if (hiddenSingle() || nakedSingle() || pointing() || boxLine()
+                || nakedSubset(2, Technique.NAKED_PAIR) || hiddenSubset(2, Technique.HIDDEN_PAIR)
+                || nakedSubset(3, Technique.NAKED_TRIPLE) || hiddenSubset(3, Technique.HIDDEN_TRIPLE)) {
+            return stepTechnique;
+        }
+        return null;
+    }
+
+    /**
+     * Califica un tablero aplicando técnicas hasta completarlo o no poder avanzar.
+     *
+     * @param board La matriz con 0 en las casillas vacías; no se modifica.
+     * @return La calificación.
+     */
+
+    public Rating rate(int[][] board) {
+        int[] counts = new int[Technique.values().length];
+        if (!load(board)) {
+            return new Rating(false, false, counts);
+        }
+        Technique technique;
+        while ((technique = step()) != null) {
+            counts[technique.ordinal()]++;
+        }
+        return new Rating(emptyCount == 0, !contradiction, counts);
+    }
+
+    /**
+     * @return La técnica del último paso, o null si no se aplicó ninguna.
+     */
+
+    public Technique getStepTechnique() {
+        return stepTechnique;
+    }
+
+    /**
+     * @return La unidad donde se encontró el patrón del último paso (ver {@link BoardGeometry}).
+     */
+
+    public int getStepUnit() {
+        return stepUnit;
+    }
+
+    /**
+     * @return La casilla donde se colocó un número en el último paso, o -1 si solo se eliminaron candidatos.
+     */
+
+    public int getStepCell() {
+        return stepCell;
+    }
+
+    /**
+     * @return Los números del patrón del último paso, un bit por número; el número colocado en los singles.
+     */
+
+    public int getStepDigits() {
+        return stepDigits;
+    }
+
+    /**
+     * @return Cuántos candidatos se eliminaron en el último paso.
+     */
+
+    public int getStepEliminations() {
+        return stepEliminations;
+    }
+
+    private boolean record(Technique technique, int unit, int cell, int digits, int eliminations) {
+        stepTechnique = technique;
+        stepUnit = unit;
+        stepCell = cell;
+        stepDigits = digits;
+        stepEliminations = eliminations;
+        return true;
+    }
+
+    /**
+     * Busca un número que solo tenga una casilla posible en alguna unidad, empezando por los bloques.
+     */
+
+    private boolean hiddenSingle() {
+        int unitCount = 3 * size;
+        for (int u = 0; u < unitCount; u++) {
+            int unit = (u + 2 * size) % unitCount;
+            int once = 0;
+            int twice = 0;
+            int placed = 0;
+            for (int cell : unitCells[unit]) {
+                int c = cand[cell];
+                twice |= once & c;
+                once |= c;
+                if (values[cell] != 0) {
+                    placed |= 1 << (values[cell] - 1);
+                }
+            }
+            if ((placed | once) != all) {
+                contradiction = true; // Un número sin lugar en la unidad
+                return false;
+            }
+            int single = once & ~twice;
+            if (single != 0) {
+                int bit = single & -single;
+                for (int cell : unitCells[unit]) {
+                    if ((cand[cell] & bit) != 0) {
+                        assign(cell, Integer.numberOfTrailingZeros(bit) + 1);
+                        return record(Technique.HIDDEN_SINGLE, unit, cell, bit, 0);
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Busca una casilla con un solo candidato.
+     */
+
+    private boolean nakedSingle() {
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (values[cell] != 0) {
+                continue;
+            }
+            int c = cand[cell];
+            if (c == 0) {
+                contradiction = true;
+                return false;
+            }
+            if ((c & (c - 1)) == 0) {
+                assign(cell, Integer.numberOfTrailingZeros(c) + 1);
+                return record(Technique.NAKED_SINGLE, cellBox[cell] + 2 * size, cell, c, 0);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Si dentro de un bloque un número solo puede ir en una fila (o columna), lo elimina del
+     * resto de esa fila (o columna).
+     */
+
+    private boolean pointing() {
+        for (int box = 0; box < size; box++) {
+            int[] cells = unitCells[2 * size + box];
+            int digits = 0;
+            for (int cell : cells) {
+                digits |= cand[cell];
+            }
+            while (digits != 0) {
+                int bit = digits & -digits;
+                digits ^= bit;
+                int rows = 0;
+                int cols = 0;
+                for (int cell : cells) {
+                    if ((cand[cell] & bit) != 0) {
+                        rows |= 1 << cellRow[cell];
+                        cols |= 1 << cellCol[cell];
+                    }
+                }
+                if (Integer.bitCount(rows) == 1) {
+                    int removed = eliminateOutsideBox(unitCells[Integer.numberOfTrailingZeros(rows)], box, bit);
+                    if (removed > 0) {
+                        return record(Technique.POINTING, 2 * size + box, -1, bit, removed);
+                    }
+                }
+                if (Integer.bitCount(cols) == 1) {
+                    int removed = eliminateOutsideBox(unitCells[size + Integer.numberOfTrailingZeros(cols)], box, bit);
+                    if (removed > 0) {
+                        return record(Technique.POINTING, 2 * size + box, -1, bit, removed);
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private int eliminateOutsideBox(int[] line, int box, int bit) {
+        int removed = 0;
+        for (int cell : line) {
+            if (cellBox[cell] != box && (cand[cell] & bit) != 0) {
+                cand[cell] &= ~bit;
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Si dentro de una fila o columna un número solo puede ir en un bloque, lo elimina del resto del bloque.
+     */
+
+    private boolean boxLine() {
+        for (int line = 0; line < 2 * size; line++) {
+            int[] cells = unitCells[line];
+            int digits = 0;
+            for (int cell : cells) {
+                digits |= cand[cell];
+            }
+            while (digits != 0) {
+                int bit = digits & -digits;
+                digits ^= bit;
+                int boxes = 0;
+                for (int cell : cells) {
+                    if ((cand[cell] & bit) != 0) {
+                        boxes |= 1 << cellBox[cell];
+                    }
+                }
+                if (Integer.bitCount(boxes) != 1) {
+                    continue;
+                }
+                int removed = 0;
+                for (int cell : unitCells[2 * size + Integer.numberOfTrailingZeros(boxes)]) {
+                    boolean inLine = line < size ? cellRow[cell] == line : cellCol[cell] == line - size;
+                    if (!inLine && (cand[cell] & bit) != 0) {
+                        cand[cell] &= ~bit;
+                        removed++;
+                    }
+                }
+                if (removed > 0) {
+                    return record(Technique.BOX_LINE, line, -1, bit, removed);
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Busca {@code k} casillas de una unidad cuyos candidatos juntos son exactamente {@code k} números,
+     * y elimina esos números del resto de la unidad.
+     */
+
+    private boolean nakedSubset(int k, Technique technique) {
+        for (int unit = 0; unit < 3 * size; unit++) {
+            int[] cells = unitCells[unit];
+            int n = 0;
+            int empty = 0;
+            for (int cell : cells) {
+                int count = Integer.bitCount(cand[cell]);
+                if (values[cell] == 0) {
+                    empty++;
+                }
+                if (count >= 2 && count <= k) {
+                    subset[n++] = cell;
+                }
+            }
+            if (n < k || empty <= k) {
+                continue;
+            }
+            for (int i = 0; i < n; i++) {
+                for (int j = i + 1; j < n; j++) {
+                    int union2 = cand[subset[i]] | cand[subset[j]];
+                    if (k == 2) {
+                        if (Integer.bitCount(union2) == 2 && nakedEliminate(technique, unit, union2)) {
+                            return true;
+                        }
+                        continue;
+                    }
+                    if (Integer.bitCount(union2) > 3) {
+                        continue;
+                    }
+                    for (int l = j + 1; l < n; l++) {
+                        int union3 = union2 | cand[subset[l]];
+                        if (Integer.bitCount(union3) == 3 && nakedEliminate(technique, unit, union3)) {
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Elimina los números del subconjunto de las casillas de la unidad que tienen otros candidatos.
+     */
+
+    private boolean nakedEliminate(Technique technique, int unit, int digits) {
+        int removed = 0;
+        for (int cell : unitCells[unit]) {
+            int c = cand[cell];
+            if ((c & ~digits) != 0 && (c & digits) != 0) {
+                cand[cell] = c & ~digits;
+                removed += Integer.bitCount(c & digits);
+            }
+        }
+        return removed > 0 && record(technique, unit, -1, digits, removed);
+    }
+
+    /**
+     * Busca {@code k} números que en una unidad solo pueden ir en las mismas {@code k} casillas,
+     * y elimina de esas casillas los demás candidatos.
+     */
+
+    private boolean hiddenSubset(int k, Technique technique) {
+        for (int unit = 0; unit < 3 * size; unit++) {
+            int[] cells = unitCells[unit];
+            for (int d = 0; d < size; d++) {
+                positions[d] = 0;
+            }
+            for (int p = 0; p < size; p++) {
+                int c = cand[cells[p]];
+                while (c != 0) {
+                    int bit = c & -c;
+                    c ^= bit;
+                    positions[Integer.numberOfTrailingZeros(bit)] |= 1 << p;
+                }
+            }
+            int n = 0;
+            for (int d = 0; d < size; d++) {
+                int count = Integer.bitCount(positions[d]);
+                if (count >= 2 && count <= k) {
+                    subset[n++] = d;
+                }
+            }
+            for (int i = 0; i < n; i++) {
+                for (int j = i + 1; j < n; j++) {
+                    int union2 = positions[subset[i]] | positions[subset[j]];
+                    int digits2 = (1 << subset[i]) | (1 << subset[j]);
+                    if (k == 2) {
+                        if (Integer.bitCount(union2) == 2 && hiddenEliminate(technique, unit, union2, digits2)) {
+                            return true;
+                        }
+                        continue;
+                    }
+                    if (Integer.bitCount(union2) > 3) {
+                        continue;
+                    }
+                    for (int l = j + 1; l < n; l++) {
+                        int union3 = union2 | positions[subset[l]];
+                        if (Integer.bitCount(union3) == 3
+                                && hiddenEliminate(technique, unit, union3, digits2 | (1 << subset[l]))) {
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Deja en las casillas del subconjunto solo los números del subconjunto.
+     */
+
+    private boolean hiddenEliminate(Technique technique, int unit, int cellsMask, int digits) {
+        int[] cells = unitCells[unit];
+        int removed = 0;
+        while (cellsMask != 0) {
+            int bit = cellsMask & -cellsMask;
+            cellsMask ^= bit;
+            int cell = cells[Integer.numberOfTrailingZeros(bit)];
+            int others = cand[cell] & ~digits;
+            if (others != 0) {
+                cand[cell] &= digits;
+                removed += Integer.bitCount(others);
+            }
+        }
+        return removed > 0 && record(technique, unit, -1, digits, removed);
+    }
+}
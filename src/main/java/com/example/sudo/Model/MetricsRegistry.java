@@ -0,0 +1,153 @@
+package com.example.sudo.Model;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Registro de métricas del proceso: estadísticas por operación (veces, tiempo total y máximo, nodos,
+ * retrocesos y pistas) y medidores que se leen al pedir el informe.
+ * Está desactivado salvo que se active con {@link #setEnabled(boolean)} o con la propiedad del
+ * sistema {@code sudo.metrics=true}; desactivado, las operaciones instrumentadas solo leen un
+ * indicador y no miden nada (salvo que Flight Recorder esté grabando sus eventos).
+ * Los registros se hacen con {@link LongAdder}, así que es seguro y barato desde varios hilos.
+ */
+
+public final class MetricsRegistry {
+    private static final MetricsRegistry GLOBAL = new MetricsRegistry(Boolean.getBoolean("sudo.metrics"));
+
+    private final Map<String, Stat> stats = new ConcurrentHashMap<>();
+    private final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+    private volatile boolean enabled;
+
+    /**
+     * Crea un registro vacío.
+     *
+     * @param enabled true para empezar a medir de inmediato.
+     */
+
+    public MetricsRegistry(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return El registro compartido por todo el proceso.
+     */
+
+    public static MetricsRegistry global() {
+        return GLOBAL;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Devuelve la estadística de una operación, creándola la primera vez. Conviene guardarla en una
+     * constante en lugar de buscarla en cada registro.
+     *
+     * @param name El nombre de la operación, por ejemplo {@code sudoku.solve}.
+     * @return La estadística.
+     */
+
+    public Stat stat(String name) {
+        return stats.computeIfAbsent(name, n -> new Stat());
+    }
+
+    /**
+     * Registra un medidor que se lee al generar el informe, por ejemplo los aciertos de una reserva.
+     *
+     * @param name  El nombre del medidor.
+     * @param value La función que lee el valor actual.
+     */
+
+    public void gauge(String name, LongSupplier value) {
+        gauges.put(name, value);
+    }
+
+    /**
+     * @return Un informe con una línea por operación y por medidor, en orden alfabético.
+     */
+
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        new TreeMap<>(stats).forEach((name, stat) -> {
+            if (stat.getCount() > 0) {
+                sb.append(name).append(' ').append(stat).append('\n');
+            }
+        });
+        new TreeMap<>(gauges).forEach((name, gauge) -> sb.append(name).append(' ').append(gauge.getAsLong()).append('\n'));
+        return sb.toString();
+    }
+
+    /**
+     * Acumulados de una operación instrumentada.
+     */
+
+    public static final class Stat {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final LongAdder nodes = new LongAdder();
+        private final LongAdder backtracks = new LongAdder();
+        private final LongAdder clues = new LongAdder();
+
+        /**
+         * Registra una ejecución de la operación.
+         *
+         * @param elapsedNanos La duración en nanosegundos.
+         * @param nodeCount    Los nodos de búsqueda visitados.
+         * @param backtrackCount Los retrocesos de la búsqueda.
+         * @param clueCount    Las pistas del tablero.
+         */
+
+        public void record(long elapsedNanos, long nodeCount, long backtrackCount, int clueCount) {
+            count.increment();
+            nanos.add(elapsedNanos);
+            maxNanos.accumulate(elapsedNanos);
+            nodes.add(nodeCount);
+            backtracks.add(backtrackCount);
+            clues.add(clueCount);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getTotalNanos() {
+            return nanos.sum();
+        }
+
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+
+        public long getNodes() {
+            return nodes.sum();
+        }
+
+        public long getBacktracks() {
+            return backtracks.sum();
+        }
+
+        public long getClues() {
+            return clues.sum();
+        }
+
+        @Override
+        public String toString() {
+            long n = Math.max(1, getCount());
+            return String.format(Locale.ROOT, "veces=%d media=%.1fus max=%.1fus nodos/vez=%d retrocesos/vez=%d pistas/vez=%d",
+                    getCount(), getTotalNanos() / 1e3 / n, getMaxNanos() / 1e3, getNodes() / n,
+                    getBacktracks() / n, getClues() / n);
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package com.example.sudo.Model;
+
+/**
+ * Tablero de 6x6 empaquetado en dos {@code long}: las casillas 0 a 20 en {@link #getLow()} y las
+ * 21 a 35 en {@link #getHigh()}, de a 3 bits y empezando por los bits bajos, igual que una
+ * {@link BoardSnapshot} de 6x6. Ocupa 32 bytes frente a los casi 300 de un {@code int[6][6]}.
+ * Copiar y comparar son dos operaciones sobre {@code long} sin reservar memoria, y las comprobaciones
+ * de todo el tablero trabajan con las 36 casillas a la vez: {@link #digitMask(int)} obtiene de un
+ * golpe las casillas que tienen un número (cada campo de 3 bits se compara en paralelo y
+ * {@link Long#compress} junta los resultados) y cada fila, columna o bloque se revisa con una máscara.
+ * Es mutable para poder reutilizarlo sin reservar memoria; {@link #equals} y {@link #hashCode}
+ * dependen del contenido, así que no debe modificarse mientras sea clave de un mapa.
+ */
+
+public final class PackedBoard implements Comparable<PackedBoard> {
+    private static final int SIZE = 6;
+    private static final int CELLS = SIZE * SIZE;
+    private static final int LOW_CELLS = 21;
+    private static final long LOW_LANES = 0x1249249249249249L; // El bit 0 de cada campo de 3 bits
+    private static final long HIGH_LANES = LOW_LANES & ((1L << 3 * (CELLS - LOW_CELLS)) - 1);
+    private static final long[] UNITS = new long[3 * SIZE]; // Filas, columnas y bloques como máscaras de casillas
+
+    static {
+        for (int cell = 0; cell < CELLS; cell++) {
+            int row = cell / SIZE;
+            int col = cell % SIZE;
+            UNITS[row] |= 1L << cell;
+            UNITS[SIZE + col] |= 1L << cell;
+            UNITS[2 * SIZE + row / 2 * 2 + col / 3] |= 1L << cell;
+        }
+    }
+
+    private long low;
+    private long high;
+
+    /**
+     * Crea un tablero vacío.
+     */
+
+    public PackedBoard() {
+    }
+
+    /**
+     * Crea un tablero a partir de sus dos palabras.
+     *
+     * @param low  Las casillas 0 a 20.
+     * @param high Las casillas 21 a 35.
+     */
+
+    public PackedBoard(long low, long high) {
+        this.low = low;
+        this.high = high;
+    }
+
+    /**
+     * Empaqueta una matriz.
+     *
+     * @param board La matriz de 6x6, con 0 en las casillas vacías.
+     * @return El tablero empaquetado.
+     * @throws IllegalArgumentException Si la matriz no es de 6x6 o tiene un número fuera de 0 a 6.
+     */
+
+    public static PackedBoard of(int[][] board) {
+        PackedBoard packed = new PackedBoard();
+        packed.copyFrom(board);
+        return packed;
+    }
+
+    /**
+     * @return El valor de la casilla, o 0 si está vacía.
+     */
+
+    public int get(int cell) {
+        return cell < LOW_CELLS
+                ? (int) (low >>> 3 * cell) & 7
+                : (int) (high >>> 3 * (cell - LOW_CELLS)) & 7;
+    }
+
+    public int get(int row, int col) {
+        return get(row * SIZE + col);
+    }
+
+    /**
+     * Coloca un número en una casilla, reemplazando el que hubiera.
+     *
+     * @param cell  El índice de la casilla, de 0 a 35.
+     * @param value El número, de 1 a 6, o 0 para vaciarla.
+     * @throws IllegalArgumentException Si el número está fuera de 0 a 6.
+     */
+
+    public void set(int cell, int value) {
+        if (value < 0 || value > SIZE) {
+            throw new IllegalArgumentException("Número fuera de rango para un tablero de 6x6: " + value);
+        }
+        if (cell < LOW_CELLS) {
+            int shift = 3 * cell;
+            low = low & ~(7L << shift) | (long) value << shift;
+        } else {
+            int shift = 3 * (cell - LOW_CELLS);
+            high = high & ~(7L << shift) | (long) value << shift;
+        }
+    }
+
+    public void set(int row, int col, int value) {
+        set(row * SIZE + col, value);
+    }
+
+    /**
+     * Reemplaza el contenido por el de una matriz.
+     *
+     * @param board La matriz de 6x6, con 0 en las casillas vacías.
+     * @throws IllegalArgumentException Si la matriz no es de 6x6 o tiene un número fuera de 0 a 6.
+     */
+
+    public void copyFrom(int[][] board) {
+        if (board.length != SIZE) {
+            throw new IllegalArgumentException("Se esperaba un tablero de 6x6");
+        }
+        long newLow = 0;
+        long newHigh = 0;
+        for (int cell = 0; cell < CELLS; cell++) {
+            int value = board[cell / SIZE][cell % SIZE];
+            if (value < 0 || value > SIZE) {
+                throw new IllegalArgumentException("Número fuera de rango para un tablero de 6x6: " + value);
+            }
+            if (cell < LOW_CELLS) {
+                newLow |= (long) value << 3 * cell;
+            } else {
+                newHigh |= (long) value << 3 * (cell - LOW_CELLS);
+            }
+        }
+        low = newLow;
+        high = newHigh;
+    }
+
+    /**
+     * Reemplaza el contenido por el de otro tablero, sin reservar memoria.
+     *
+     * @param other El tablero de origen.
+     */
+
+    public void copyFrom(PackedBoard other) {
+        low = other.low;
+        high = other.high;
+    }
+
+    /**
+     * Reemplaza el contenido por dos palabras, por ejemplo las guardadas en una tabla.
+     *
+     * @param low  Las casillas 0 a 20.
+     * @param high Las casillas 21 a 35.
+     */
+
+    public void setWords(long low, long high) {
+        this.low = low;
+        this.high = high;
+    }
+
+    /**
+     * Copia el contenido a una matriz.
+     *
+     * @param board La matriz de destino, de 6x6.
+     */
+
+    public void copyTo(int[][] board) {
+        long word = low;
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (cell == LOW_CELLS) {
+                word = high;
+            }
+            board[cell / SIZE][cell % SIZE] = (int) word & 7;
+            word >>>= 3;
+        }
+    }
+
+    /**
+     * @return Una copia independiente.
+     */
+
+    public PackedBoard copy() {
+        return new PackedBoard(low, high);
+    }
+
+    /**
+     * Vacía todas las casillas.
+     */
+
+    public void clear() {
+        low = 0;
+        high = 0;
+    }
+
+    /**
+     * Calcula las casillas que tienen un número, comparando los 36 campos a la vez.
+     *
+     * @param digit El número, de 0 (casillas vacías) a 6.
+     * @return Una máscara con el bit {@code c} encendido para cada casilla {@code c} con ese número.
+     */
+
+    public long digitMask(int digit) {
+        return Long.compress(equalLanes(low, LOW_LANES, digit), LOW_LANES)
+                | Long.compress(equalLanes(high, HIGH_LANES, digit), HIGH_LANES) << LOW_CELLS;
+    }
+
+    /**
+     * @return El bit 0 de cada campo de 3 bits cuyo valor es {@code digit}.
+     */
+
+    private static long equalLanes(long word, long lanes, int digit) {
+        long diff = word ^ lanes * digit;
+        return lanes & ~(diff | diff >>> 1 | diff >>> 2);
+    }
+
+    /**
+     * @return El número de casillas vacías.
+     */
+
+    public int emptyCount() {
+        return Long.bitCount(digitMask(0));
+    }
+
+    /**
+     * Indica si ningún número se repite en una fila, columna o bloque; las casillas vacías no cuentan.
+     *
+     * @return true si el tablero no tiene conflictos.
+     */
+
+    public boolean isConsistent() {
+        for (int digit = 1; digit <= SIZE; digit++) {
+            long mask = digitMask(digit);
+            for (long unit : UNITS) {
+                long inUnit = mask & unit;
+                if ((inUnit & (inUnit - 1)) != 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return true si el tablero está completo y sin conflictos, es decir, es una solución.
+     */
+
+    public boolean isSolved() {
+        for (int digit = 1; digit <= SIZE; digit++) {
+            long mask = digitMask(digit);
+            for (long unit : UNITS) {
+                long inUnit = mask & unit;
+                if (inUnit == 0 || (inUnit & (inUnit - 1)) != 0) {
+                    return false; // Cada número debe estar exactamente una vez en cada unidad
+                }
+            }
+        }
+        return true;
+    }
+
+    public long getLow() {
+        return low;
+    }
+
+    public long getHigh() {
+        return high;
+    }
+
+    /**
+     * @return Un hash de 64 bits bien mezclado del contenido, apto para tablas y bosquejos.
+     */
+
+    public long hash64() {
+        return mix(low ^ mix(high + 0x9E3779B97F4A7C15L));
+    }
+
+    /**
+     * Mezclador de SplitMix64.
+     */
+
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof PackedBoard other && other.low == low && other.high == high;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) hash64();
+    }
+
+    /**
+     * Ordena por el contenido; el orden es estable pero no es el lexicográfico de las casillas.
+     */
+
+    @Override
+    public int compareTo(PackedBoard other) {
+        int c = Long.compareUnsigned(high, other.high);
+        return c != 0 ? c : Long.compareUnsigned(low, other.low);
+    }
+
+    /**
+     * @return Las 36 casillas en una línea, como en {@link BoardCodec}.
+     */
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(CELLS);
+        for (int cell = 0; cell < CELLS; cell++) {
+            sb.append((char) ('0' + get(cell)));
+        }
+        return sb.toString();
+    }
+}
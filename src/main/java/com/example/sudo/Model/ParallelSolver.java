@@ -0,0 +1,267 @@
+package com.example.sudo.Model;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.random.RandomGenerator;
+
+/**
+ * Motor de resolución que reparte el árbol de búsqueda entre los hilos de un {@link ForkJoinPool}.
+ * En los primeros niveles elige la casilla con menos candidatos (MRV) y crea una tarea por
+ * candidato, hasta tener unas {@value #TASKS_PER_THREAD} tareas por hilo; cada tarea final
+ * resuelve su rama con un {@link BitmaskSolver} propio del hilo. El robo de trabajo del pool
+ * equilibra las ramas desparejas.
+ * Al buscar una solución, la primera rama que la encuentra cancela a las demás; al contar, las
+ * ramas suman sus cuentas y se cancelan al alcanzar el límite. Cada rama pendiente guarda su tablero
+ * como una {@link BoardSnapshot}, un punto de control inmutable de unos pocos {@code long} (dos en
+ * 6x6) del que la subrama parte con {@link BoardSnapshot#with(int, int)}, en lugar de una copia de
+ * todas las casillas. Respeta la cancelación y el plazo
+ * del {@link SolveControl} asignado.
+ * Una instancia resuelve un tablero a la vez, pero puede usarse desde distintos hilos sucesivamente.
+ */
+
+public class ParallelSolver implements SudokuSolver {
+    private static final int TASKS_PER_THREAD = 32;
+
+    private final BoardGeometry geometry;
+    private final ForkJoinPool pool;
+    private final ThreadLocal<BitmaskSolver> leafSolvers;
+    private RandomGenerator random;
+    private SolveControl control;
+
+    /**
+     * Crea un motor que usa el pool común.
+     *
+     * @param geometry La geometría de los tableros a resolver.
+     */
+
+    public ParallelSolver(BoardGeometry geometry) {
+        this(geometry, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Crea un motor que reparte la búsqueda en el pool indicado.
+     *
+     * @param geometry La geometría de los tableros a resolver.
+     * @param pool     El pool de hilos.
+     */
+
+    public ParallelSolver(BoardGeometry geometry, ForkJoinPool pool) {
+        this.geometry = geometry;
+        this.pool = pool;
+        this.leafSolvers = ThreadLocal.withInitial(() -> new BitmaskSolver(geometry, null));
+    }
+
+    @Override
+    public boolean solve(int[][] board) {
+        Search search = new Search(true, 1);
+        if (!run(search, board)) {
+            return false;
+        }
+        int[][] solution = search.solution.get();
+        if (solution == null) {
+            return false;
+        }
+        for (int i = 0; i < board.length; i++) {
+            System.arraycopy(solution[i], 0, board[i], 0, board[i].length);
+        }
+        return true;
+    }
+
+    @Override
+    public long countSolutions(int[][] board, long limit) {
+        Search search = new Search(false, limit);
+        if (!run(search, board)) {
+            return 0;
+        }
+        return Math.min(search.count.get(), limit);
+    }
+
+    /**
+     * Establece el generador usado para mezclar el orden de las ramas repartidas. Las ramas se
+     * resuelven en orden ascendente. Solo se usa en el hilo que llama para sacar una semilla por
+     * búsqueda; cada rama mezcla a sus hijas con su propio {@link SplittableRandom} derivado de ella,
+     * así que el generador no necesita ser seguro entre hilos.
+     *
+     * @param random El generador, o null para un orden determinista.
+     */
+
+    @Override
+    public void setRandom(RandomGenerator random) {
+        this.random = random;
+    }
+
+    @Override
+    public void setControl(SolveControl control) {
+        this.control = control;
+    }
+
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * Carga el tablero y ejecuta la búsqueda en el pool.
+     *
+     * @return false si el tablero ya tiene un número repetido.
+     */
+
+    private boolean run(Search search, int[][] board) {
+        int[] cells = new int[geometry.getCellCount()];
+        for (int cell = 0; cell < cells.length; cell++) {
+            cells[cell] = board[geometry.cellRow[cell]][geometry.cellCol[cell]];
+        }
+        for (int cell = 0; cell < cells.length; cell++) {
+            int value = cells[cell];
+            if (value != 0) {
+                for (int peer : geometry.peers[cell]) {
+                    if (cells[peer] == value) {
+                        return false;
+                    }
+                }
+            }
+        }
+        long seed = random == null ? 0 : random.nextLong();
+        BoardSnapshot root = BoardSnapshot.of(geometry, cells);
+        pool.invoke(new Branch(search, root, pool.getParallelism() * TASKS_PER_THREAD, seed));
+        if (control != null) {
+            control.settle();
+        }
+        return true;
+    }
+
+    /**
+     * Estado compartido por todas las ramas de una búsqueda.
+     */
+
+    private final class Search {
+        final boolean first;
+        final long limit;
+        final SolveControl control;
+        final AtomicLong count = new AtomicLong();
+        final AtomicReference<int[][]> solution = new AtomicReference<>();
+
+        Search(boolean first, long limit) {
+            this.first = first;
+            this.limit = limit;
+            // Control interno: se cancela al terminar sin cancelar el del usuario
+            this.control = ParallelSolver.this.control == null
+                    ? new SolveControl()
+                    : new SolveControl(ParallelSolver.this.control);
+        }
+    }
+
+    /**
+     * Una rama del árbol: un tablero parcial que se reparte en subramas mientras quede presupuesto
+     * de tareas, y que se resuelve en secuencia al agotarlo.
+     */
+
+    private final class Branch extends RecursiveAction {
+        private final Search search;
+        private final BoardSnapshot checkpoint;
+        private final int budget;
+        private final long seed;
+
+        Branch(Search search, BoardSnapshot checkpoint, int budget, long seed) {
+            this.search = search;
+            this.checkpoint = checkpoint;
+            this.budget = budget;
+            this.seed = seed;
+        }
+
+        @Override
+        protected void compute() {
+            if (search.control.isCancelledUpstream() || search.control.isTimedOut()) {
+                return;
+            }
+            int[] cells = new int[geometry.getCellCount()];
+            checkpoint.copyTo(cells);
+            if (budget <= 1) {
+                leaf(cells);
+                return;
+            }
+            int cell;
+            int free;
+            int bestCount;
+            do {
+                cell = -1;
+                free = 0;
+                bestCount = Integer.MAX_VALUE;
+                for (int c = 0; c < cells.length; c++) {
+                    if (cells[c] != 0) {
+                        continue;
+                    }
+                    int used = 0;
+                    for (int peer : geometry.peers[c]) {
+                        if (cells[peer] != 0) {
+                            used |= 1 << (cells[peer] - 1);
+                        }
+                    }
+                    int candidates = geometry.getAllMask() & ~used;
+                    int count = Integer.bitCount(candidates);
+                    if (count < bestCount) {
+                        cell = c;
+                        free = candidates;
+                        bestCount = count;
+                        if (count <= 1) {
+                            break;
+                        }
+                    }
+                }
+                if (bestCount == 1) {
+                    cells[cell] = Integer.numberOfTrailingZeros(free) + 1; // Casilla forzada: se llena sin repartir
+                }
+            } while (bestCount == 1);
+            if (cell < 0 || bestCount == 0) {
+                leaf(cells); // Tablero completo o sin salida: el motor secuencial lo resuelve al instante
+                return;
+            }
+            BoardSnapshot base = BoardSnapshot.of(geometry, cells); // Incluye las casillas forzadas
+            Branch[] children = new Branch[bestCount];
+            SplittableRandom split = random == null ? null : new SplittableRandom(seed);
+            int n = 0;
+            while (free != 0) {
+                int bit = free & -free;
+                free ^= bit;
+                BoardSnapshot child = base.with(cell, Integer.numberOfTrailingZeros(bit) + 1);
+                children[n++] = new Branch(search, child, Math.max(1, budget / bestCount), split == null ? 0 : split.nextLong());
+            }
+            if (split != null) {
+                for (int i = n - 1; i > 0; i--) {
+                    int j = split.nextInt(i + 1);
+                    Branch tmp = children[i];
+                    children[i] = children[j];
+                    children[j] = tmp;
+                }
+            }
+            invokeAll(children);
+        }
+
+        /**
+         * Resuelve la rama en el hilo actual con el motor secuencial.
+         */
+
+        private void leaf(int[] cells) {
+            int size = geometry.getSize();
+            int[][] board = new int[size][size];
+            for (int cell = 0; cell < cells.length; cell++) {
+                board[geometry.cellRow[cell]][geometry.cellCol[cell]] = cells[cell];
+            }
+            BitmaskSolver solver = leafSolvers.get();
+            solver.setControl(new SolveControl(search.control));
+            if (search.first) {
+                if (solver.solve(board) && search.solution.compareAndSet(null, board)) {
+                    search.control.cancel(); // Detiene las demás ramas
+                }
+            } else {
+                long remaining = search.limit - search.count.get();
+                if (remaining > 0 && search.count.addAndGet(solver.countSolutions(board, remaining)) >= search.limit) {
+                    search.control.cancel();
+                }
+            }
+            solver.setControl(null);
+        }
+    }
+}
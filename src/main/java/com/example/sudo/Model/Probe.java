@@ -0,0 +1,83 @@
+package com.example.sudo.Model;
+
+/**
+ * Medición de una operación instrumentada: emite su evento de Flight Recorder y la suma a su
+ * estadística del {@link MetricsRegistry}. Se crea solo si alguno de los dos está activo, así que
+ * una operación sin observar no mide el tiempo ni cuenta nodos.
+ */
+
+final class Probe {
+    private final SearchEvent event;
+    private final MetricsRegistry.Stat stat;
+    private final long start;
+
+    private Probe(SearchEvent event, MetricsRegistry.Stat stat) {
+        this.event = event;
+        this.stat = stat;
+        event.begin();
+        this.start = System.nanoTime();
+    }
+
+    /**
+     * Empieza a medir una operación.
+     *
+     * @param event El evento de la operación, recién creado.
+     * @param stat  La estadística de la operación.
+     * @return La medición, o null si ni Flight Recorder ni el registro están observando.
+     */
+
+    static Probe start(SearchEvent event, MetricsRegistry.Stat stat) {
+        if (!event.isEnabled() && !MetricsRegistry.global().isEnabled()) {
+            return null;
+        }
+        return new Probe(event, stat);
+    }
+
+    /**
+     * @return El evento, para completar sus campos propios antes de {@link #stop}.
+     */
+
+    SearchEvent event() {
+        return event;
+    }
+
+    /**
+     * Termina la medición y la registra.
+     *
+     * @param engine     El motor usado.
+     * @param clues      Las pistas del tablero.
+     * @param nodes      Los nodos visitados.
+     * @param backtracks Los retrocesos.
+     */
+
+    void stop(String engine, int clues, long nodes, long backtracks) {
+        event.end();
+        long elapsed = System.nanoTime() - start;
+        if (event.shouldCommit()) {
+            event.engine = engine;
+            event.clues = clues;
+            event.nodes = nodes;
+            event.backtracks = backtracks;
+            event.commit();
+        }
+        if (MetricsRegistry.global().isEnabled()) {
+            stat.record(elapsed, nodes, backtracks, clues);
+        }
+    }
+
+    /**
+     * @return El número de casillas con un número distinto de 0.
+     */
+
+    static int countClues(int[][] board) {
+        int clues = 0;
+        for (int[] row : board) {
+            for (int value : row) {
+                if (value != 0) {
+                    clues++;
+                }
+            }
+        }
+        return clues;
+    }
+}
@@ -0,0 +1,253 @@
+package com.example.sudo.Model;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Generador de Sudokus con solución única.
+ * Construye un tablero completo aleatorio y luego quita pistas en orden aleatorio,
+ * devolviendo cada una a su casilla si al quitarla el tablero deja de tener una sola solución.
+ * La unicidad se comprueba con un contador que se detiene al encontrar la segunda solución y que
+ * explora como mucho {@link #getCountBudget()} nodos por pista; si se agota, la pista se deja, así
+ * que en tableros grandes (16x16, 25x25) la generación termina aunque deje más pistas.
+ * Lleva la cuenta de tableros generados y del tiempo empleado para informar del rendimiento.
+ * Una instancia no es segura para usarse desde varios hilos a la vez.
+ */
+
+public class PuzzleGenerator {
+    /**
+     * Nodos por comprobación de unicidad: sobra en 6x6 y 9x9, donde cada una explora unos cientos.
+     */
+    public static final long DEFAULT_COUNT_BUDGET = 1 << 16;
+
+    private static final MetricsRegistry.Stat REMOVE_STAT = MetricsRegistry.global().stat("generator.removeClues");
+
+    private final BoardGeometry geometry;
+    private RandomGenerator random;
+    private final SudokuSolver filler;
+    private final SudokuSolver counter;
+    private final int[] cellOrder;
+    private GridStore grids;
+    private SolveControl control;
+    private int targetClues;
+    private long countBudget = DEFAULT_COUNT_BUDGET;
+
+    /**
+     * Crea un generador que usa {@link BitmaskSolver} para llenar el tablero y para contar soluciones.
+     *
+     * @param geometry La geometría de los tableros a generar.
+     * @param random   El generador aleatorio.
+     */
+
+    public PuzzleGenerator(BoardGeometry geometry, RandomGenerator random) {
+        this(geometry, random, new BitmaskSolver(geometry, null));
+    }
+
+    /**
+     * Crea un generador con un motor concreto para contar soluciones.
+     *
+     * @param geometry La geometría de los tableros a generar.
+     * @param random   El generador aleatorio.
+     * @param counter  El motor usado para comprobar la unicidad.
+     */
+
+    public PuzzleGenerator(BoardGeometry geometry, RandomGenerator random, SudokuSolver counter) {
+        this.geometry = geometry;
+        this.random = random;
+        this.filler = new BitmaskSolver(geometry, random);
+        this.counter = counter;
+        this.cellOrder = new int[geometry.getCellCount()];
+        for (int cell = 0; cell < cellOrder.length; cell++) {
+            cellOrder[cell] = cell;
+        }
+    }
+
+    /**
+     * Genera un tablero con solución única.
+     *
+     * @param puzzle   La matriz donde se escriben las pistas (0 en las casillas vacías).
+     * @param solution La matriz donde se escribe la solución completa.
+     * @return El número de pistas del tablero generado.
+     */
+
+    public int generate(int[][] puzzle, int[][] solution) {
+        if (grids != null) {
+            grids.randomGrid(random, solution); // Una solución de la tabla, sin búsqueda
+        } else {
+            for (int[] row : solution) {
+                Arrays.fill(row, 0);
+            }
+            filler.solve(solution);
+        }
+        for (int i = 0; i < solution.length; i++) {
+            System.arraycopy(solution[i], 0, puzzle[i], 0, solution[i].length);
+        }
+        return removeClues(puzzle);
+    }
+
+    /**
+     * Quita pistas de un tablero con solución única mientras la solución siga siendo única,
+     * sin bajar de {@link #getTargetClues()} pistas. Emite un evento {@code com.example.sudo.ClueRemoval}
+     * de Flight Recorder cuando se está grabando.
+     *
+     * @param board El tablero a vaciar; debe tener exactamente una solución.
+     * @return El número de pistas que quedan.
+     */
+
+    public int removeClues(int[][] board) {
+        Probe probe = Probe.start(new ClueRemovalEvent(), REMOVE_STAT);
+        if (probe == null) {
+            return hideClues(board, control);
+        }
+        // Los nodos se cuentan con el control del generador si hay uno, o con uno propio
+        SolveControl counted = control != null ? control : new SolveControl();
+        long nodes = counted.getNodes();
+        long backtracks = counted.getBacktracks();
+        int clues;
+        try {
+            clues = hideClues(board, counted);
+        } finally {
+            counter.setControl(control);
+        }
+        probe.stop(getEngineName(), clues, counted.getNodes() - nodes, counted.getBacktracks() - backtracks);
+        return clues;
+    }
+
+    /**
+     * Quita las pistas; cada conteo usa un control propio, hijo de {@code parent}, con el máximo de
+     * nodos. Si el padre se cancela o se le acaba el plazo, deja de quitar pistas: el tablero sigue
+     * teniendo solución única porque cada pista quitada se comprobó por completo.
+     */
+
+    private int hideClues(int[][] board, SolveControl parent) {
+        int clues = Probe.countClues(board);
+        shuffleCells();
+        for (int cell : cellOrder) {
+            if (clues <= targetClues) {
+                break;
+            }
+            int row = geometry.row(cell);
+            int col = geometry.col(cell);
+            int value = board[row][col];
+            if (value == 0) {
+                continue;
+            }
+            board[row][col] = 0;
+            SolveControl step = new SolveControl(parent, countBudget);
+            counter.setControl(step);
+            if (counter.countSolutions(board, 2) == 1 && !step.isStopped()) {
+                clues--;
+            } else {
+                board[row][col] = value; // La pista es necesaria para la unicidad, o no se pudo comprobar
+                if (parent != null && (parent.isCancelledUpstream() || parent.isTimedOut())) {
+                    break;
+                }
+            }
+        }
+        counter.setControl(parent);
+        return clues;
+    }
+
+    private void shuffleCells() {
+        for (int i = cellOrder.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = cellOrder[i];
+            cellOrder[i] = cellOrder[j];
+            cellOrder[j] = tmp;
+        }
+    }
+
+    /**
+     * Cambia el generador aleatorio de los tableros siguientes y reinicia el orden en que se quitan
+     * las pistas, así que el tablero siguiente depende solo del estado del generador y no de los
+     * tableros generados antes. {@link PuzzleStream} lo usa para dar a cada tablero su propio generador.
+     *
+     * @param random El generador aleatorio.
+     */
+
+    public void setRandom(RandomGenerator random) {
+        this.random = random;
+        filler.setRandom(random);
+        for (int cell = 0; cell < cellOrder.length; cell++) {
+            cellOrder[cell] = cell;
+        }
+    }
+
+    /**
+     * @return El número mínimo de pistas que el generador deja en el tablero.
+     */
+
+    public int getTargetClues() {
+        return targetClues;
+    }
+
+    /**
+     * Establece el número mínimo de pistas a dejar. Con 0 se quitan todas las que se puedan
+     * sin perder la unicidad.
+     *
+     * @param targetClues El número mínimo de pistas.
+     */
+
+    public void setTargetClues(int targetClues) {
+        this.targetClues = targetClues;
+    }
+
+    /**
+     * @return El máximo de nodos de cada comprobación de unicidad al quitar pistas.
+     */
+
+    public long getCountBudget() {
+        return countBudget;
+    }
+
+    /**
+     * Establece el máximo de nodos de cada comprobación de unicidad. Una comprobación que lo agota
+     * deja la pista en el tablero.
+     *
+     * @param countBudget El máximo de nodos, o {@link Long#MAX_VALUE} para comprobar sin límite.
+     */
+
+    public void setCountBudget(long countBudget) {
+        this.countBudget = countBudget;
+    }
+
+    /**
+     * Usa la tabla de soluciones de 6x6 para elegir la solución completa de cada tablero en lugar
+     * de construirla por búsqueda. La unicidad se sigue comprobando con el contador.
+     *
+     * @param grids La tabla, o null para construir la solución por búsqueda.
+     * @throws IllegalArgumentException Si el generador no es de 6x6.
+     */
+
+    public void setGridStore(GridStore grids) {
+        if (grids != null && geometry != BoardGeometry.SIZE_6) {
+            throw new IllegalArgumentException("La tabla de soluciones solo sirve para 6x6, no para " + geometry);
+        }
+        this.grids = grids;
+    }
+
+    /**
+     * Establece el control de las búsquedas siguientes, tanto al llenar la solución como al
+     * comprobar la unicidad; permite contar sus nodos y retrocesos.
+     *
+     * @param control El control, o null para buscar sin restricciones.
+     */
+
+    public void setControl(SolveControl control) {
+        this.control = control;
+        filler.setControl(control);
+        counter.setControl(control);
+    }
+
+    /**
+     * @return El nombre del motor que comprueba la unicidad, para la telemetría.
+     */
+
+    public String getEngineName() {
+        return counter.getClass().getSimpleName();
+    }
+
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+}
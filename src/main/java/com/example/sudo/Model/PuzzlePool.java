@@ -0,0 +1,170 @@
+package com.example.sudo.Model;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reserva de partidas pregeneradas, acotada por nivel de dificultad.
+ * Hilos virtuales en segundo plano mantienen cada reserva llena; {@link #take(Difficulty)} entrega
+ * una partida lista sin generar nada en el hilo que la pide, salvo que la reserva esté vacía
+ * (un fallo), en cuyo caso la genera en el momento. Expone aciertos y fallos para medir si la
+ * capacidad alcanza, y cuántas partidas genera y a qué ritmo. Es segura para usarse desde varios hilos.
+ */
+
+public class PuzzlePool implements AutoCloseable {
+    private final BoardGeometry geometry;
+    private final Map<Difficulty, BlockingQueue<GeneratedPuzzle>> queues = new EnumMap<>(Difficulty.class);
+    private final Map<Difficulty, AtomicBoolean> refilling = new EnumMap<>(Difficulty.class);
+    private final ExecutorService refillers = Executors.newVirtualThreadPerTaskExecutor();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder generated = new LongAdder();
+    private final LongAdder generationNanos = new LongAdder();
+
+    /**
+     * Crea la reserva y empieza a llenarla para todos los niveles.
+     *
+     * @param geometry La geometría de las partidas.
+     * @param capacity El número máximo de partidas guardadas por nivel.
+     */
+
+    public PuzzlePool(BoardGeometry geometry, int capacity) {
+        this.geometry = geometry;
+        for (Difficulty difficulty : Difficulty.values()) {
+            queues.put(difficulty, new ArrayBlockingQueue<>(capacity));
+            refilling.put(difficulty, new AtomicBoolean());
+            refill(difficulty);
+        }
+    }
+
+    /**
+     * Entrega una partida del nivel indicado y pide que se reponga en segundo plano.
+     *
+     * @param difficulty El nivel de dificultad.
+     * @return Una partida con solución única.
+     */
+
+    public GeneratedPuzzle take(Difficulty difficulty) {
+        GeneratedPuzzle puzzle = queues.get(difficulty).poll();
+        if (puzzle != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            puzzle = generate(new PuzzleGenerator(geometry, new SplittableRandom()), difficulty);
+        }
+        refill(difficulty);
+        return puzzle;
+    }
+
+    /**
+     * Lanza un hilo virtual que llena la reserva del nivel, si no hay ya uno trabajando en ella.
+     */
+
+    private void refill(Difficulty difficulty) {
+        AtomicBoolean running = refilling.get(difficulty);
+        if (refillers.isShutdown() || !running.compareAndSet(false, true)) {
+            return;
+        }
+        refillers.execute(() -> {
+            BlockingQueue<GeneratedPuzzle> queue = queues.get(difficulty);
+            PuzzleGenerator generator = new PuzzleGenerator(geometry, new SplittableRandom());
+            try {
+                while (queue.remainingCapacity() > 0 && !Thread.currentThread().isInterrupted()) {
+                    if (!queue.offer(generate(generator, difficulty))) {
+                        break;
+                    }
+                }
+            } finally {
+                running.set(false);
+            }
+            // Un take() entre la última comprobación y set(false) no pudo lanzar otro hilo
+            if (queue.remainingCapacity() > 0) {
+                refill(difficulty);
+            }
+        });
+    }
+
+    private GeneratedPuzzle generate(PuzzleGenerator generator, Difficulty difficulty) {
+        int size = geometry.getSize();
+        int[][] puzzle = new int[size][size];
+        int[][] solution = new int[size][size];
+        generator.setTargetClues(difficulty.targetClues(geometry));
+        long start = System.nanoTime();
+        generator.generate(puzzle, solution);
+        generationNanos.add(System.nanoTime() - start);
+        generated.increment();
+        return new GeneratedPuzzle(puzzle, solution, difficulty);
+    }
+
+    /**
+     * @return El número de partidas listas para el nivel indicado.
+     */
+
+    public int available(Difficulty difficulty) {
+        return queues.get(difficulty).size();
+    }
+
+    /**
+     * @return Las partidas entregadas directamente desde la reserva.
+     */
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return Las partidas que hubo que generar en el momento porque la reserva estaba vacía.
+     */
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return La proporción de aciertos, entre 0 y 1, o 0 si aún no se pidió ninguna partida.
+     */
+
+    public double getHitRatio() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    /**
+     * @return Las partidas generadas, tanto para llenar la reserva como por fallos.
+     */
+
+    public long getGeneratedCount() {
+        return generated.sum();
+    }
+
+    /**
+     * @return El rendimiento de generación en partidas por segundo de un hilo, o 0 si aún no se
+     * generó ninguna.
+     */
+
+    public double getPuzzlesPerSecond() {
+        long nanos = generationNanos.sum();
+        return nanos == 0 ? 0 : generated.sum() * 1_000_000_000.0 / nanos;
+    }
+
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * Detiene los hilos de reposición.
+     */
+
+    @Override
+    public void close() {
+        refillers.shutdownNow();
+    }
+}
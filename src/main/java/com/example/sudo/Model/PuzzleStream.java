@@ -0,0 +1,183 @@
+package com.example.sudo.Model;
+
+import java.util.SplittableRandom;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Secuencia reproducible de partidas generadas a partir de una semilla.
+ * La partida número {@code i} se genera con su propio {@link SplittableRandom}, sembrado con una
+ * mezcla de la semilla y de {@code i}, así que no depende de las partidas anteriores: se puede
+ * saltar a cualquier posición, repartir un rango entre hilos con {@link #stream(long, long)} en
+ * paralelo o entre varias JVM con rangos disjuntos, y la salida es la misma para una semilla dada.
+ * Cada {@link Spliterator} usa su propio {@link PuzzleGenerator}, así que los hilos no comparten
+ * estado. La secuencia en sí no se modifica después de configurarla y puede compartirse entre hilos.
+ */
+
+public final class PuzzleStream {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final BoardGeometry geometry;
+    private final Difficulty difficulty;
+    private final long seed;
+    private GridStore grids;
+    private SolveControl control;
+
+    /**
+     * @param geometry   La geometría de las partidas.
+     * @param difficulty El nivel de dificultad de todas las partidas.
+     * @param seed       La semilla de la secuencia.
+     */
+
+    public PuzzleStream(BoardGeometry geometry, Difficulty difficulty, long seed) {
+        this.geometry = geometry;
+        this.difficulty = difficulty;
+        this.seed = seed;
+    }
+
+    /**
+     * Usa la tabla de soluciones de 6x6 para elegir las soluciones. Cambia las partidas generadas,
+     * así que todas las partes de un mismo trabajo deben usarla o no usarla.
+     *
+     * @param grids La tabla, o null para construir las soluciones por búsqueda.
+     * @throws IllegalArgumentException Si la secuencia no es de 6x6.
+     */
+
+    public void setGridStore(GridStore grids) {
+        if (grids != null && geometry != BoardGeometry.SIZE_6) {
+            throw new IllegalArgumentException("La tabla de soluciones solo sirve para 6x6, no para " + geometry);
+        }
+        this.grids = grids;
+    }
+
+    /**
+     * Establece el control de las búsquedas de todas las partidas, por ejemplo para darles un plazo
+     * común. Un control no se puede usar desde varios hilos a la vez, así que con un control la
+     * secuencia debe recorrerse en un solo hilo. Una partida generada después de que el control se
+     * detuvo puede estar incompleta; quien lo asigna debe comprobar {@link SolveControl#isStopped()}.
+     *
+     * @param control El control, o null para buscar sin restricciones.
+     */
+
+    public void setControl(SolveControl control) {
+        this.control = control;
+    }
+
+    /**
+     * @return La partida de una posición de la secuencia.
+     */
+
+    public GeneratedPuzzle get(long index) {
+        GeneratedPuzzle[] out = new GeneratedPuzzle[1];
+        spliterator(index, index + 1).tryAdvance(puzzle -> out[0] = puzzle);
+        return out[0];
+    }
+
+    /**
+     * Crea un flujo secuencial de las partidas de un rango; con {@link Stream#parallel()} el rango se
+     * reparte entre los hilos del pool común sin cambiar el resultado.
+     *
+     * @param from La primera posición, incluida.
+     * @param to   La última posición, excluida.
+     * @return El flujo, en orden de posición.
+     */
+
+    public Stream<GeneratedPuzzle> stream(long from, long to) {
+        return StreamSupport.stream(spliterator(from, to), false);
+    }
+
+    /**
+     * @param from La primera posición, incluida.
+     * @param to   La última posición, excluida.
+     * @return Un recorrido de las partidas de un rango.
+     * @throws IllegalArgumentException Si el rango es negativo.
+     */
+
+    public Spliterator<GeneratedPuzzle> spliterator(long from, long to) {
+        if (from < 0 || to < from) {
+            throw new IllegalArgumentException("Rango no válido: [" + from + ", " + to + ")");
+        }
+        return new Range(from, to);
+    }
+
+    /**
+     * @return La semilla del generador de la partida de una posición.
+     */
+
+    public long seedFor(long index) {
+        return PackedBoard.mix(seed + (index + 1) * GOLDEN_GAMMA);
+    }
+
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Un rango de posiciones. El generador se crea al avanzar por primera vez, en el hilo que
+     * recorre el rango, y las mitades que se separan con {@link #trySplit()} crean el suyo.
+     */
+
+    private final class Range implements Spliterator<GeneratedPuzzle> {
+        private long next;
+        private final long end;
+        private PuzzleGenerator generator;
+        private int[][] puzzle;
+        private int[][] solution;
+
+        Range(long next, long end) {
+            this.next = next;
+            this.end = end;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super GeneratedPuzzle> action) {
+            if (next >= end) {
+                return false;
+            }
+            if (generator == null) {
+                int size = geometry.getSize();
+                generator = new PuzzleGenerator(geometry, null);
+                generator.setGridStore(grids);
+                generator.setTargetClues(difficulty.targetClues(geometry));
+                generator.setControl(control);
+                puzzle = new int[size][size];
+                solution = new int[size][size];
+            }
+            generator.setRandom(new SplittableRandom(seedFor(next++)));
+            generator.generate(puzzle, solution);
+            action.accept(new GeneratedPuzzle(puzzle, solution, difficulty));
+            return true;
+        }
+
+        @Override
+        public Spliterator<GeneratedPuzzle> trySplit() {
+            long mid = (next + end) >>> 1;
+            if (mid <= next) {
+                return null;
+            }
+            Range prefix = new Range(next, mid);
+            next = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - next;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+        }
+    }
+}
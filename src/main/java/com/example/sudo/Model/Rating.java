@@ -0,0 +1,94 @@
+package com.example.sudo.Model;
+
+/**
+ * Resultado de calificar un tablero con el {@link LogicalSolver}: cuántas veces hizo falta
+ * cada técnica, la más difícil de ellas y un puntaje que suma los pesos de todos los pasos.
+ */
+
+public final class Rating {
+    private final boolean solved;
+    private final boolean consistent;
+    private final int[] counts;
+    private final int score;
+    private final Technique hardest;
+
+    Rating(boolean solved, boolean consistent, int[] counts) {
+        this.solved = solved;
+        this.consistent = consistent;
+        this.counts = counts;
+        int score = 0;
+        Technique hardest = null;
+        for (Technique technique : Technique.values()) {
+            int n = counts[technique.ordinal()];
+            score += n * technique.getWeight();
+            if (n > 0) {
+                hardest = technique;
+            }
+        }
+        this.score = score;
+        this.hardest = hardest;
+    }
+
+    /**
+     * @return true si las técnicas bastaron para completar el tablero, sin adivinar.
+     */
+
+    public boolean isSolved() {
+        return solved;
+    }
+
+    /**
+     * @return false si el tablero tiene números repetidos o la lógica llegó a una contradicción.
+     */
+
+    public boolean isConsistent() {
+        return consistent;
+    }
+
+    /**
+     * @return Cuántos pasos usaron la técnica indicada.
+     */
+
+    public int getCount(Technique technique) {
+        return counts[technique.ordinal()];
+    }
+
+    /**
+     * @return La suma de los pesos de todos los pasos aplicados.
+     */
+
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * @return La técnica más difícil que hizo falta, o null si no se aplicó ninguna.
+     */
+
+    public Technique getHardest() {
+        return hardest;
+    }
+
+    /**
+     * Clasifica el tablero: fácil si bastan los singles, media si además hacen falta
+     * interacciones entre bloques y líneas, y difícil si necesita subconjuntos o no se resuelve
+     * solo con lógica.
+     *
+     * @return El nivel de dificultad.
+     */
+
+    public Difficulty getDifficulty() {
+        if (!solved) {
+            return Difficulty.HARD;
+        }
+        if (hardest == null || hardest.compareTo(Technique.NAKED_SINGLE) <= 0) {
+            return Difficulty.EASY;
+        }
+        return hardest.compareTo(Technique.BOX_LINE) <= 0 ? Difficulty.MEDIUM : Difficulty.HARD;
+    }
+
+    @Override
+    public String toString() {
+        return "Rating{score=" + score + ", hardest=" + hardest + ", solved=" + solved + "}";
+    }
+}
@@ -0,0 +1,300 @@
+package com.example.sudo.Model;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Partida guardada: las pistas, la solución, los números del jugador y cuáles reveló una pista, las
+ * notas a lápiz, el tiempo jugado y la historia para deshacer, tal como los deja {@link Sudoku#save()}.
+ * El archivo es binario y compacto: una cabecera ({@code SDSV}, versión y tamaño del tablero), los
+ * tres tableros empaquetados como en {@link BoardSnapshot} (dos {@code long} cada uno en 6x6), las
+ * notas de las casillas que tienen, las casillas reveladas, las jugadas de la historia a un
+ * {@code int} cada una, las bifurcaciones abiertas y al final un CRC32C de todo lo anterior. Una partida de 6x6 recién empezada
+ * ocupa menos de 100 bytes.
+ * Se escribe en un archivo temporal que luego reemplaza al anterior, así que un corte a mitad de la
+ * escritura no deja una partida a medias.
+ */
+
+public final class SavedGame {
+    private static final int MAGIC = 0x53445356; // "SDSV"
+    private static final int VERSION = 1;
+    private static final int MAX_FILE_SIZE = 64 << 20;
+
+    private final BoardGeometry geometry;
+    private final BoardSnapshot clues;
+    private final BoardSnapshot solution;
+    private final BoardSnapshot values;
+    private final int[] marks;
+    private final boolean[] given;
+    private final long elapsedMillis;
+    private final int[] moves;
+    private final int position;
+    private final int[] branchPositions;
+    private final BoardSnapshot[] branchSnapshots;
+
+    SavedGame(BoardSnapshot clues, BoardSnapshot solution, BoardSnapshot values, int[] marks, boolean[] given,
+              long elapsedMillis, int[] moves, int position, int[] branchPositions, BoardSnapshot[] branchSnapshots) {
+        this.geometry = clues.getGeometry();
+        this.clues = clues;
+        this.solution = solution;
+        this.values = values;
+        this.marks = marks;
+        this.given = given;
+        this.elapsedMillis = elapsedMillis;
+        this.moves = moves;
+        this.position = position;
+        this.branchPositions = branchPositions;
+        this.branchSnapshots = branchSnapshots;
+    }
+
+    /**
+     * Lee una partida guardada y comprueba su suma de verificación.
+     *
+     * @param file El archivo.
+     * @return La partida.
+     * @throws IOException Si no se puede leer, no es una partida guardada o está dañada.
+     */
+
+    public static SavedGame read(Path file) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < 20 || length > MAX_FILE_SIZE) {
+                throw new IOException("No es una partida guardada: " + file);
+            }
+            buffer = ByteBuffer.allocate((int) length);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // Lee hasta llenar el buffer
+            }
+        }
+        buffer.flip();
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), 0, buffer.limit() - Integer.BYTES);
+        if ((int) crc.getValue() != buffer.getInt(buffer.limit() - Integer.BYTES)) {
+            throw new IOException("Partida guardada dañada: " + file);
+        }
+        buffer.limit(buffer.limit() - Integer.BYTES);
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("No es una partida guardada: " + file);
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException("Versión de partida guardada no soportada: " + version);
+        }
+        try {
+            return decode(buffer);
+        } catch (IllegalArgumentException | BufferUnderflowException
+                 | NegativeArraySizeException | IndexOutOfBoundsException e) {
+            throw new IOException("Partida guardada dañada: " + file, e);
+        }
+    }
+
+    private static SavedGame decode(ByteBuffer buffer) throws IOException {
+        BoardGeometry geometry = BoardGeometry.of(buffer.getInt());
+        long elapsedMillis = buffer.getLong();
+        BoardSnapshot clues = readBoard(buffer, geometry);
+        BoardSnapshot solution = readBoard(buffer, geometry);
+        BoardSnapshot values = readBoard(buffer, geometry);
+        int[] marks = new int[geometry.getCellCount()];
+        int markCount = buffer.getInt();
+        for (int i = 0; i < markCount; i++) {
+            int cell = buffer.getInt();
+            marks[cell] = buffer.getInt() & geometry.getAllMask();
+        }
+        boolean[] given = new boolean[geometry.getCellCount()];
+        int givenCount = checkCount(buffer.getInt(), geometry.getCellCount());
+        for (int i = 0; i < givenCount; i++) {
+            int cell = buffer.getInt();
+            if (cell < 0 || cell >= given.length || values.get(cell) == 0) {
+                throw new IOException("Casilla revelada vacía en la partida guardada");
+            }
+            given[cell] = true;
+        }
+        int[] moves = new int[checkCount(buffer.getInt(), buffer.remaining() / Integer.BYTES)];
+        int position = buffer.getInt();
+        buffer.asIntBuffer().get(moves);
+        buffer.position(buffer.position() + moves.length * Integer.BYTES);
+        for (int move : moves) {
+            if (!GameHistory.isValidMove(geometry, move)) {
+                throw new IOException("Jugada inválida en la partida guardada");
+            }
+        }
+        if (position < 0 || position > moves.length) {
+            throw new IOException("Posición inválida en la partida guardada");
+        }
+        int branchCount = checkCount(buffer.getInt(), buffer.remaining() / Integer.BYTES);
+        int[] branchPositions = new int[branchCount];
+        BoardSnapshot[] branchSnapshots = new BoardSnapshot[branchCount];
+        for (int i = 0; i < branchCount; i++) {
+            branchPositions[i] = buffer.getInt();
+            if (branchPositions[i] < 0 || branchPositions[i] > position) {
+                throw new IOException("Bifurcación inválida en la partida guardada");
+            }
+            branchSnapshots[i] = readBoard(buffer, geometry);
+        }
+        if (buffer.hasRemaining()) {
+            throw new IOException("Datos de más en la partida guardada");
+        }
+        return new SavedGame(clues, solution, values, marks, given, elapsedMillis, moves, position,
+                branchPositions, branchSnapshots);
+    }
+
+    /**
+     * Escribe la partida, reemplazando el archivo si existe.
+     *
+     * @param file El archivo de destino.
+     * @throws IOException Si falla la escritura.
+     */
+
+    public void write(Path file) throws IOException {
+        int words = BoardSnapshot.wordCount(geometry);
+        int markCount = 0;
+        for (int mark : marks) {
+            if (mark != 0) {
+                markCount++;
+            }
+        }
+        int givenCount = 0;
+        for (boolean cell : given) {
+            if (cell) {
+                givenCount++;
+            }
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(3 * Integer.BYTES + Long.BYTES + 3 * words * Long.BYTES
+                + Integer.BYTES + markCount * 2 * Integer.BYTES
+                + Integer.BYTES + givenCount * Integer.BYTES
+                + 2 * Integer.BYTES + moves.length * Integer.BYTES
+                + Integer.BYTES + branchPositions.length * (Integer.BYTES + words * Long.BYTES)
+                + Integer.BYTES);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(geometry.getSize()).putLong(elapsedMillis);
+        writeBoard(buffer, clues);
+        writeBoard(buffer, solution);
+        writeBoard(buffer, values);
+        buffer.putInt(markCount);
+        for (int cell = 0; cell < marks.length; cell++) {
+            if (marks[cell] != 0) {
+                buffer.putInt(cell).putInt(marks[cell]);
+            }
+        }
+        buffer.putInt(givenCount);
+        for (int cell = 0; cell < given.length; cell++) {
+            if (given[cell]) {
+                buffer.putInt(cell);
+            }
+        }
+        buffer.putInt(moves.length).putInt(position);
+        for (int move : moves) {
+            buffer.putInt(move);
+        }
+        buffer.putInt(branchPositions.length);
+        for (int i = 0; i < branchPositions.length; i++) {
+            buffer.putInt(branchPositions[i]);
+            writeBoard(buffer, branchSnapshots[i]);
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static BoardSnapshot readBoard(ByteBuffer buffer, BoardGeometry geometry) throws IOException {
+        long[] words = new long[BoardSnapshot.wordCount(geometry)];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = buffer.getLong();
+        }
+        BoardSnapshot board = new BoardSnapshot(geometry, words);
+        for (int cell = 0; cell < geometry.getCellCount(); cell++) {
+            if (board.get(cell) > geometry.getSize()) {
+                throw new IOException("Número inválido en la partida guardada");
+            }
+        }
+        return board;
+    }
+
+    private static void writeBoard(ByteBuffer buffer, BoardSnapshot board) {
+        for (int i = 0; i < board.getWordCount(); i++) {
+            buffer.putLong(board.word(i));
+        }
+    }
+
+    private static int checkCount(int count, int max) throws IOException {
+        if (count < 0 || count > max) {
+            throw new IOException("Longitud inválida en la partida guardada");
+        }
+        return count;
+    }
+
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * @return El tiempo jugado hasta que se guardó, en milisegundos.
+     */
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    BoardSnapshot getClues() {
+        return clues;
+    }
+
+    BoardSnapshot getSolution() {
+        return solution;
+    }
+
+    BoardSnapshot getValues() {
+        return values;
+    }
+
+    int[] getMarks() {
+        return marks;
+    }
+
+    /**
+     * @return Qué casillas reveló una pista o una solución aplicada.
+     */
+
+    boolean[] getGiven() {
+        return given;
+    }
+
+    int[] getMoves() {
+        return moves;
+    }
+
+    int getPosition() {
+        return position;
+    }
+
+    int[] getBranchPositions() {
+        return branchPositions;
+    }
+
+    BoardSnapshot[] getBranchSnapshots() {
+        return branchSnapshots;
+    }
+}
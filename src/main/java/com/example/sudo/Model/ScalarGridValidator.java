@@ -0,0 +1,64 @@
+package com.example.sudo.Model;
+
+import java.util.Arrays;
+
+/**
+ * Validador por lotes sin la API de vectores. Recorre el lote unidad por unidad y, dentro de cada
+ * una, los tableros en orden, así que lee la memoria de forma secuencial como la versión vectorial.
+ * También valida la cola de tableros que no llena un vector completo en {@link VectorGridValidator}.
+ */
+
+public final class ScalarGridValidator implements GridValidator {
+    static final int FULL = 0b1111110; // Los bits de los números 1 a 6
+    static final int[][] UNITS = new int[BoardGeometry.SIZE_6.getUnitCount()][];
+
+    static {
+        for (int unit = 0; unit < UNITS.length; unit++) {
+            UNITS[unit] = BoardGeometry.SIZE_6.unitCells(unit);
+        }
+    }
+
+    @Override
+    public int validate(GridBatch batch, boolean[] valid) {
+        return validateRange(batch, 0, batch.size(), valid);
+    }
+
+    @Override
+    public String getName() {
+        return "escalar";
+    }
+
+    /**
+     * Valida los tableros de un rango del lote.
+     *
+     * @return El número de tableros válidos en el rango.
+     */
+
+    static int validateRange(GridBatch batch, int from, int to, boolean[] valid) {
+        byte[] cells = batch.cells();
+        int capacity = batch.getCapacity();
+        Arrays.fill(valid, from, to, true);
+        for (int[] unit : UNITS) {
+            int a = unit[0] * capacity;
+            int b = unit[1] * capacity;
+            int c = unit[2] * capacity;
+            int d = unit[3] * capacity;
+            int e = unit[4] * capacity;
+            int f = unit[5] * capacity;
+            for (int grid = from; grid < to; grid++) {
+                int seen = 1 << cells[a + grid] | 1 << cells[b + grid] | 1 << cells[c + grid]
+                        | 1 << cells[d + grid] | 1 << cells[e + grid] | 1 << cells[f + grid];
+                if (seen != FULL) {
+                    valid[grid] = false;
+                }
+            }
+        }
+        int count = 0;
+        for (int grid = from; grid < to; grid++) {
+            if (valid[grid]) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
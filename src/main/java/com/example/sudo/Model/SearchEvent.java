@@ -0,0 +1,30 @@
+package com.example.sudo.Model;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Base de los eventos de Flight Recorder de las operaciones del modelo. La duración la mide el propio
+ * evento; los campos describen el trabajo hecho. Se graban con, por ejemplo,
+ * {@code java -XX:StartFlightRecording:filename=sudo.jfr ...} y se ven en JDK Mission Control
+ * bajo la categoría Sudoku.
+ */
+
+@Category("Sudoku")
+@StackTrace(false)
+abstract class SearchEvent extends Event {
+
+    @Label("Motor")
+    String engine;
+
+    @Label("Pistas")
+    int clues;
+
+    @Label("Nodos")
+    long nodes;
+
+    @Label("Retrocesos")
+    long backtracks;
+}
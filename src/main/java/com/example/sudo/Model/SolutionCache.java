@@ -0,0 +1,341 @@
+package com.example.sudo.Model;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caché concurrente y acotada de soluciones y cuentas de soluciones de tableros de 6x6, indexada por
+ * la forma canónica del tablero (ver {@link Canonicalizer}), así que un tablero equivalente por
+ * simetría a otro ya resuelto es un acierto.
+ * Las entradas se reparten en {@value #STRIPES} segmentos según el hash; cada segmento es una lista
+ * LRU protegida por su propio cerrojo, con un bosquejo count-min de frecuencias (TinyLFU): cuando el
+ * segmento está lleno, una entrada nueva solo reemplaza a la menos usada recientemente si se ha
+ * pedido más veces que ella. Así las entradas que se piden una sola vez no desplazan a las frecuentes.
+ * Las frecuencias se reducen a la mitad periódicamente para olvidar el pasado.
+ */
+
+public final class SolutionCache {
+    private static final int STRIPES = 16;
+
+    /**
+     * Memoria estimada por entrada con referencias comprimidas: nodo del mapa (40), clave (32) y
+     * entrada con la solución empaquetada (48).
+     */
+
+    private static final int ENTRY_BYTES = 120;
+
+    private final int capacity;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+
+    /**
+     * Crea una caché vacía.
+     *
+     * @param capacity El número máximo de entradas.
+     */
+
+    public SolutionCache(int capacity) {
+        if (capacity < STRIPES) {
+            throw new IllegalArgumentException("La capacidad debe ser al menos " + STRIPES);
+        }
+        this.capacity = capacity;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(capacity / STRIPES + (i < capacity % STRIPES ? 1 : 0));
+        }
+    }
+
+    /**
+     * Busca la entrada de una forma canónica y registra el acceso en las frecuencias.
+     *
+     * @return La entrada, o null si no está.
+     */
+
+    Entry get(Key key) {
+        Stripe stripe = stripeFor(key);
+        Entry entry;
+        synchronized (stripe) {
+            stripe.sketch.increment(key.hash);
+            entry = stripe.map.get(key);
+        }
+        (entry != null ? hits : misses).increment();
+        return entry;
+    }
+
+    /**
+     * Guarda lo aprendido sobre una forma canónica, combinándolo con lo que ya hubiera.
+     * Si el segmento está lleno, la entrada solo se admite si es más frecuente que la que saldría.
+     */
+
+    void put(Key key, Entry entry) {
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            Entry old = stripe.map.get(key);
+            if (old != null) {
+                stripe.map.put(key, old.merge(entry));
+                return;
+            }
+            if (stripe.map.size() >= stripe.capacity) {
+                Iterator<Map.Entry<Key, Entry>> eldest = stripe.map.entrySet().iterator();
+                Key victim = eldest.next().getKey();
+                if (stripe.sketch.frequency(key.hash) <= stripe.sketch.frequency(victim.hash)) {
+                    rejections.increment();
+                    return;
+                }
+                eldest.remove();
+                evictions.increment();
+            }
+            stripe.map.put(key, entry);
+        }
+    }
+
+    private Stripe stripeFor(Key key) {
+        return stripes[(int) (key.hash >>> 60)];
+    }
+
+    /**
+     * Vacía la caché sin reiniciar las métricas.
+     */
+
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.map.clear();
+            }
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return El número de entradas guardadas.
+     */
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.map.size();
+            }
+        }
+        return size;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return La fracción de búsquedas que encontraron su entrada, o 0 si no hubo ninguna.
+     */
+
+    public double getHitRatio() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    /**
+     * @return El número de entradas desalojadas para admitir otras más frecuentes.
+     */
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return El número de entradas nuevas no admitidas por ser menos frecuentes que la que saldría.
+     */
+
+    public long getRejections() {
+        return rejections.sum();
+    }
+
+    /**
+     * @return Una estimación en bytes de la memoria ocupada por las entradas y los bosquejos.
+     */
+
+    public long getMemoryFootprint() {
+        long bytes = (long) size() * ENTRY_BYTES;
+        for (Stripe stripe : stripes) {
+            bytes += stripe.sketch.counters.length;
+        }
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SolutionCache[%d/%d entradas, aciertos %.1f%%, %d desalojos, %d rechazos, ~%d KiB]",
+                size(), capacity, getHitRatio() * 100, getEvictions(), getRejections(),
+                getMemoryFootprint() / 1024);
+    }
+
+    /**
+     * La forma canónica empaquetada y su hash; dos claves son iguales solo si las formas lo son.
+     */
+
+    static final class Key {
+        final long hash;
+        final long low;
+        final long high;
+
+        Key(long hash, long low, long high) {
+            this.hash = hash;
+            this.low = low;
+            this.high = high;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key k && k.low == low && k.high == high;
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) hash;
+        }
+    }
+
+    /**
+     * Lo que se sabe de una forma canónica: una solución en coordenadas canónicas, empaquetada como un
+     * {@link PackedBoard} (o ninguna), y la cuenta de soluciones obtenida con un límite (o -1 si no se
+     * ha contado).
+     */
+
+    static final class Entry {
+        final long solutionLow; // 0 si no hay solución: una solución nunca tiene la casilla 0 vacía
+        final long solutionHigh;
+        final long count;
+        final long countLimit;
+
+        Entry(PackedBoard solution, long count, long countLimit) {
+            this(solution == null ? 0 : solution.getLow(), solution == null ? 0 : solution.getHigh(), count, countLimit);
+        }
+
+        private Entry(long solutionLow, long solutionHigh, long count, long countLimit) {
+            this.solutionLow = solutionLow;
+            this.solutionHigh = solutionHigh;
+            this.count = count;
+            this.countLimit = countLimit;
+        }
+
+        boolean hasSolution() {
+            return solutionLow != 0;
+        }
+
+        /**
+         * Copia la solución, si la hay, sin reservar memoria.
+         *
+         * @param out El tablero de destino.
+         */
+
+        void copySolution(PackedBoard out) {
+            out.setWords(solutionLow, solutionHigh);
+        }
+
+        /**
+         * @return true si {@link #count} es el número exacto de soluciones.
+         */
+
+        boolean isExact() {
+            return count >= 0 && count < countLimit;
+        }
+
+        /**
+         * @return La cuenta hasta {@code limit}, o -1 si esta entrada no basta para saberla.
+         */
+
+        long countUpTo(long limit) {
+            if (isExact() || (count >= 0 && limit <= countLimit)) {
+                return Math.min(count, limit);
+            }
+            if (hasSolution() && limit == 1) {
+                return 1;
+            }
+            return -1;
+        }
+
+        Entry merge(Entry other) {
+            Entry solved = hasSolution() ? this : other;
+            Entry counted = isExact() || other.count < 0 || (!other.isExact() && countLimit >= other.countLimit)
+                    ? this : other;
+            return new Entry(solved.solutionLow, solved.solutionHigh, counted.count, counted.countLimit);
+        }
+    }
+
+    /**
+     * Un segmento: mapa en orden de acceso y bosquejo de frecuencias, protegidos por el propio segmento.
+     */
+
+    private static final class Stripe {
+        final int capacity;
+        final LinkedHashMap<Key, Entry> map;
+        final FrequencySketch sketch;
+
+        Stripe(int capacity) {
+            this.capacity = capacity;
+            this.map = new LinkedHashMap<>(capacity * 4 / 3 + 1, 0.75f, true);
+            this.sketch = new FrequencySketch(capacity);
+        }
+    }
+
+    /**
+     * Bosquejo count-min con 4 filas de contadores de 0 a 15. Cada {@code 10 * capacidad} accesos
+     * todos los contadores se dividen entre dos.
+     */
+
+    private static final class FrequencySketch {
+        private static final long[] SEEDS = {
+                0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L};
+
+        final byte[] counters;
+        private final int width;
+        private final int shift;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int capacity) {
+            this.width = Integer.highestOneBit(Math.max(16, capacity) * 2 - 1);
+            this.shift = 64 - Integer.numberOfTrailingZeros(width);
+            this.counters = new byte[SEEDS.length * width];
+            this.sampleSize = 10 * Math.max(16, capacity);
+        }
+
+        void increment(long hash) {
+            for (int row = 0; row < SEEDS.length; row++) {
+                int i = index(row, hash);
+                if (counters[i] < 15) {
+                    counters[i]++;
+                }
+            }
+            if (++additions == sampleSize) {
+                for (int i = 0; i < counters.length; i++) {
+                    counters[i] >>= 1;
+                }
+                additions /= 2;
+            }
+        }
+
+        int frequency(long hash) {
+            int min = 15;
+            for (int row = 0; row < SEEDS.length; row++) {
+                min = Math.min(min, counters[index(row, hash)]);
+            }
+            return min;
+        }
+
+        private int index(int row, long hash) {
+            return row * width + (int) ((hash * SEEDS[row]) >>> shift);
+        }
+    }
+}
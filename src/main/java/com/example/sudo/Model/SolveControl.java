@@ -0,0 +1,233 @@
+package com.example.sudo.Model;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongConsumer;
+
+/**
+ * Control de una búsqueda en curso: permite cancelarla desde otro hilo, le pone un plazo y,
+ * opcionalmente, un máximo de nodos, y cuenta los nodos explorados y los retrocesos (nodos sin salida). Los motores lo consultan en cada nodo, pero solo leen el reloj
+ * y el indicador de cancelación cada {@value #CHECK_INTERVAL} nodos, para no frenar la búsqueda.
+ * Cada búsqueda debe usar su propio control. Las búsquedas paralelas dan a cada tarea un control hijo
+ * que hereda la cancelación, el plazo y el máximo de nodos del padre y le suma sus nodos y retrocesos.
+ */
+
+public class SolveControl {
+    static final int CHECK_INTERVAL = 4096;
+
+    private final SolveControl parent;
+    private final long deadline;
+    private final long maxNodes;
+    private final LongConsumer progress;
+    private final LongAdder childNodes = new LongAdder();
+    private final LongAdder childBacktracks = new LongAdder();
+    private volatile boolean cancelled;
+    private volatile boolean timedOut;
+    private volatile boolean exhausted;
+    private volatile long publishedNodes;
+    private volatile long publishedBacktracks;
+    private long nodes;
+    private long backtracks;
+    private long reportedNodes; // Nodos ya sumados al padre
+    private long reportedBacktracks;
+    private boolean stopped;
+
+    /**
+     * Crea un control sin plazo ni informe de avance.
+     */
+
+    public SolveControl() {
+        this(null, null);
+    }
+
+    /**
+     * Crea un control con plazo e informe de avance.
+     *
+     * @param timeout  El tiempo máximo de búsqueda a partir de ahora, o null para no tener plazo.
+     * @param progress Recibe el número de nodos explorados cada {@value #CHECK_INTERVAL} nodos,
+     *                 desde el hilo de la búsqueda, o null.
+     */
+
+    public SolveControl(Duration timeout, LongConsumer progress) {
+        this.parent = null;
+        this.deadline = timeout == null ? Long.MAX_VALUE : System.nanoTime() + timeout.toNanos();
+        this.maxNodes = Long.MAX_VALUE;
+        this.progress = progress;
+    }
+
+    /**
+     * Crea un control hijo para una parte de una búsqueda paralela: se detiene si el padre se
+     * cancela, comparte su plazo y le suma los nodos que explora.
+     *
+     * @param parent El control de la búsqueda completa.
+     */
+
+    SolveControl(SolveControl parent) {
+        this(parent, Long.MAX_VALUE);
+    }
+
+    /**
+     * Crea un control para una búsqueda acotada dentro de otra, como cada comprobación de unicidad
+     * al generar: se detiene al explorar {@code maxNodes} nodos (contados cada
+     * {@value #CHECK_INTERVAL}), o antes si el padre se cancela o se le acaba el plazo.
+     *
+     * @param parent   El control de la búsqueda que la contiene, o null si no hay.
+     * @param maxNodes El máximo de nodos de esta búsqueda.
+     */
+
+    SolveControl(SolveControl parent, long maxNodes) {
+        this.parent = parent;
+        this.deadline = parent == null ? Long.MAX_VALUE : parent.deadline;
+        this.maxNodes = maxNodes;
+        this.progress = null;
+    }
+
+    /**
+     * Pide que la búsqueda se detenga lo antes posible. Puede llamarse desde cualquier hilo.
+     */
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * @return true si la búsqueda se detuvo por superar el plazo.
+     */
+
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+
+    /**
+     * @return true si la búsqueda se detuvo por superar el máximo de nodos.
+     */
+
+    public boolean isExhausted() {
+        return exhausted;
+    }
+
+    /**
+     * @return true si la búsqueda se detuvo antes de terminar, por cancelación, por plazo o por
+     *         máximo de nodos.
+     *         En ese caso el resultado del motor no es definitivo.
+     */
+
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    /**
+     * @return El número de nodos explorados, incluidos los de los controles hijos. Desde otro hilo
+     *         se ve con un retraso de hasta {@value #CHECK_INTERVAL} nodos por hilo.
+     */
+
+    public long getNodes() {
+        return publishedNodes + childNodes.sum();
+    }
+
+    /**
+     * @return El número de retrocesos, incluidos los de los controles hijos, con el mismo retraso
+     *         que {@link #getNodes()}.
+     */
+
+    public long getBacktracks() {
+        return publishedBacktracks + childBacktracks.sum();
+    }
+
+    /**
+     * Registra un nodo de la búsqueda. Lo llaman los motores al entrar en cada nodo.
+     *
+     * @return true si la búsqueda debe detenerse.
+     */
+
+    boolean node() {
+        if (stopped) {
+            return true;
+        }
+        if ((++nodes & (CHECK_INTERVAL - 1)) != 0) {
+            return false;
+        }
+        publish();
+        if (progress != null) {
+            progress.accept(getNodes());
+        }
+        if (System.nanoTime() - deadline > 0) {
+            timeOut();
+        }
+        if (getNodes() >= maxNodes) {
+            exhausted = true;
+        }
+        stopped = isCancelledUpstream() || timedOut;
+        return stopped;
+    }
+
+    /**
+     * Registra un retroceso: un nodo donde alguna casilla quedó sin candidatos o donde fallaron
+     * todos los candidatos. Lo llaman los motores.
+     */
+
+    void backtrack() {
+        backtracks++;
+    }
+
+    /**
+     * Publica el total de nodos y retrocesos al terminar la búsqueda.
+     */
+
+    void finish() {
+        publish();
+    }
+
+    /**
+     * Cierra una búsqueda paralela: marca el control como detenido si se canceló o se agotó
+     * el plazo mientras trabajaban sus hijos.
+     */
+
+    void settle() {
+        stopped = isCancelledUpstream() || timedOut;
+    }
+
+    private void publish() {
+        publishedNodes = nodes;
+        publishedBacktracks = backtracks;
+        if (parent != null) {
+            parent.addChildren(nodes - reportedNodes, backtracks - reportedBacktracks);
+            reportedNodes = nodes;
+            reportedBacktracks = backtracks;
+        }
+    }
+
+    private void addChildren(long nodeCount, long backtrackCount) {
+        childNodes.add(nodeCount);
+        childBacktracks.add(backtrackCount);
+        if (maxNodes != Long.MAX_VALUE && getNodes() >= maxNodes) {
+            exhausted = true; // Las búsquedas paralelas solo suman nodos a través de sus hijos
+        }
+        if (parent != null) {
+            parent.addChildren(nodeCount, backtrackCount);
+        }
+        if (progress != null) {
+            progress.accept(getNodes());
+        }
+    }
+
+    private void timeOut() {
+        timedOut = true;
+        if (parent != null) {
+            parent.timeOut();
+        }
+    }
+
+    /**
+     * @return true si este control o alguno de sus padres fue cancelado o superó su máximo de nodos.
+     *         Puede llamarse desde cualquier hilo.
+     */
+
+    boolean isCancelledUpstream() {
+        return cancelled || exhausted || (parent != null && parent.isCancelledUpstream());
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.sudo.Model;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Una llamada a {@link Sudoku#resolveSudoku()}.
+ */
+
+@Name("com.example.sudo.Solve")
+@Label("Resolver tablero")
+final class SolveEvent extends SearchEvent {
+
+    @Label("Resuelto")
+    boolean solved;
+}
@@ -1,27 +1,63 @@
 package com.example.sudo.Model;
 
-import javafx.scene.control.TextField;
-
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 
 /**
- * Clase que representa un tablero de Sudoku de 6x6.
+ * Clase que representa un tablero de Sudoku, de 6x6 por defecto.
+ * La forma del tablero y de sus bloques la describe un {@link BoardGeometry}.
  * Proporciona métodos para generar, mostrar, y validar el tablero de Sudoku.
+ * El estado de la partida (pistas y números del jugador) vive en un {@link SudokuBoard}
+ * que la vista observa; esta clase no depende de JavaFX.
+ * Resolver, generar y comprobar la victoria emiten eventos de Flight Recorder y se suman al
+ * {@link MetricsRegistry} cuando alguno de los dos está observando.
  */
 
 public class Sudoku {
+    private static final MetricsRegistry.Stat SOLVE_STAT = MetricsRegistry.global().stat("sudoku.solve");
+    private static final MetricsRegistry.Stat GENERATE_STAT = MetricsRegistry.global().stat("sudoku.generate");
+    private static final MetricsRegistry.Stat WIN_CHECK_STAT = MetricsRegistry.global().stat("sudoku.winCheck");
+
+    private final BoardGeometry geometry;
     private int sudoku[][];
     private int[][] solucion; // Matriz para almacenar la solucion
+    private final RandomGenerator random = new SplittableRandom();
+    private SudokuSolver solver;
+    private final PuzzleGenerator generator;
+    private final SudokuBoard board;
+    private final ConflictIndex conflicts;
+    private final HintEngine hints;
+    private final GameHistory history;
+    private final int[] marks; // Notas a lápiz: un bit por número en cada casilla
+    private long elapsedBefore; // Milisegundos jugados antes de startedAt, en una partida recuperada
+    private long startedAt = System.nanoTime();
 
     /**
-     * Constructor que inicializa un tablero vacío de Sudoku.
+     * Constructor que inicializa un tablero vacío de Sudoku de 6x6.
      */
 
     public Sudoku() {
-        sudoku = new int[6][6];
+        this(BoardGeometry.SIZE_6);
+    }
+
+    /**
+     * Constructor que inicializa un tablero vacío con la geometría indicada.
+     *
+     * @param geometry La geometría del tablero.
+     */
+
+    public Sudoku(BoardGeometry geometry) {
+        this.geometry = geometry;
+        this.solver = new BitmaskSolver(geometry, random);
+        this.generator = new PuzzleGenerator(geometry, random);
+        generator.setTargetClues(Difficulty.MEDIUM.targetClues(geometry));
+        this.board = new SudokuBoard(geometry);
+        this.conflicts = new ConflictIndex(board);
+        this.hints = new HintEngine(board);
+        this.history = new GameHistory(board);
+        this.marks = new int[geometry.getCellCount()];
+        sudoku = new int[geometry.getSize()][geometry.getSize()];
         clearSudoku();
 
     }
@@ -61,94 +97,162 @@ public class Sudoku {
     /**
      * Genera un nuevo Sudoku resolviendo el tablero completamente y luego
      * escondiendo algunos números para que el jugador los complete.
-     *
-     * @param listTxt La matriz de TextFields utilizada para representar el tablero de Sudoku en la interfaz gráfica.
+     * Los números se esconden en orden aleatorio, hasta dejar un tercio de las casillas visibles,
+     * conservando cada número cuya eliminación permitiría más de una solución; así la
+     * solución que queda en {@link #getSolucion()} es la única posible.
+     * Las pistas se cargan en el {@link SudokuBoard} de la partida, que notifica a la vista, y la
+     * historia de la partida empieza vacía.
      */
 
 
-    public void generateSudoku(TextField[][] listTxt) {
-        clearSudoku(); // Limpia el tablero
-        if (resolveSudoku()) { // Resuelve completamente el sudoku
-            solucion = copyMatrix(sudoku);
-            hideNumber(listTxt); // Esconde los numeros para dejar solo 2 por cuadrante
+    public void generateSudoku() {
+        if (solucion == null) {
+            solucion = new int[geometry.getSize()][geometry.getSize()];
+        }
+        Probe probe = Probe.start(new GenerateEvent(), GENERATE_STAT);
+        if (probe == null) {
+            // Llena la solución completa y esconde números mientras la solución siga siendo única
+            generator.generate(sudoku, solucion);
         } else {
-            System.out.println("Error: No se pudo resolver el Sudoku.");
+            SolveControl control = new SolveControl();
+            generator.setControl(control);
+            int clues;
+            try {
+                clues = generator.generate(sudoku, solucion);
+            } finally {
+                generator.setControl(null);
+            }
+            probe.stop(generator.getEngineName(), clues, control.getNodes(), control.getBacktracks());
         }
+        board.load(sudoku);
+        startGame();
     }
+
     /**
-     * Esconde ciertos números en el tablero de Sudoku, dejando solo dos números visibles por cuadrante.
-     * Luego actualiza la interfaz gráfica con los cambios.
+     * Carga una partida ya generada, por ejemplo una tomada de un {@link PuzzlePool}, sin generar nada.
+     * Las pistas se copian al tablero de la partida y se notifican a la vista como en
+     * {@link #generateSudoku()}.
      *
-     * @param listTxt La matriz de TextFields utilizada para representar el tablero de Sudoku en la interfaz gráfica.
+     * @param puzzle La partida con sus pistas y su solución.
      */
 
-    private void hideNumber(TextField[][] listTxt) {
-        Random random = new Random();
-        for (int firstRow = 0; firstRow < 6; firstRow += 2) {
-            for (int colInicio = 0; colInicio < 6; colInicio += 3) {
-                hideBlockNumber(firstRow, colInicio, random);
-            }
+    public void loadPuzzle(GeneratedPuzzle puzzle) {
+        if (solucion == null) {
+            solucion = new int[geometry.getSize()][geometry.getSize()];
         }
-        // También actualizar la interfaz de usuario
-        updateInterface(listTxt);
+        puzzle.copyPuzzleTo(sudoku);
+        puzzle.copySolutionTo(solucion);
+        board.load(sudoku);
+        startGame();
     }
 
     /**
-     * Esconde hasta 4 números en un cuadrante de 2x3 en el tablero de Sudoku.
+     * Deja la partida recién cargada como nueva: sin historia, sin notas y con el reloj en cero.
+     */
+
+    private void startGame() {
+        history.clear(); // La carga no es una jugada que se pueda deshacer
+        Arrays.fill(marks, 0);
+        elapsedBefore = 0;
+        startedAt = System.nanoTime();
+    }
+
+    /**
+     * Guarda el estado completo de la partida en curso, sin escribir nada todavía.
      *
-     * @param firstRow La fila de inicio del cuadrante.
-     * @param firstCol La columna de inicio del cuadrante.
-     * @param random     Una instancia de la clase Random para generar posiciones aleatorias.
+     * @return La partida, lista para {@link SavedGame#write}.
+     * @throws IllegalStateException Si todavía no se cargó ninguna partida.
      */
 
-    private void hideBlockNumber(int firstRow, int firstCol, Random random) {
-        int count = 0;
-        while (count < 4) { // Queremos eliminar hasta 4 números en cada cuadrante para dejar solo 2
-            int row = random.nextInt(2) + firstRow;
-            int col = random.nextInt(3) + firstCol;
-            if (sudoku[row][col] != 0) {
-                sudoku[row][col] = 0; // Esconder el número
-                count++;
-            }
+    public SavedGame save() {
+        if (solucion == null) {
+            throw new IllegalStateException("No hay una partida para guardar");
         }
+        return new SavedGame(BoardSnapshot.of(geometry, getClues()), BoardSnapshot.of(geometry, solucion),
+                board.snapshot(), marks.clone(), givenCells(), getElapsedMillis(), history.getMoves(),
+                history.getPosition(), history.getBranchPositions(), history.getBranchSnapshots());
     }
 
     /**
-     * Actualiza la interfaz gráfica del Sudoku, colocando los números visibles en los TextFields.
-     * Los TextFields correspondientes a números ocultos se dejan editables.
+     * Retoma una partida guardada sin generar nada: carga sus pistas y su solución, coloca los
+     * números del jugador, con los que reveló una pista bloqueados, y recupera las notas, el reloj y la historia para deshacer.
+     * La vista recibe los cambios del tablero como en {@link #loadPuzzle(GeneratedPuzzle)}.
      *
-     * @param listTxt La matriz de TextFields utilizada para representar el tablero de Sudoku en la interfaz gráfica.
+     * @param game La partida guardada, de la misma geometría que este Sudoku.
+     * @throws IllegalArgumentException Si la partida es de otra geometría.
      */
 
-    private void updateInterface(TextField[][] listTxt) {
-        for (int i = 0; i < 6; i++) {
-            for (int j = 0; j < 6; j++) {
-                if (sudoku[i][j] != 0) {
-                    listTxt[i][j].setText(String.valueOf(sudoku[i][j]));
-                    listTxt[i][j].setEditable(false);
-                } else {
-                    listTxt[i][j].setText("");
-                    listTxt[i][j].setEditable(true);
-                }
+    public void resume(SavedGame game) {
+        if (game.getGeometry() != geometry) {
+            throw new IllegalArgumentException("La partida es de un tablero de " + game.getGeometry()
+                    + ", no de " + geometry);
+        }
+        if (solucion == null) {
+            solucion = new int[geometry.getSize()][geometry.getSize()];
+        }
+        game.getClues().copyTo(sudoku);
+        game.getSolution().copyTo(solucion);
+        board.load(sudoku);
+        BoardSnapshot values = game.getValues();
+        for (int cell = 0; cell < geometry.getCellCount(); cell++) {
+            if (board.isFixed(cell)) {
+                continue;
             }
+            if (game.getGiven()[cell]) {
+                board.reveal(cell, values.get(cell));
+            } else {
+                board.place(cell, values.get(cell));
+            }
+        }
+        System.arraycopy(game.getMarks(), 0, marks, 0, marks.length);
+        history.restore(game.getMoves(), game.getPosition(), game.getBranchPositions(), game.getBranchSnapshots());
+        elapsedBefore = game.getElapsedMillis();
+        startedAt = System.nanoTime();
+    }
+
+    private boolean[] givenCells() {
+        boolean[] given = new boolean[geometry.getCellCount()];
+        for (int cell = 0; cell < given.length; cell++) {
+            given[cell] = board.isGiven(cell);
         }
+        return given;
     }
 
     /**
-     * Crea una copia de la matriz proporcionada.
+     * Obtiene las pistas de la partida en curso a partir de las casillas fijas del {@link SudokuBoard}.
+     * No depende de {@link #getSudoku()}, que se usa como tablero de trabajo al resolver.
      *
-     * @param original La matriz original que se va a copiar.
-     * @return Una nueva matriz que es una copia exacta de la matriz original.
+     * @return Una matriz nueva con las pistas, con 0 en las demás casillas.
      */
 
-    private int[][] copyMatrix(int[][] original) {
-        int[][] copy = new int[original.length][original[0].length];
-        for (int i = 0; i < original.length; i++) {
-            for (int j = 0; j < original[0].length; j++) {
-                copy[i][j] = original[i][j];
+    public int[][] getClues() {
+        int[][] clues = new int[geometry.getSize()][geometry.getSize()];
+        for (int cell = 0; cell < geometry.getCellCount(); cell++) {
+            if (board.isFixed(cell)) {
+                clues[geometry.row(cell)][geometry.col(cell)] = board.get(cell);
             }
         }
-        return copy;
+        return clues;
+    }
+
+    /**
+     * @return El tiempo jugado en la partida en curso, en milisegundos, contando el de antes de
+     * guardarla si se recuperó.
+     */
+
+    public long getElapsedMillis() {
+        return elapsedBefore + (System.nanoTime() - startedAt) / 1_000_000;
+    }
+
+    /**
+     * Obtiene las notas a lápiz de la partida. El arreglo es el de la partida: la vista lo modifica
+     * directamente y se borra al cargar otra.
+     *
+     * @return Las notas, un bit {@code d - 1} por cada número {@code d} en cada casilla.
+     */
+
+    public int[] getMarks() {
+        return marks;
     }
 
     /**
@@ -161,138 +265,211 @@ public class Sudoku {
         return solucion;
     }
 
+    /**
+     * Obtiene el generador de partidas.
+     *
+     * @return El generador de tableros con solución única.
+     */
 
-
+    public PuzzleGenerator getGenerator() {
+        return generator;
+    }
 
     /**
-     * Verifica si el Sudoku ha sido completado correctamente.
+     * Obtiene el estado de la partida que observa la vista.
      *
-     * @return true si el Sudoku está completo y cumple todas las reglas, false de lo contrario.
+     * @return El tablero con las pistas y los números ingresados por el jugador.
      */
 
-    public boolean winCheck() {
-        // Verificar todas las filas
-        for (int i = 0; i < 6; i++) {
-            if (!rowCheck(i)) {
-                return false;
-            }
-        }
+    public SudokuBoard getBoard() {
+        return board;
+    }
 
-        // Verificar todas las columnas
-        for (int j = 0; j < 6; j++) {
-            if (!columnCheck(j)) {
-                return false;
-            }
-        }
+    /**
+     * Obtiene el índice de casillas en conflicto de la partida.
+     *
+     * @return El índice, actualizado en cada cambio del tablero.
+     */
 
-        // Verificar todos los bloques 2x3
-        for (int fila = 0; fila < 6; fila += 2) {
-            for (int col = 0; col < 6; col += 3) {
-                if (!blockCheck(fila, col)) {
-                    return false;
-                }
-            }
-        }
+    public ConflictIndex getConflicts() {
+        return conflicts;
+    }
 
-        // Si pasa todas las verificaciones, el Sudoku está completo y es correcto
-        return true;
+    /**
+     * Obtiene el motor de pistas de la partida.
+     *
+     * @return El motor, que sigue los cambios del tablero.
+     */
+
+    public HintEngine getHints() {
+        return hints;
     }
 
     /**
-     * Verifica si una fila contiene todos los números del 1 al 6 sin repeticiones.
+     * Obtiene la historia de la partida, para deshacer, rehacer y volver a un punto de bifurcación.
      *
-     * @param row La fila a verificar.
-     * @return true si la fila es válida, false de lo contrario.
+     * @return La historia, que registra cada cambio del tablero desde que se cargó la partida.
      */
 
+    public GameHistory getHistory() {
+        return history;
+    }
+
+    /**
+     * Da la siguiente pista de la partida: la jugada lógica más fácil, o si ninguna técnica permite
+     * avanzar, el número de la solución para la casilla vacía con menos candidatos. Si la partida no
+     * se generó ni se recuperó, la solución se obtiene resolviendo las pistas con {@link #resolveSudoku()}.
+     *
+     * @return La pista, o null si el tablero está completo.
+     */
 
-    private boolean rowCheck(int row) {
-        boolean[] seen = new boolean[7]; // Para numeros del 1 al 6
-        for (int j = 0; j < 6; j++) {
-            int num = sudoku[row][j];
-            if (num < 1 || num > 6 || seen[num]) {
-                return false; // Numero fuera de rango o repetido
+    public Hint nextHint() {
+        Hint hint = hints.nextHint();
+        if (hint != null || board.emptyCount() == 0) {
+            return hint;
+        }
+        if (solucion == null && !solveClues()) {
+            return new Hint(-1, 0, null, "Las pistas del tablero no tienen solución.");
+        }
+        int best = -1;
+        for (int cell = 0; cell < geometry.getCellCount(); cell++) {
+            if (board.get(cell) == 0 && (best < 0
+                    || Integer.bitCount(board.candidates(cell)) < Integer.bitCount(board.candidates(best)))) {
+                best = cell;
             }
-            seen[num] = true;
         }
-        return true;
+        int value = solucion[geometry.row(best)][geometry.col(best)];
+        return new Hint(best, value, null, "No hay una jugada lógica sencilla; se revela el " + value
+                + " de la fila " + (geometry.row(best) + 1) + ", columna " + (geometry.col(best) + 1) + ".");
     }
 
     /**
-     * Verifica si una columna contiene todos los números del 1 al 6 sin repeticiones.
+     * Resuelve las pistas en el tablero de trabajo y guarda el resultado como solución de la partida.
      *
-     * @param col La columna a verificar.
-     * @return true si la columna es válida, false de lo contrario.
+     * @return true si las pistas tienen solución.
      */
 
-
-    private boolean columnCheck(int col) {
-        boolean[] seen = new boolean[7]; // Para números del 1 al 6
-        for (int i = 0; i < 6; i++) {
-            int num = sudoku[i][col];
-            if (num < 1 || num > 6 || seen[num]) {
-                return false; // Número fuera de rango o repetido
-            }
-            seen[num] = true;
+    private boolean solveClues() {
+        int[][] clues = getClues();
+        for (int i = 0; i < sudoku.length; i++) {
+            System.arraycopy(clues[i], 0, sudoku[i], 0, sudoku[i].length);
+        }
+        if (!resolveSudoku()) {
+            return false;
+        }
+        solucion = new int[geometry.getSize()][geometry.getSize()];
+        for (int i = 0; i < sudoku.length; i++) {
+            System.arraycopy(sudoku[i], 0, solucion[i], 0, sudoku[i].length);
         }
         return true;
     }
 
+    /**
+     * Obtiene la geometría del tablero.
+     *
+     * @return La geometría con la que se creó el tablero.
+     */
+
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+
+
 
+    /**
+     * Verifica si el Sudoku ha sido completado correctamente.
+     *
+     * @return true si el Sudoku está completo y cumple todas las reglas, false de lo contrario.
+     */
+
+    public boolean winCheck() {
+        return winCheck(sudoku);
+    }
 
     /**
+     * Verifica si una matriz es un Sudoku completo y correcto, sin tocar el tablero de trabajo.
+     *
+     * @param grid La matriz a verificar, del tamaño del tablero.
+     * @return true si está completa y cumple todas las reglas, false de lo contrario.
+     */
 
-     Verifica si un bloque de 2x3 en el sudoku es válido.
-     @param firstRow La fila inicial del bloque.
-     @param firstCol La columna inicial del bloque.
-     @return true si el bloque es válido, false en caso contrario. */
+    public boolean winCheck(int[][] grid) {
+        Probe probe = Probe.start(new WinCheckEvent(), WIN_CHECK_STAT);
+        // Verificar todas las filas, columnas y bloques con la tabla de unidades de la geometría
+        int unit = 0;
+        while (unit < geometry.getUnitCount() && unitCheck(grid, unit)) {
+            unit++;
+        }
+        // Si pasa todas las verificaciones, el Sudoku está completo y es correcto
+        boolean won = unit == geometry.getUnitCount();
+        if (probe != null) {
+            ((WinCheckEvent) probe.event()).won = won;
+            probe.stop("unidades", Probe.countClues(grid), Math.min(unit + 1, geometry.getUnitCount()), 0);
+        }
+        return won;
+    }
 
+    /**
+     * Verifica si una unidad (fila, columna o bloque) contiene todos los números del 1 al tamaño
+     * del tablero sin repeticiones.
+     *
+     * @param grid La matriz a verificar.
+     * @param unit El índice de la unidad a verificar.
+     * @return true si la unidad es válida, false de lo contrario.
+     */
 
-    private boolean blockCheck(int firstRow, int firstCol) {
-        boolean[] seen = new boolean[7]; // Para números del 1 al 6
-        for (int i = firstRow; i < firstRow + 2; i++) {
-            for (int j = firstCol; j < firstCol + 3; j++) {
-                int num = sudoku[i][j];
-                if (num < 1 || num > 6 || seen[num]) {
-                    return false; // Número fuera de rango o repetido
-                }
-                seen[num] = true;
+    private boolean unitCheck(int[][] grid, int unit) {
+        int seen = 0; // Un bit por cada número
+        for (int cell : geometry.unitCells(unit)) {
+            seen = markSeen(seen, grid[geometry.row(cell)][geometry.col(cell)]);
+            if (seen < 0) {
+                return false; // Número fuera de rango o repetido
             }
         }
         return true;
     }
 
     /**
+     * Marca un número en la máscara de números vistos.
+     *
+     * @param seen La máscara actual.
+     * @param num  El número a marcar.
+     * @return La máscara actualizada, o -1 si el número está fuera de rango o ya estaba marcado.
+     */
+
+    private int markSeen(int seen, int num) {
+        if (num < 1 || num > geometry.getSize()) {
+            return -1;
+        }
+        int bit = 1 << (num - 1);
+        return (seen & bit) != 0 ? -1 : seen | bit;
+    }
 
-     Resuelve un sudoku de 6x6 utilizando backtracking.
+    /**
+
+     Resuelve el sudoku con el motor configurado (por defecto, backtracking sobre máscaras de bits).
+     Los candidatos se prueban en orden aleatorio, por lo que resolver un tablero vacío genera uno nuevo.
      @return true si el sudoku se resolvió, false en caso contrario. */
 
 
     public boolean resolveSudoku() {
-        for (int i = 0; i < sudoku.length; i++) {
-            for (int j = 0; j < sudoku[0].length; j++) {
-                if (sudoku[i][j] == 0) { // Si la casilla está vacía
-                    // Crear una lista con los valores posibles (1 a 6)
-                    List<Integer> valores = Arrays.asList(1, 2, 3, 4, 5, 6);
-                    // Mezclar los valores para probar en un orden aleatorio
-                    Collections.shuffle(valores);
-
-                    // Probar los valores en el orden aleatorio
-                    for (int value : valores) {
-                        // Validar fila, columna y bloque ignorando la casilla actual
-                        if (validateRow(i, value, j) && validateColumn(j, value, i) && validateBlock(i, j, value)) {
-                            sudoku[i][j] = value; // Asignar el valor
-                            if (resolveSudoku()) { // Intentar resolver el siguiente
-                                return true; // Si se resuelve, retorna verdadero
-                            }
-                            sudoku[i][j] = 0; // Retrocede si no se puede resolver
-                        }
-                    }
-                    return false; // No se pudo colocar ningún número válido, retrocede
-                }
-            }
+        Probe probe = Probe.start(new SolveEvent(), SOLVE_STAT);
+        if (probe == null) {
+            return solver.solve(sudoku);
         }
-        return true; // Sudoku resuelto
+        int clues = Probe.countClues(sudoku);
+        SolveControl control = new SolveControl();
+        solver.setControl(control);
+        boolean solved;
+        try {
+            solved = solver.solve(sudoku);
+        } finally {
+            solver.setControl(null);
+        }
+        ((SolveEvent) probe.event()).solved = solved;
+        probe.stop(solver.getClass().getSimpleName(), clues, control.getNodes(), control.getBacktracks());
+        return solved;
     }
 
 
@@ -334,123 +511,39 @@ public class Sudoku {
 
     /**
 
-     Valida si un número es válido para un bloque específico.
-
-     @param row La fila del bloque.
-
-     @param column La columna del bloque.
-
-     @param num El número a validar.
-
-     @return true si el número es válido, false en caso contrario.
-     */
-
-    private boolean validateBlock(int row, int column, int num) {
-        int firstRow = (row / 2) * 2; // 2 filas por bloque
-        int firstColumn = (column / 3) * 3; // 3 columnas por bloque
-
-        for (int i = firstRow; i < firstRow + 2; i++) { // Revisar 2 filas
-            for (int j = firstColumn; j < firstColumn + 3; j++) { // Revisar 3 columnas
-                if (sudoku[i][j] == num) {
-                    return false; // Número ya existe en el bloque
-                }
-            }
-        }
-        return true; // Número válido en el bloque
-    }
-    /**
-
-     Valida si un número es válido para una posición específica en el sudoku, considerando las reglas del juego.
+     Valida si un número es válido para una posición específica de la partida, considerando las reglas del juego.
+     La comprobación se hace en O(1) sobre los conteos del {@link SudokuBoard}.
      @param fila La fila de la posición.
      @param columna La columna de la posición.
      @param num El número a validar.
-     @param listTxt La matriz de TextField que representa el sudoku.
      @return true si el número es válido, false en caso contrario. */
 
-    public boolean isNumberValid(int fila, int columna, int num, TextField[][] listTxt) {
-        return validateRow1(fila, num, columna, listTxt) && validateColumn1(columna, num, fila, listTxt) && validateBlock1(fila, columna, num, listTxt);
+    public boolean isNumberValid(int fila, int columna, int num) {
+        return board.isValid(geometry.cell(fila, columna), num);
     }
 
-    /**
-
-     Valida si un número es válido para una fila específica, ignorando una columna.
-     @param row La fila a validar.
-     @param num El número a validar.
-     @param column La columna que se debe ignorar.
-     @param listTxt La matriz de TextField que representa el sudoku.
-     @return true si el número es válido, false en caso contrario. */
-
-
-    private boolean validateRow1(int row, int num, int column, TextField[][] listTxt) {
-        for (int j = 0; j < 6; j++) {
-            if (j != column && getTextFieldValue1(row, j, listTxt) == num) {
-                return false;
-            }
-        }
-        return true;
-    }
-    /**
-
-     Valida si un número es válido para una columna específica, ignorando una fila.
-     @param column La columna a validar.
-     @param num El número a validar.
-     @param row La fila que se debe ignorar.
-     @param listTxt La matriz de TextField que representa el sudoku.
-     @return true si el número es válido, false en caso contrario. */
 
-    private boolean validateColumn1(int column, int num, int row, TextField[][] listTxt) {
-        for (int i = 0; i < 6; i++) {
-            if (i != row && getTextFieldValue1(i, column, listTxt) == num) {
-                return false;
-            }
-        }
-        return true;
-    }
     /**
 
-     Valida si un número es válido para un bloque específico.
+     Establece el motor usado para resolver el sudoku. Las partidas las genera
+     {@link #getGenerator()}, que tiene su propio motor para comprobar la unicidad.
+     El motor recibe el generador aleatorio del tablero, con el que ordena los candidatos.
+     @param solver El motor de resolución. */
 
-     @param row La fila del bloque.
 
-     @param column La columna del bloque.
-
-     @param num El número a validar.
-
-     @param listTxt La matriz de TextField que representa el sudoku.
-
-     @return true si el número es válido, false en caso contrario.
-     */
-
-    private boolean validateBlock1(int row, int column, int num, TextField[][] listTxt) {
-        int filaInicio = (row / 2) * 2;
-        int colInicio = (column / 3) * 3;
-        for (int i = filaInicio; i < filaInicio + 2; i++) {
-            for (int j = colInicio; j < colInicio + 3; j++) {
-                if ((i != row || j != column) && getTextFieldValue1(i, j, listTxt) == num) {
-                    return false;
-                }
-            }
-        }
-        return true;
+    public void setSolver(SudokuSolver solver) {
+        solver.setRandom(random);
+        this.solver = solver;
     }
 
-
     /**
-     * Obtiene el valor de un campo de texto en una matriz de TextField en las coordenadas dadas.
-     * Si el campo de texto está vacío, devuelve 0. Si no está vacío, convierte el contenido
-     * en un número entero y lo devuelve.
-     *
-     * @param fila     El índice de la fila del campo de texto en la matriz.
-     * @param columna  El índice de la columna del campo de texto en la matriz.
-     * @param listTxt  La matriz de TextField de donde se obtiene el valor.
-     * @return El valor numérico del campo de texto si no está vacío, o 0 si está vacío.
-     */
 
-    private int getTextFieldValue1(int fila, int columna, TextField[][] listTxt) {
-        String text = listTxt[fila][columna].getText();
-        return text.isEmpty() ? 0 : Integer.parseInt(text);
-    }
+     Obtiene el motor usado para resolver el sudoku.
+     @return El motor de resolución actual. */
 
+    public SudokuSolver getSolver() {
+        return solver;
+    }
 
     /**
 
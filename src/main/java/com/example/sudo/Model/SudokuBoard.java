@@ -0,0 +1,355 @@
+package com.example.sudo.Model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Estado de una partida sobre un arreglo primitivo: las pistas fijas y los números que ingresa el jugador.
+ * Además de los valores guarda, para cada fila, columna y bloque, cuántas veces aparece cada número
+ * y una máscara con los números presentes, de modo que colocar, borrar, validar y calcular los
+ * candidatos de una casilla cuesta O(1). No depende de JavaFX; la vista se registra como
+ * {@link BoardListener} para reflejar los cambios.
+ * Los valores también se mantienen empaquetados como en {@link BoardSnapshot}, así que
+ * {@link #snapshot()} no recorre las casillas.
+ */
+
+public class SudokuBoard {
+    private final BoardGeometry geometry;
+    private final int size;
+    private final byte[] cells;
+    private final boolean[] fixed;
+    private final boolean[] given; // Números revelados por una pista o una solución aplicada
+    private final long[] packed; // Los valores, con el formato de BoardSnapshot
+    private final int[] rowCount; // rowCount[row * (size + 1) + num]
+    private final int[] colCount;
+    private final int[] boxCount;
+    private final int[] rowMask;
+    private final int[] colMask;
+    private final int[] boxMask;
+    private final List<BoardListener> listeners = new ArrayList<>();
+
+    /**
+     * Crea un tablero vacío con la geometría indicada.
+     *
+     * @param geometry La geometría del tablero.
+     */
+
+    public SudokuBoard(BoardGeometry geometry) {
+        this.geometry = geometry;
+        this.size = geometry.getSize();
+        this.cells = new byte[geometry.getCellCount()];
+        this.fixed = new boolean[geometry.getCellCount()];
+        this.given = new boolean[geometry.getCellCount()];
+        this.packed = new long[BoardSnapshot.wordCount(geometry)];
+        this.rowCount = new int[size * (size + 1)];
+        this.colCount = new int[size * (size + 1)];
+        this.boxCount = new int[size * (size + 1)];
+        this.rowMask = new int[size];
+        this.colMask = new int[size];
+        this.boxMask = new int[size];
+    }
+
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * Registra un observador de cambios.
+     *
+     * @param listener El observador.
+     */
+
+    public void addListener(BoardListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(BoardListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * @return El valor de la casilla, o 0 si está vacía.
+     */
+
+    public int get(int cell) {
+        return cells[cell];
+    }
+
+    public int get(int row, int col) {
+        return cells[geometry.cell(row, col)];
+    }
+
+    /**
+     * @return true si la casilla es una pista fija del tablero generado.
+     */
+
+    public boolean isFixed(int cell) {
+        return fixed[cell];
+    }
+
+    /**
+     * @return true si el número de la casilla lo reveló una pista o una solución aplicada, y el
+     * jugador no puede cambiarlo.
+     */
+
+    public boolean isGiven(int cell) {
+        return given[cell];
+    }
+
+    /**
+     * Coloca un número en una casilla, reemplazando el que hubiera. Si el número cambia, la casilla
+     * deja de estar revelada.
+     *
+     * @param cell  El índice de la casilla.
+     * @param value El número, o 0 para vaciarla.
+     */
+
+    public void place(int cell, int value) {
+        set(cell, value, false);
+    }
+
+    /**
+     * Coloca un número revelado por una pista o una solución, que el jugador ya no puede cambiar.
+     * Si la casilla ya tenía ese número solo cambia su condición, y se notifica igual.
+     *
+     * @param cell  El índice de la casilla.
+     * @param value El número, distinto de 0.
+     */
+
+    public void reveal(int cell, int value) {
+        set(cell, value, true);
+    }
+
+    /**
+     * Devuelve al jugador una casilla revelada sin cambiar su número; se usa al deshacer una pista
+     * que coincidía con el número que ya había.
+     *
+     * @param cell El índice de la casilla.
+     */
+
+    public void conceal(int cell) {
+        if (given[cell]) {
+            given[cell] = false;
+            fire(cell, cells[cell], cells[cell]);
+        }
+    }
+
+    private void set(int cell, int value, boolean reveal) {
+        int old = cells[cell];
+        if (old == value) {
+            if (reveal && !given[cell]) {
+                given[cell] = true;
+                fire(cell, value, value);
+            }
+            return;
+        }
+        given[cell] = reveal; // Antes de notificar, para que la historia registre cómo llegó el número
+        if (old != 0) {
+            remove(cell, old);
+        }
+        if (value != 0) {
+            add(cell, value);
+        }
+        cells[cell] = (byte) value;
+        BoardSnapshot.set(geometry, packed, cell, value);
+        fire(cell, old, value);
+    }
+
+    /**
+     * Vacía una casilla.
+     *
+     * @param cell El índice de la casilla.
+     */
+
+    public void clear(int cell) {
+        place(cell, 0);
+    }
+
+    /**
+     * Carga un tablero generado: los números distintos de 0 quedan como pistas fijas y el resto vacío.
+     * Ninguna casilla queda revelada. Solo se notifican las casillas cuyo valor o condición de pista cambia.
+     *
+     * @param clues La matriz de pistas, con 0 en las casillas vacías.
+     */
+
+    public void load(int[][] clues) {
+        for (int cell = 0; cell < cells.length; cell++) {
+            int value = clues[geometry.row(cell)][geometry.col(cell)];
+            boolean wasFixed = fixed[cell];
+            boolean wasGiven = given[cell];
+            fixed[cell] = value != 0;
+            given[cell] = false;
+            int old = cells[cell];
+            if (old != value) {
+                place(cell, value);
+            } else if (wasFixed != fixed[cell] || wasGiven) {
+                fire(cell, old, value);
+            }
+        }
+    }
+
+    /**
+     * Toma una copia inmutable de los valores del tablero. Cuesta copiar unas pocas palabras
+     * (dos en 6x6), sin importar cuántas casillas estén llenas.
+     *
+     * @return La copia.
+     */
+
+    public BoardSnapshot snapshot() {
+        return new BoardSnapshot(geometry, packed.clone());
+    }
+
+    /**
+     * Vuelve a los valores de una copia tomada con {@link #snapshot()}. Compara palabra por palabra
+     * y solo coloca, y notifica, las casillas que cambiaron. Las pistas fijas no se modifican.
+     *
+     * @param snapshot La copia, de la misma geometría que el tablero.
+     * @throws IllegalArgumentException Si la copia es de otra geometría.
+     */
+
+    public void restore(BoardSnapshot snapshot) {
+        if (snapshot.getGeometry() != geometry) {
+            throw new IllegalArgumentException("La copia es de un tablero de " + snapshot.getGeometry()
+                    + ", no de " + geometry);
+        }
+        int perWord = BoardSnapshot.cellsPerWord(geometry);
+        for (int word = 0; word < packed.length; word++) {
+            if (packed[word] == snapshot.word(word)) {
+                continue;
+            }
+            int last = Math.min(cells.length, (word + 1) * perWord);
+            for (int cell = word * perWord; cell < last; cell++) {
+                if (!fixed[cell]) {
+                    place(cell, snapshot.get(cell)); // Una copia leída de un archivo no puede pisar las pistas
+                }
+            }
+        }
+    }
+
+    /**
+     * Indica si un número puede ir en una casilla sin repetirse en su fila, columna o bloque,
+     * sin tener en cuenta el valor que la casilla tenga ahora.
+     *
+     * @param cell  El índice de la casilla.
+     * @param value El número a validar.
+     * @return true si el número no aparece en ninguna otra casilla de sus unidades.
+     */
+
+    public boolean isValid(int cell, int value) {
+        int self = cells[cell] == value ? 1 : 0;
+        int row = geometry.row(cell);
+        int col = geometry.col(cell);
+        int box = geometry.box(cell);
+        return rowCount[row * (size + 1) + value] == self
+                && colCount[col * (size + 1) + value] == self
+                && boxCount[box * (size + 1) + value] == self;
+    }
+
+    /**
+     * Indica si el número de una casilla se repite en su fila, columna o bloque.
+     *
+     * @param cell El índice de la casilla.
+     * @return true si la casilla tiene un número y ese número aparece en otra casilla de sus unidades.
+     */
+
+    public boolean isConflicting(int cell) {
+        int value = cells[cell];
+        return value != 0
+                && (rowCount[geometry.row(cell) * (size + 1) + value] > 1
+                || colCount[geometry.col(cell) * (size + 1) + value] > 1
+                || boxCount[geometry.box(cell) * (size + 1) + value] > 1);
+    }
+
+    /**
+     * Calcula los números que pueden ir en una casilla, sin tener en cuenta el valor que tenga ahora.
+     *
+     * @param cell El índice de la casilla.
+     * @return Una máscara con el bit {@code d - 1} encendido para cada número {@code d} posible.
+     */
+
+    public int candidates(int cell) {
+        int row = geometry.row(cell);
+        int col = geometry.col(cell);
+        int box = geometry.box(cell);
+        int used = rowMask[row] | colMask[col] | boxMask[box];
+        int value = cells[cell];
+        if (value != 0
+                && rowCount[row * (size + 1) + value] == 1
+                && colCount[col * (size + 1) + value] == 1
+                && boxCount[box * (size + 1) + value] == 1) {
+            used &= ~(1 << (value - 1)); // Solo la propia casilla tiene ese número
+        }
+        return geometry.getAllMask() & ~used;
+    }
+
+    /**
+     * @return El número de casillas vacías.
+     */
+
+    public int emptyCount() {
+        int count = 0;
+        for (byte value : cells) {
+            if (value == 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Copia el estado a una matriz.
+     *
+     * @param board La matriz de destino, del tamaño del tablero.
+     */
+
+    public void copyTo(int[][] board) {
+        for (int cell = 0; cell < cells.length; cell++) {
+            board[geometry.row(cell)][geometry.col(cell)] = cells[cell];
+        }
+    }
+
+    /**
+     * @return Una matriz nueva con el estado del tablero.
+     */
+
+    public int[][] toMatrix() {
+        int[][] board = new int[size][size];
+        copyTo(board);
+        return board;
+    }
+
+    private void add(int cell, int value) {
+        int bit = 1 << (value - 1);
+        int row = geometry.row(cell);
+        int col = geometry.col(cell);
+        int box = geometry.box(cell);
+        rowCount[row * (size + 1) + value]++;
+        colCount[col * (size + 1) + value]++;
+        boxCount[box * (size + 1) + value]++;
+        rowMask[row] |= bit;
+        colMask[col] |= bit;
+        boxMask[box] |= bit;
+    }
+
+    private void remove(int cell, int value) {
+        int bit = 1 << (value - 1);
+        int row = geometry.row(cell);
+        int col = geometry.col(cell);
+        int box = geometry.box(cell);
+        if (--rowCount[row * (size + 1) + value] == 0) {
+            rowMask[row] &= ~bit;
+        }
+        if (--colCount[col * (size + 1) + value] == 0) {
+            colMask[col] &= ~bit;
+        }
+        if (--boxCount[box * (size + 1) + value] == 0) {
+            boxMask[box] &= ~bit;
+        }
+    }
+
+    private void fire(int cell, int oldValue, int newValue) {
+        for (BoardListener listener : listeners) {
+            listener.cellChanged(cell, oldValue, newValue);
+        }
+    }
+}
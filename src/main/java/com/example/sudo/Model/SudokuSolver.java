@@ -0,0 +1,46 @@
+package com.example.sudo.Model;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Interfaz común de los motores de resolución de Sudoku.
+ * Permite elegir el algoritmo con el que {@link Sudoku} resuelve tableros y con el que
+ * {@link PuzzleGenerator} comprueba la unicidad de los que genera.
+ */
+
+public interface SudokuSolver {
+
+    /**
+     * Resuelve el tablero en el sitio. Si no tiene solución, el tablero queda sin cambios.
+     *
+     * @param board La matriz con 0 en las casillas vacías.
+     * @return true si se encontró una solución, false en caso contrario.
+     */
+    boolean solve(int[][] board);
+
+    /**
+     * Cuenta las soluciones del tablero sin modificarlo, deteniéndose al llegar al límite.
+     *
+     * @param board La matriz con 0 en las casillas vacías.
+     * @param limit El número de soluciones a partir del cual se deja de buscar.
+     * @return El número de soluciones encontradas, como máximo {@code limit}.
+     */
+    long countSolutions(int[][] board, long limit);
+
+    /**
+     * Establece el generador usado para variar el orden de búsqueda.
+     *
+     * @param random El generador, o null para un orden determinista.
+     */
+    void setRandom(RandomGenerator random);
+
+    /**
+     * Establece el control de las búsquedas siguientes, que permite cancelarlas, ponerles un plazo
+     * y contar sus nodos. Si la búsqueda se detiene, {@link #solve(int[][])} devuelve false y deja
+     * el tablero sin cambios, y {@link #countSolutions(int[][], long)} devuelve una cuenta parcial;
+     * {@link SolveControl#isStopped()} distingue ambos casos de un resultado definitivo.
+     *
+     * @param control El control, o null para buscar sin restricciones.
+     */
+    void setControl(SolveControl control);
+}
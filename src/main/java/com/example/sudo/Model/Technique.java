@@ -0,0 +1,46 @@
+package com.example.sudo.Model;
+
+/**
+ * Técnicas de resolución humana que aplica el {@link LogicalSolver}, de la más fácil a la más difícil.
+ * El peso de cada técnica sigue la escala habitual de los calificadores de Sudoku (multiplicada por 10)
+ * y se suma al puntaje de dificultad cada vez que la técnica hace falta.
+ */
+
+public enum Technique {
+    HIDDEN_SINGLE(12, "single oculto"),
+    NAKED_SINGLE(23, "single desnudo"),
+    POINTING(26, "par apuntador"),
+    BOX_LINE(28, "reducción bloque-línea"),
+    NAKED_PAIR(30, "par desnudo"),
+    HIDDEN_PAIR(34, "par oculto"),
+    NAKED_TRIPLE(36, "trío desnudo"),
+    HIDDEN_TRIPLE(40, "trío oculto");
+
+    private final int weight;
+    private final String displayName;
+
+    Technique(int weight, String displayName) {
+        this.weight = weight;
+        this.displayName = displayName;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
+    /**
+     * @return El nombre de la técnica para mostrar al jugador.
+     */
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * @return true si la técnica coloca un número; las demás solo eliminan candidatos.
+     */
+
+    public boolean isPlacement() {
+        return this == HIDDEN_SINGLE || this == NAKED_SINGLE;
+    }
+}
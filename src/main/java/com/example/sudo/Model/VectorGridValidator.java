@@ -0,0 +1,49 @@
+package com.example.sudo.Model;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Validador por lotes con la API de vectores: cada carril de un {@link ByteVector} es un tablero, así
+ * que con vectores de 256 bits se validan 32 tableros por instrucción. Como el lote guarda cada
+ * casilla de tableros consecutivos en bytes contiguos, una casilla de todo un vector de tableros se
+ * lee con una sola carga.
+ * Solo se crea desde {@link GridValidator#create()} cuando el módulo {@code jdk.incubator.vector} está
+ * disponible; los tableros que no llenan un vector se validan con {@link ScalarGridValidator}.
+ */
+
+final class VectorGridValidator implements GridValidator {
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+    private static final int[][] UNITS = ScalarGridValidator.UNITS;
+
+    @Override
+    public int validate(GridBatch batch, boolean[] valid) {
+        byte[] cells = batch.cells();
+        int capacity = batch.getCapacity();
+        int size = batch.size();
+        int bound = SPECIES.loopBound(size);
+        ByteVector one = ByteVector.broadcast(SPECIES, (byte) 1);
+        int count = 0;
+        for (int grid = 0; grid < bound; grid += SPECIES.length()) {
+            VectorMask<Byte> ok = SPECIES.maskAll(true);
+            for (int[] unit : UNITS) {
+                ByteVector seen = one.lanewise(VectorOperators.LSHL, ByteVector.fromArray(SPECIES, cells, unit[0] * capacity + grid));
+                for (int k = 1; k < unit.length; k++) {
+                    ByteVector value = ByteVector.fromArray(SPECIES, cells, unit[k] * capacity + grid);
+                    seen = seen.or(one.lanewise(VectorOperators.LSHL, value));
+                }
+                ok = ok.and(seen.eq((byte) ScalarGridValidator.FULL));
+            }
+            ok.intoArray(valid, grid);
+            count += ok.trueCount();
+        }
+        return count + ScalarGridValidator.validateRange(batch, bound, size, valid);
+    }
+
+    @Override
+    public String getName() {
+        return "vectorial (" + SPECIES.length() + " tableros por vector)";
+    }
+}
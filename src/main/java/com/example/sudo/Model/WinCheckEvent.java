@@ -0,0 +1,16 @@
+package com.example.sudo.Model;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Una llamada a {@link Sudoku#winCheck()}. Los nodos son las unidades revisadas.
+ */
+
+@Name("com.example.sudo.WinCheck")
+@Label("Comprobar victoria")
+final class WinCheckEvent extends SearchEvent {
+
+    @Label("Completado")
+    boolean won;
+}
@@ -0,0 +1,64 @@
+package com.example.sudo.View;
+
+import com.example.sudo.Model.BoardGeometry;
+import com.example.sudo.Model.Hint;
+import com.example.sudo.Model.PuzzlePool;
+import com.example.sudo.Model.SavedGame;
+import com.example.sudo.Model.Sudoku;
+import javafx.scene.layout.Pane;
+
+/**
+ * Lo que el controlador necesita de una vista del tablero, sea la de un {@code TextField} por
+ * casilla ({@link SudokuBoardView}) o la dibujada en un solo lienzo ({@link CanvasBoardView}).
+ * Todos los métodos deben llamarse desde el hilo de JavaFX.
+ */
+
+public interface BoardView {
+
+    /**
+     * Crea los componentes gráficos del tablero y fija su tamaño.
+     */
+    void makeSudoku();
+
+    /**
+     * Empieza una partida nueva, tomada de la reserva si hay una.
+     */
+    void generateSudoku();
+
+    /**
+     * Retoma una partida guardada sin generar nada.
+     *
+     * @param game La partida guardada, de la misma geometría que el tablero.
+     */
+    void resumeGame(SavedGame game);
+
+    /**
+     * Comprueba el tablero del jugador y muestra el resultado.
+     */
+    void validate();
+
+    /**
+     * Aplica la siguiente pista y la resalta.
+     *
+     * @return La pista aplicada, o null si el tablero está completo.
+     */
+    Hint help();
+
+    /**
+     * Muestra una solución ya calculada de una sola vez.
+     *
+     * @param solution La solución completa.
+     */
+    void applySolution(int[][] solution);
+
+    BoardGeometry getGeometry();
+
+    Sudoku getSudoku();
+
+    void setPuzzlePool(PuzzlePool puzzlePool);
+
+    /**
+     * @return El nodo que se agrega a la escena.
+     */
+    Pane getPane();
+}
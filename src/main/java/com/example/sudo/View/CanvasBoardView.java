@@ -0,0 +1,536 @@
+package com.example.sudo.View;
+
+import com.example.sudo.Model.BoardGeometry;
+import com.example.sudo.Model.ConflictIndex;
+import com.example.sudo.Model.Difficulty;
+import com.example.sudo.Model.Hint;
+import com.example.sudo.Model.PuzzlePool;
+import com.example.sudo.Model.SavedGame;
+import com.example.sudo.Model.Sudoku;
+import com.example.sudo.Model.SudokuBoard;
+import javafx.application.Platform;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.TextField;
+import javafx.scene.control.TextFormatter;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.TextAlignment;
+
+import java.util.BitSet;
+
+/**
+ * Vista del tablero dibujada en un solo {@link Canvas}: la cuadrícula, los números, los resaltados,
+ * los conflictos y las notas a lápiz. No usa un nodo ni una hoja de estilos por casilla, así que un
+ * tablero de 25x25 cuesta lo mismo de construir que uno de 6x6.
+ * Cada cambio del modelo, de los conflictos o de la selección marca sus casillas como sucias, y en
+ * el siguiente pulso se redibujan solo esas casillas.
+ * Un único {@link TextField} invisible se coloca sobre la casilla seleccionada y recibe lo que
+ * escribe el jugador. Con la barra espaciadora se pasa al modo lápiz, donde cada número alterna
+ * una nota en lugar de colocarse; las flechas mueven la selección.
+ */
+
+public class CanvasBoardView extends Pane implements BoardView {
+    private static final Color PANEL_COLOR = Color.web("#2b2b2b");
+    private static final Color CELL_COLOR = Color.WHITE;
+    private static final Color UNIT_COLOR = Color.web("#beddeb");
+    private static final Color SELECTED_COLOR = Color.web("#87d6fa");
+    private static final Color HINT_COLOR = Color.YELLOW;
+    private static final Color CONFLICT_COLOR = Color.RED;
+    private static final Color FIXED_TEXT = Color.BLACK;
+    private static final Color PLAYER_TEXT = Color.web("#1f4e9c");
+    private static final Color MARK_TEXT = Color.web("#6b6b6b");
+    private static final int GAP = 2;
+
+    private final BoardGeometry geometry;
+    private final Sudoku sudoku;
+    private final SudokuBoard board;
+    private final ConflictIndex conflicts;
+    private final Canvas canvas = new Canvas();
+    private final TextField editor = new TextField();
+    private final int[] marks; // Notas a lápiz de la partida: un bit por número
+    private final BitSet dirty = new BitSet();
+    private final AlertHandler alertHandler = new AlertAdapter();
+    private boolean fullRepaint = true;
+    private boolean repaintScheduled;
+    private boolean syncing; // El editor se está actualizando desde el modelo
+    private boolean pencilMode;
+    private int selected = -1;
+    private int hintCell = -1;
+    private int cellSize = 36;
+    private int margin = 4;
+    private Font digitFont;
+    private Font fixedFont;
+    private Font markFont;
+    private PuzzlePool puzzlePool;
+    private Difficulty difficulty = Difficulty.MEDIUM;
+
+    /**
+     * Crea la vista de un tablero de 6x6.
+     */
+
+    public CanvasBoardView() {
+        this(BoardGeometry.SIZE_6);
+    }
+
+    /**
+     * Crea la vista de un tablero con la geometría indicada.
+     *
+     * @param geometry La geometría del tablero.
+     */
+
+    public CanvasBoardView(BoardGeometry geometry) {
+        this.geometry = geometry;
+        this.sudoku = new Sudoku(geometry);
+        this.board = sudoku.getBoard();
+        this.conflicts = sudoku.getConflicts();
+        this.marks = sudoku.getMarks();
+        board.addListener((cell, oldValue, newValue) -> {
+            markDirty(cell);
+            if (cell == selected) {
+                editor.setEditable(isEditable(cell));
+                syncEditor();
+            }
+        });
+        conflicts.addListener((cell, conflicting) -> markDirty(cell));
+    }
+
+    /**
+     * Crea el lienzo y el editor, y fija el tamaño del tablero según el tamaño de casilla.
+     */
+
+    public void makeSudoku() {
+        int size = geometry.getSize();
+        double width = cellX(size - 1) + cellSize + margin;
+        double height = cellY(size - 1) + cellSize + margin;
+        canvas.setWidth(width);
+        canvas.setHeight(height);
+        setPrefSize(width, height);
+        digitFont = Font.font("System", FontWeight.NORMAL, cellSize * 0.6);
+        fixedFont = Font.font("System", FontWeight.BOLD, cellSize * 0.6);
+        markFont = Font.font("System", FontWeight.NORMAL, cellSize / (geometry.getBoxRows() + 1.5));
+
+        editor.setPrefSize(cellSize, cellSize);
+        editor.setVisible(false);
+        // Estilo fijo: el editor solo recibe el teclado, los números los dibuja el lienzo
+        editor.setStyle("-fx-background-color: transparent; -fx-text-fill: transparent;"
+                + " -fx-highlight-fill: transparent; -fx-highlight-text-fill: transparent; -fx-display-caret: false;");
+        editor.setTextFormatter(new TextFormatter<String>(change -> {
+            String text = change.getControlNewText();
+            if (syncing || text.isEmpty()
+                    || (text.matches("[1-9][0-9]?") && Integer.parseInt(text) <= geometry.getSize())) {
+                return change;
+            }
+            return null;
+        }));
+        editor.textProperty().addListener((observable, oldValue, newValue) -> editorChanged(newValue));
+        editor.addEventFilter(KeyEvent.KEY_PRESSED, this::keyPressed);
+        canvas.setOnMousePressed(this::mousePressed);
+        getChildren().setAll(canvas, editor);
+        requestFullRepaint();
+    }
+
+    /**
+     * Empieza una partida nueva, tomada de la reserva si hay una. La partida borra las notas y las
+     * casillas reveladas por pistas.
+     */
+
+    public void generateSudoku() {
+        resetView();
+        if (puzzlePool != null) {
+            sudoku.loadPuzzle(puzzlePool.take(difficulty));
+        } else {
+            sudoku.generateSudoku();
+        }
+        requestFullRepaint();
+    }
+
+    /**
+     * Retoma una partida guardada, con sus notas a lápiz, y la dibuja entera.
+     *
+     * @param game La partida guardada.
+     */
+
+    public void resumeGame(SavedGame game) {
+        resetView();
+        sudoku.resume(game);
+        requestFullRepaint();
+    }
+
+    private void resetView() {
+        hintCell = -1;
+        select(-1);
+    }
+
+    /**
+     * Comprueba el tablero del jugador y muestra el resultado.
+     */
+
+    public void validate() {
+        if (board.emptyCount() > 0) {
+            alertHandler.showError("Incompleto");
+            return;
+        }
+        if (sudoku.winCheck(board.toMatrix())) {
+            alertHandler.showSuccess("Felicidades, completaste el sudoku");
+        } else {
+            alertHandler.showError("Sudoku incorrecto o sin solución");
+        }
+    }
+
+    /**
+     * Aplica la siguiente pista, la bloquea y la resalta en amarillo hasta la siguiente.
+     *
+     * @return La pista aplicada, o null si el tablero está completo.
+     */
+
+    public Hint help() {
+        if (hintCell >= 0) {
+            markDirty(hintCell);
+            hintCell = -1;
+        }
+        if (board.emptyCount() == 0) {
+            alertHandler.showSuccess("No hay celdas vacías para sugerir.");
+            return null;
+        }
+        Hint hint = sudoku.nextHint();
+        int cell = hint.getCell();
+        if (cell < 0) {
+            return hint;
+        }
+        if (hint.getValue() != 0) {
+            board.reveal(cell, hint.getValue());
+        }
+        hintCell = cell;
+        markDirty(cell);
+        return hint;
+    }
+
+    /**
+     * Coloca y bloquea todos los números de una solución; el lienzo los dibuja en un solo pulso.
+     * En la historia de la partida cuenta como un solo paso.
+     *
+     * @param solution La solución completa.
+     */
+
+    public void applySolution(int[][] solution) {
+        sudoku.getHistory().runAsOneStep(() -> {
+            for (int cell = 0; cell < geometry.getCellCount(); cell++) {
+                int value = solution[geometry.row(cell)][geometry.col(cell)];
+                if (value != 0) {
+                    board.reveal(cell, value);
+                }
+            }
+        });
+    }
+
+    /**
+     * Selecciona la casilla bajo el puntero y lleva el editor sobre ella.
+     */
+
+    private void mousePressed(MouseEvent event) {
+        select(cellAt(event.getX(), event.getY()));
+    }
+
+    /**
+     * Cambia la casilla seleccionada, marcando como sucias su fila y su columna, y las de la anterior.
+     *
+     * @param cell La casilla, o -1 para no seleccionar ninguna.
+     */
+
+    private void select(int cell) {
+        if (selected >= 0) {
+            markUnits(selected);
+        }
+        selected = cell;
+        if (cell < 0) {
+            editor.setVisible(false);
+            return;
+        }
+        markUnits(cell);
+        editor.relocate(cellX(geometry.col(cell)), cellY(geometry.row(cell)));
+        editor.setEditable(isEditable(cell));
+        editor.setVisible(true);
+        syncEditor();
+        editor.requestFocus();
+    }
+
+    private void markUnits(int cell) {
+        for (int peer : geometry.unitCells(geometry.rowUnit(geometry.row(cell)))) {
+            markDirty(peer);
+        }
+        for (int peer : geometry.unitCells(geometry.colUnit(geometry.col(cell)))) {
+            markDirty(peer);
+        }
+    }
+
+    private void syncEditor() {
+        int value = board.get(selected);
+        syncing = true;
+        editor.setText(value == 0 ? "" : String.valueOf(value));
+        editor.end();
+        syncing = false;
+    }
+
+    private void editorChanged(String text) {
+        if (syncing || selected < 0 || !isEditable(selected)) {
+            return;
+        }
+        int value = text.isEmpty() ? 0 : Integer.parseInt(text);
+        if (pencilMode) {
+            if (value != 0) {
+                marks[selected] ^= 1 << (value - 1);
+                markDirty(selected);
+                Platform.runLater(this::syncEditor); // El número era una nota, no un valor
+            }
+            return;
+        }
+        board.place(selected, value);
+    }
+
+    private void keyPressed(KeyEvent event) {
+        KeyCode code = event.getCode();
+        int row = geometry.row(Math.max(selected, 0));
+        int col = geometry.col(Math.max(selected, 0));
+        int size = geometry.getSize();
+        switch (code) {
+            case SPACE -> {
+                pencilMode = !pencilMode;
+                if (selected >= 0) {
+                    markDirty(selected);
+                }
+            }
+            case UP -> select(geometry.cell((row + size - 1) % size, col));
+            case DOWN -> select(geometry.cell((row + 1) % size, col));
+            case LEFT -> select(geometry.cell(row, (col + size - 1) % size));
+            case RIGHT -> select(geometry.cell(row, (col + 1) % size));
+            case BACK_SPACE, DELETE -> {
+                if (selected >= 0 && isEditable(selected)) {
+                    marks[selected] = 0;
+                    board.place(selected, 0);
+                    markDirty(selected);
+                }
+            }
+            default -> {
+                return;
+            }
+        }
+        event.consume();
+    }
+
+    private boolean isEditable(int cell) {
+        return !board.isFixed(cell) && !board.isGiven(cell);
+    }
+
+    /**
+     * @return El índice de la casilla en esas coordenadas del lienzo, o -1 si caen en un margen.
+     */
+
+    private int cellAt(double x, double y) {
+        int size = geometry.getSize();
+        for (int row = 0; row < size; row++) {
+            double top = cellY(row);
+            if (y >= top && y < top + cellSize) {
+                for (int col = 0; col < size; col++) {
+                    double left = cellX(col);
+                    if (x >= left && x < left + cellSize) {
+                        return geometry.cell(row, col);
+                    }
+                }
+            }
+        }
+        return -1;
+    }
+
+    private double cellX(int col) {
+        return margin + col * (cellSize + GAP) + (col / geometry.getBoxCols()) * 2 * margin;
+    }
+
+    private double cellY(int row) {
+        return margin + row * (cellSize + GAP) + (row / geometry.getBoxRows()) * 2 * margin;
+    }
+
+    private void markDirty(int cell) {
+        dirty.set(cell);
+        scheduleRepaint();
+    }
+
+    private void requestFullRepaint() {
+        fullRepaint = true;
+        scheduleRepaint();
+    }
+
+    /**
+     * Junta todos los cambios de la acción en curso en un solo repintado al final del pulso.
+     */
+
+    private void scheduleRepaint() {
+        if (!repaintScheduled && digitFont != null) {
+            repaintScheduled = true;
+            Platform.runLater(this::repaint);
+        }
+    }
+
+    private void repaint() {
+        repaintScheduled = false;
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        if (fullRepaint) {
+            fullRepaint = false;
+            dirty.clear();
+            gc.setFill(PANEL_COLOR);
+            gc.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+            for (int cell = 0; cell < geometry.getCellCount(); cell++) {
+                drawCell(gc, cell);
+            }
+            return;
+        }
+        for (int cell = dirty.nextSetBit(0); cell >= 0; cell = dirty.nextSetBit(cell + 1)) {
+            drawCell(gc, cell);
+        }
+        dirty.clear();
+    }
+
+    /**
+     * Dibuja una casilla completa: fondo, borde de conflicto y su número o sus notas.
+     */
+
+    private void drawCell(GraphicsContext gc, int cell) {
+        double x = cellX(geometry.col(cell));
+        double y = cellY(geometry.row(cell));
+        gc.setFill(background(cell));
+        gc.fillRect(x, y, cellSize, cellSize);
+        if (conflicts.isConflicting(cell)) {
+            gc.setStroke(CONFLICT_COLOR);
+            gc.setLineWidth(2);
+            gc.strokeRect(x + 1, y + 1, cellSize - 2, cellSize - 2);
+        } else if (cell == selected && pencilMode) {
+            gc.setStroke(PLAYER_TEXT);
+            gc.setLineWidth(1);
+            gc.setLineDashes(3);
+            gc.strokeRect(x + 1.5, y + 1.5, cellSize - 3, cellSize - 3);
+            gc.setLineDashes(null);
+        }
+        gc.setTextAlign(TextAlignment.CENTER);
+        gc.setTextBaseline(VPos.CENTER);
+        int value = board.get(cell);
+        if (value != 0) {
+            boolean given = board.isFixed(cell) || board.isGiven(cell);
+            gc.setFont(given ? fixedFont : digitFont);
+            gc.setFill(given ? FIXED_TEXT : PLAYER_TEXT);
+            gc.fillText(String.valueOf(value), x + cellSize / 2.0, y + cellSize / 2.0);
+        } else if (marks[cell] != 0) {
+            int cols = geometry.getBoxCols();
+            int rows = geometry.getBoxRows();
+            double w = (double) cellSize / cols;
+            double h = (double) cellSize / rows;
+            gc.setFont(markFont);
+            gc.setFill(MARK_TEXT);
+            for (int bits = marks[cell]; bits != 0; bits &= bits - 1) {
+                int index = Integer.numberOfTrailingZeros(bits);
+                gc.fillText(String.valueOf(index + 1), x + (index % cols + 0.5) * w, y + (index / cols % rows + 0.5) * h);
+            }
+        }
+    }
+
+    private Color background(int cell) {
+        if (cell == hintCell) {
+            return HINT_COLOR;
+        }
+        if (cell == selected) {
+            return SELECTED_COLOR;
+        }
+        if (selected >= 0 && (geometry.row(cell) == geometry.row(selected) || geometry.col(cell) == geometry.col(selected))) {
+            return UNIT_COLOR;
+        }
+        return CELL_COLOR;
+    }
+
+    /**
+     * @return Las notas a lápiz de una casilla, un bit por número.
+     */
+
+    public int getMarks(int cell) {
+        return marks[cell];
+    }
+
+    /**
+     * Reemplaza las notas a lápiz de una casilla.
+     *
+     * @param cell  El índice de la casilla.
+     * @param value Las notas, un bit por número.
+     */
+
+    public void setMarks(int cell, int value) {
+        marks[cell] = value;
+        markDirty(cell);
+    }
+
+    public boolean isPencilMode() {
+        return pencilMode;
+    }
+
+    public void setPencilMode(boolean pencilMode) {
+        this.pencilMode = pencilMode;
+        if (selected >= 0) {
+            markDirty(selected);
+        }
+    }
+
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    public Sudoku getSudoku() {
+        return sudoku;
+    }
+
+    public Pane getPane() {
+        return this;
+    }
+
+    /**
+     * Asigna la reserva de partidas de la que {@link #generateSudoku()} toma las nuevas partidas.
+     *
+     * @param puzzlePool La reserva, con la misma geometría que el tablero, o null para generar en el momento.
+     */
+
+    public void setPuzzlePool(PuzzlePool puzzlePool) {
+        this.puzzlePool = puzzlePool;
+    }
+
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
+
+    public void setDifficulty(Difficulty difficulty) {
+        this.difficulty = difficulty;
+    }
+
+    public int getCellSize() {
+        return cellSize;
+    }
+
+    /**
+     * Cambia el tamaño de las casillas; debe llamarse antes de {@link #makeSudoku()}.
+     *
+     * @param cellSize El lado de cada casilla en píxeles.
+     */
+
+    public void setCellSize(int cellSize) {
+        this.cellSize = cellSize;
+    }
+
+    public int getMargin() {
+        return margin;
+    }
+
+    public void setMargin(int margin) {
+        this.margin = margin;
+    }
+}
@@ -1,6 +1,13 @@
 package com.example.sudo.View;
 
+import com.example.sudo.Model.BoardGeometry;
+import com.example.sudo.Model.ConflictIndex;
+import com.example.sudo.Model.Difficulty;
+import com.example.sudo.Model.Hint;
+import com.example.sudo.Model.PuzzlePool;
+import com.example.sudo.Model.SavedGame;
 import com.example.sudo.Model.Sudoku;
+import com.example.sudo.Model.SudokuBoard;
 import javafx.scene.control.TextField;
 import javafx.scene.control.TextFormatter;
 import javafx.scene.input.KeyCode;
@@ -8,19 +15,26 @@ import javafx.scene.layout.Pane;
 import javafx.scene.paint.Color;
 
 import java.util.ArrayList;
-import java.util.List;
-import java.util.Random;
+import java.util.Arrays;
 import java.util.function.UnaryOperator;
 
 /**
  * Esta clase representa la vista del tablero del Sudoku, manejando la interfaz
  * gráfica y las interacciones del usuario con el tablero.
  * Hereda de {@code Pane}, lo que permite agregar componentes visuales como {@code TextField}.
+ * Lo que escribe el usuario se pasa al {@link SudokuBoard} del modelo, y los cambios del
+ * modelo se reflejan en los campos de texto a través de un observador.
+ * El borde rojo de las casillas repetidas lo decide el {@link ConflictIndex} del modelo, que solo
+ * avisa de las casillas cuyo estado cambia; el estilo de cada casilla combina su fondo y ese borde.
+ * Para tableros grandes conviene {@link CanvasBoardView}, que dibuja todo en un solo lienzo.
  */
 
 
-public class SudokuBoardView extends Pane {
+public class SudokuBoardView extends Pane implements BoardView {
 
+    private static final String CONFLICT_STYLE = "-fx-border-color: red; -fx-border-width: 2px;";
+
+    private final BoardGeometry geometry;
     private TextField[][] listTxt;
     private int txWidth;
     private int txtHeight;
@@ -33,26 +47,46 @@ public class SudokuBoardView extends Pane {
     private Color textForeground2;
     private Color txtBackground3;
     private Color textForeground3;
-    private ArrayList <TextField> listTxtAux;
+    private ArrayList<Integer> listTxtAux; // Casillas resaltadas por el último clic
+    private String[] cellBackground; // Fragmento CSS con el fondo de cada casilla
     private Sudoku sudoku;
-    private ArrayList<TextField> generatedTxtList;
+    private SudokuBoard board;
+    private ConflictIndex conflicts;
     private AlertHandler alertHandler;
+    private PuzzlePool puzzlePool;
+    private Difficulty difficulty = Difficulty.MEDIUM;
     private int maxAttempts = 0;
+    private int hintCell = -1; // Casilla resaltada por la última pista
 
     /**
-     * Constructor de la clase. Inicializa los componentes y crea un nuevo objeto de Sudoku.
+     * Constructor de la clase. Inicializa los componentes y crea un nuevo objeto de Sudoku de 6x6.
      */
 
     public SudokuBoardView() {
+        this(BoardGeometry.SIZE_6);
+    }
+
+    /**
+     * Crea la vista de un tablero con la geometría indicada.
+     *
+     * @param geometry La geometría del tablero.
+     */
+
+    public SudokuBoardView(BoardGeometry geometry) {
+        this.geometry = geometry;
         startComponents();
-        this.sudoku = new Sudoku();
+        this.sudoku = new Sudoku(geometry);
+        this.board = sudoku.getBoard();
+        this.conflicts = sudoku.getConflicts();
+        board.addListener(this::cellChanged);
+        conflicts.addListener((cell, conflicting) -> restyle(cell));
     }
     /**
      * Inicializa los componentes gráficos y las propiedades del tablero.
      */
 
     public void startComponents() {
-        listTxt = new TextField[6][6];
+        listTxt = new TextField[geometry.getSize()][geometry.getSize()];
         txWidth =23;
         txtHeight = 24;
         txtMargin = 4;
@@ -64,9 +98,10 @@ public class SudokuBoardView extends Pane {
         textForeground2 = Color.BLACK;
         txtBackground3 = Color.WHITE;
         textForeground3 = Color.BLACK;
-        listTxtAux = new ArrayList();
+        listTxtAux = new ArrayList<>();
+        cellBackground = new String[geometry.getCellCount()];
+        Arrays.fill(cellBackground, "");
         Sudoku sudoku;
-        generatedTxtList = new ArrayList<TextField>();
         this.alertHandler = new AlertAdapter();
     }
     /**
@@ -89,51 +124,72 @@ public class SudokuBoardView extends Pane {
                 txt.setPrefHeight(txtHeight);
                 txt.setEditable(false);
                 x += 2 + txWidth;
-                if ((j + 1) % 3 == 0) {
+                if ((j + 1) % geometry.getBoxCols() == 0) {
                     x +=  2* txtMargin;
                 }
                 listTxt[i][j] = txt;
+                txt.setUserData(geometry.cell(i, j)); // Índice de la casilla, para ubicarla en O(1)
                 generateEvents(txt,i,j);
             }
             x = txtMargin;
             y += 2 + txtHeight;
-            if ((i + 1) % 2 == 0) {
+            if ((i + 1) % geometry.getBoxRows() == 0) {
                 y += 2* txtMargin;
             }
         }
     }
     /**
-     * Comprueba si un campo de texto fue generado automáticamente por el Sudoku.
+     * Indica si el jugador no puede cambiar una casilla: es una pista de la partida o la reveló una
+     * pista o una solución aplicada. Lo decide el tablero, así que deshacer y rehacer lo mantienen.
      *
-     * @param txt El campo de texto a verificar.
-     * @return {@code true} si el campo fue generado, {@code false} de lo contrario.
+     * @param cell El índice de la casilla.
+     * @return {@code true} si la casilla está bloqueada.
      */
 
-    public boolean txtGenerated(TextField txt) {
-        for (TextField jTxt : generatedTxtList) {
-            if (txt == jTxt && !txt.getText().isEmpty()) {
-                return true;
-            }
-        }
-        return false;
+    private boolean isLocked(int cell) {
+        return board.isFixed(cell) || board.isGiven(cell);
     }
 
     /**
      * Genera un nuevo tablero de Sudoku y lo muestra en los campos de texto.
-     * Los números generados se añaden a la lista {@code generatedTxtList}.
+     * Si hay una reserva de partidas asignada, toma de ella una partida ya generada; si no, la genera aquí.
      */
 
 
 
     public void generateSudoku() {
         clearTxt();
-        sudoku.generateSudoku(listTxt);
-        int [][] sudokuGenerated = sudoku.getSudoku();
+        if (puzzlePool != null) {
+            sudoku.loadPuzzle(puzzlePool.take(difficulty));
+        } else {
+            sudoku.generateSudoku();
+        }
+        markGenerated();
+    }
+
+    /**
+     * Retoma una partida guardada sin generar nada y muestra sus pistas como en {@link #generateSudoku()};
+     * los números del jugador llegan a los campos de texto desde el tablero.
+     *
+     * @param game La partida guardada.
+     */
+
+    public void resumeGame(SavedGame game) {
+        clearTxt();
+        sudoku.resume(game);
+        markGenerated();
+    }
+
+    /**
+     * Muestra las pistas de la partida cargada y las deja sin edición.
+     */
+
+    private void markGenerated() {
+        int [][] sudokuGenerated = sudoku.getClues();
         for(int i = 0; i < sudokuGenerated.length; i++) {
             for (int j = 0; j < sudokuGenerated[0].length; j++) {
                 if (sudokuGenerated[i][j] != 0) {
                     listTxt[i][j].setText(String.valueOf(sudokuGenerated[i][j]));
-                    generatedTxtList.add(listTxt[i][j]);
                     listTxt[i][j].setEditable(false);
                 }
             }
@@ -142,21 +198,35 @@ public class SudokuBoardView extends Pane {
 
     /**
      * Completa el tablero de Sudoku mostrando todos los números en los campos de texto.
+     * Resuelve en el hilo que lo llama; la interfaz usa {@code SolveTask} para no bloquearse.
      */
 
 
     public void completeSudoku() {
+        sudoku.setSudoku(sudoku.getClues());
         sudoku.showSudoku();
-        int [][] sudokuGenerated = sudoku.getSudoku();
-        for(int i = 0; i < sudokuGenerated.length; i++) {
-            for (int j = 0; j < sudokuGenerated[0].length; j++) {
-                if (sudokuGenerated[i][j] != 0) {
-                    listTxt[i][j].setText(String.valueOf(sudokuGenerated[i][j]));
-                    generatedTxtList.add(listTxt[i][j]);
-                    listTxt[i][j].setEditable(false);
+        applySolution(sudoku.getSudoku());
+    }
+
+    /**
+     * Muestra una solución ya calculada en una sola pasada sobre el tablero, de modo que
+     * JavaFX dibuja todos los cambios en el mismo pulso. Debe llamarse desde el hilo de JavaFX.
+     * En la historia de la partida cuenta como un solo paso.
+     *
+     * @param solution La solución completa.
+     */
+
+    public void applySolution(int[][] solution) {
+        sudoku.getHistory().runAsOneStep(() -> {
+            for (int cell = 0; cell < geometry.getCellCount(); cell++) {
+                int row = geometry.row(cell);
+                int col = geometry.col(cell);
+                if (solution[row][col] != 0) {
+                    board.reveal(cell, solution[row][col]);
+                    listTxt[row][col].setEditable(false);
                 }
             }
-        }
+        });
     }
 
 
@@ -176,22 +246,47 @@ public class SudokuBoardView extends Pane {
     }
 
     /**
-     * Valida la entrada del usuario en un campo de texto específico, verificando si el número
-     * es válido para la row y column correspondientes.
+     * Refleja en el campo de texto correspondiente un cambio del modelo.
      *
-     * @param txt El campo de texto que contiene la entrada del usuario.
-     * @param row La row del tablero.
-     * @param column La column del tablero.
-     * @param num El número ingresado por el usuario.
+     * @param cell     El índice de la casilla que cambió.
+     * @param oldValue El valor anterior.
+     * @param newValue El valor nuevo.
      */
-    private void validateInput(TextField txt, int row, int column, int num) {
-        //System.out.println("Validando: row=" + row + ", column=" + column + ", num=" + num);
-        boolean isValid = sudoku.isNumberValid(row, column, num, listTxt);
-        //System.out.println("Número valido: " + isValid);
-        if (!isValid) {
-            txt.setStyle("-fx-border-color: red; -fx-border-width: 2px;");
-        } else {
-            txt.setStyle("");
+
+    private void cellChanged(int cell, int oldValue, int newValue) {
+        TextField txt = listTxt[geometry.row(cell)][geometry.col(cell)];
+        if (txt == null) {
+            return;
+        }
+        String text = newValue == 0 ? "" : String.valueOf(newValue);
+        if (!text.equals(txt.getText())) {
+            txt.setText(text);
+        }
+        txt.setEditable(!isLocked(cell));
+    }
+
+    /**
+     * Cambia el fondo de una casilla conservando su borde de conflicto.
+     *
+     * @param cell       El índice de la casilla.
+     * @param background El fragmento CSS del fondo, o una cadena vacía para el estilo predeterminado.
+     */
+
+    private void setCellBackground(int cell, String background) {
+        cellBackground[cell] = background;
+        restyle(cell);
+    }
+
+    /**
+     * Aplica a una casilla su fondo y, si su número está repetido, el borde rojo.
+     *
+     * @param cell El índice de la casilla.
+     */
+
+    private void restyle(int cell) {
+        TextField txt = listTxt[geometry.row(cell)][geometry.col(cell)];
+        if (txt != null) {
+            txt.setStyle(conflicts.isConflicting(cell) ? cellBackground[cell] + CONFLICT_STYLE : cellBackground[cell]);
         }
     }
 
@@ -207,12 +302,12 @@ public class SudokuBoardView extends Pane {
 
 
     public void generateEvents(TextField txt, int row, int column) {
-        // Establecer el TextFormatter para permitir solo un número del 1 al 6
+        // Establecer el TextFormatter para permitir solo un número del 1 al tamaño del tablero
         UnaryOperator<TextFormatter.Change> filter = change -> {
             String newText = change.getControlNewText();
 
 
-            if (newText.matches("[1-6]?")) {
+            if (newText.isEmpty() || (newText.matches("[1-9][0-9]?") && Integer.parseInt(newText) <= geometry.getSize())) {
                 return change;  // Permitir el cambio
             }
             return null;  // Bloquear cualquier otro cambio
@@ -228,54 +323,39 @@ public class SudokuBoardView extends Pane {
         txt.setOnKeyPressed(event -> {
             KeyCode code = event.getCode();
 
-            if (txtGenerated(txt)) {
+            if (isLocked(geometry.cell(row, column))) {
                 event.consume();
                 return;
             }
 
             if (code == KeyCode.BACK_SPACE || code == KeyCode.DELETE) {
                 txt.clear();
-                validateInput(txt, row, column, -1);
                 event.consume();
             }
         });
 
 
         txt.textProperty().addListener((observable, oldValue, newValue) -> {
-            if (!newValue.isEmpty()) {
-                int value = Integer.parseInt(newValue);
-                validateInput(txt, row, column, value);
-            }
+            int value = newValue.isEmpty() ? 0 : Integer.parseInt(newValue);
+            board.place(geometry.cell(row, column), value); // El índice de conflictos actualiza los bordes
         });
     }
 
     /**
      * Valida el estado actual del tablero de Sudoku verificando si todas las celdas están llenas.
-     * Si el tablero está incompleto, imprime un mensaje indicando que faltan datos.
+     * Si el tablero está incompleto, muestra un mensaje indicando que faltan datos.
      * Si el tablero está completo, verifica si la solución del Sudoku es correcta.
-     * Si la solución es válida, imprime un mensaje de éxito; de lo contrario, muestra un mensaje de error.
+     * Si la solución es válida, muestra un mensaje de éxito; de lo contrario, muestra un mensaje de error.
      */
 
     public void validate(){
-        int sudo[][] = new int[6][6];
-        for (int i = 0; i < listTxt.length; i++) {
-            for (int j = 0; j < listTxt[0].length; j++) {
-                if(listTxt[i][j].getText().isEmpty()){
-                    System.out.println("Eso esta incompleto mano");
-                    alertHandler.showError("Incompleto");
-                    return;
-                } else {
-                    sudo[i][j] = Integer.parseInt(listTxt[i][j].getText());
-                }
-            }
+        if (board.emptyCount() > 0) {
+            alertHandler.showError("Incompleto");
+            return;
         }
-        sudoku.setSudoku(sudo);
-        sudoku.showSudoku();
-        if (sudoku.winCheck()){
+        if (sudoku.winCheck(board.toMatrix())){
             alertHandler.showSuccess("Felicidades, completaste el sudoku");
-            System.out.println("completado exitosamente, felicidades menor");
         } else {
-            System.out.println("No hay solución pa");
             alertHandler.showError("Sudoku incorrecto o sin solución");
         }
     }
@@ -284,93 +364,65 @@ public class SudokuBoardView extends Pane {
      * Resalta la celda seleccionada y su fila y columna correspondientes.
      * Elimina el resaltado anterior y resalta la fila y columna actual en un color azul claro,
      * con la celda seleccionada resaltada en un azul más oscuro.
+     * La celda se ubica por el índice guardado en el nodo, y su fila y columna con la tabla de unidades.
      *
      * @param txt El TextField que fue clickeado.
      */
 
     public void pressed(TextField txt){
 
-        for (TextField jtxt: listTxtAux){
-            jtxt.setStyle("-fx-background-color: white;");
+        for (int cell : listTxtAux){
+            setCellBackground(cell, "-fx-background-color: white;");
         }
         listTxtAux.clear();
 
+        int selected = (Integer) txt.getUserData();
+        highlightUnit(geometry.colUnit(geometry.col(selected)));
+        highlightUnit(geometry.rowUnit(geometry.row(selected)));
 
-        for (int i = 0; i < listTxt.length; i++) {
-            for (int j = 0; j < listTxt[0].length; j++) {
-                if (listTxt[i][j] == txt) {
-
-
-                    for (int k = 0; k < listTxt.length; k++) {
-                        listTxt[k][j].setStyle("-fx-background-color: #beddeb;");
-                        listTxtAux.add(listTxt[k][j]);
-                    }
-
-                    for (int k = 0; k < listTxt[0].length; k++) {
-                        listTxt[i][k].setStyle("-fx-background-color: #beddeb;");
-                        listTxtAux.add(listTxt[i][k]);
-                    }
+        setCellBackground(selected, "-fx-background-color: #87d6fa;");
+    }
 
-                    listTxt[i][j].setStyle("-fx-background-color: #87d6fa;");
-                    return;
-                }
-            }
+    private void highlightUnit(int unit) {
+        for (int cell : geometry.unitCells(unit)) {
+            setCellBackground(cell, "-fx-background-color: #beddeb;");
+            listTxtAux.add(cell);
         }
     }
 
     /**
-     * Proporciona una pista rellenando un número válido en una celda vacía.
-     * Reinicia las pistas anteriores eliminando su color de fondo y limpiando su contenido.
-     * Luego, busca una celda vacía y coloca un número válido, resaltándola con un color de fondo amarillo.
+     * Proporciona una pista: coloca la jugada más fácil que se deduce del tablero actual y la resalta
+     * en amarillo. Quita el resaltado de la pista anterior, que queda como un número más.
+     * Si ninguna técnica lógica permite avanzar, revela la casilla vacía con menos candidatos
+     * a partir de la solución.
+     *
+     * @return La pista aplicada, con su explicación, o null si el tablero está completo.
      */
 
-    public void help() {
-        // Limpiar sugerencias anteriores
-        for (int row = 0; row < 6; row++) {
-            for (int column = 0; column < 6; column++) {
-                if (listTxt[row][column].getStyle().contains("yellow")) {
-                    listTxt[row][column].setStyle(""); // Restaurar estilo predeterminado
-                    listTxt[row][column].clear(); // Limpiar el valor sugerido
-                }
-            }
-        }
-
-        // Crear una lista de celdas vacías
-        List<int[]> emptyCells = new ArrayList<>();
-        int[][] currentSudoku = sudoku.getSudoku();
-        for (int row = 0; row < 6; row++) {
-            for (int column = 0; column < 6; column++) {
-                if (currentSudoku[row][column] == 0 && listTxt[row][column].getText().isEmpty()) {
-                    emptyCells.add(new int[]{row, column});
-                }
-            }
+    public Hint help() {
+        if (hintCell >= 0) {
+            setCellBackground(hintCell, ""); // Restaurar estilo predeterminado
+            hintCell = -1;
         }
-
-        // Si no hay celdas vacías, no hacer nada
-        if (emptyCells.isEmpty()) {
+        if (board.emptyCount() == 0) {
             alertHandler.showSuccess("No hay celdas vacías para sugerir.");
-            System.out.println("No hay celdas vacías para sugerir.");
-            return;
+            return null;
         }
 
-        // Seleccionar una celda vacía aleatoria
-        Random random = new Random();
-        int[] randomCell = emptyCells.get(random.nextInt(emptyCells.size()));
-        int randomRow = randomCell[0];
-        int randomColumn = randomCell[1];
-
-        // Mostrar el número de la solución en la celda seleccionada
-        int[][] solucion = sudoku.getSolucion();
-        int correctValue = solucion[randomRow][randomColumn];
-        listTxt[randomRow][randomColumn].setText(String.valueOf(correctValue));
-        listTxt[randomRow][randomColumn].setEditable(false); // Deshabilitar edición en la celda
-
-        // Cambiar el estilo de la celda para resaltarla
-        listTxt[randomRow][randomColumn].setStyle("-fx-background-color: yellow;"); // Resaltar con color amarillo
+        Hint hint = sudoku.nextHint();
+        int cell = hint.getCell();
+        if (cell < 0) {
+            return hint; // El tablero tiene un error que no se puede señalar en una sola casilla
+        }
+        if (hint.getValue() != 0) {
+            board.reveal(cell, hint.getValue());
+            listTxt[geometry.row(cell)][geometry.col(cell)].setEditable(false); // Deshabilitar edición en la celda
+        }
+        setCellBackground(cell, "-fx-background-color: yellow;"); // Resaltar con color amarillo
+        hintCell = cell;
+        return hint;
     }
 
-
-
     /**
      * Establece el color de fondo del tablero de Sudoku y su tamaño.
      * Llama al método para crear los campos de texto que representan el tablero de Sudoku.
@@ -379,10 +431,47 @@ public class SudokuBoardView extends Pane {
 
     public void makeSudoku(){
         this.setStyle("-fx-background-color: #2b2b2b;");
-        this.setPrefSize((txWidth + 2) * 6 + (txtMargin * 3), (txtHeight + 2) * 6 +(txtMargin * 5));
+        int size = geometry.getSize();
+        int stacks = size / geometry.getBoxCols();
+        int bands = size / geometry.getBoxRows();
+        this.setPrefSize((txWidth + 2) * size + (txtMargin * (2 * stacks - 1)), (txtHeight + 2) * size +(txtMargin * (2 * bands - 1)));
         createTxtField();
     }
 
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    public Sudoku getSudoku() {
+        return sudoku;
+    }
+
+    public Pane getPane() {
+        return this;
+    }
+
+    /**
+     * Asigna la reserva de partidas pregeneradas de la que {@link #generateSudoku()} toma las nuevas partidas.
+     *
+     * @param puzzlePool La reserva, con la misma geometría que el tablero, o null para generar en el momento.
+     */
+
+    public void setPuzzlePool(PuzzlePool puzzlePool) {
+        this.puzzlePool = puzzlePool;
+    }
+
+    public PuzzlePool getPuzzlePool() {
+        return puzzlePool;
+    }
+
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
+
+    public void setDifficulty(Difficulty difficulty) {
+        this.difficulty = difficulty;
+    }
+
     public TextField[][] getListTxt() {
         return listTxt;
     }
@@ -23,6 +23,8 @@ public class SudokuFormView extends Stage {
         controller.startComponents();
 
 
+        this.setOnHidden(event -> controller.saveGame()); // Se retoma al volver a abrir
+
         this.setTitle("Sudoku Form");
         this.setScene(new Scene(root));
         this.show();
@@ -2,9 +2,13 @@ module com.example.miniproyecto {
     requires javafx.controls;
     requires javafx.fxml;
     requires java.desktop;
+    requires jdk.httpserver;
+    requires jdk.jfr;
+    requires static jdk.incubator.vector;
 
     opens com.example.sudo.Controller to javafx.fxml;
     opens com.example.sudo to javafx.fxml;
     exports com.example.sudo.Main;
+    exports com.example.sudo.Model;
     opens com.example.sudo.Main to javafx.fxml;
 }
\ No newline at end of file
@@ -0,0 +1,193 @@
+package com.example.sudo.Model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas de {@link Canonicalizer}: la forma canónica no cambia con ninguna de las 48 x 72
+ * permutaciones de filas y columnas combinadas con un renombramiento, y la transformación guardada
+ * se deshace sin pérdida.
+ */
+
+class CanonicalizerTest {
+    private static final int SIZE = 6;
+
+    @Test
+    void canonicalFormIsInvariantUnderTheSymmetryGroup() {
+        SplittableRandom random = new SplittableRandom(7);
+        Canonicalizer canonicalizer = new Canonicalizer();
+        int[][] canonical = new int[SIZE][SIZE];
+        int[][] other = new int[SIZE][SIZE];
+        for (long seed = 0; seed < 10; seed++) {
+            int[][] puzzle = TestPuzzles.puzzle(seed, Difficulty.HARD).getPuzzle();
+            long hash = canonicalizer.canonicalize(puzzle);
+            canonicalizer.copyCanonical(canonical);
+            for (int trial = 0; trial < 50; trial++) {
+                int[][] transformed = transform(puzzle, random);
+                assertEquals(hash, canonicalizer.canonicalize(transformed));
+                canonicalizer.copyCanonical(other);
+                assertArrayEquals(canonical, other);
+                assertTrue(canonicalizer.matchesCanonical(canonical));
+            }
+        }
+    }
+
+    @Test
+    void everyRowAndColumnOrderGivesTheSameForm() {
+        Canonicalizer canonicalizer = new Canonicalizer();
+        int[][] puzzle = TestPuzzles.puzzle(3, Difficulty.MEDIUM).getPuzzle();
+        long hash = canonicalizer.canonicalize(puzzle);
+        int[][] transformed = new int[SIZE][SIZE];
+        for (int[] rows : orders(2, 3)) {
+            for (int[] cols : orders(3, 2)) {
+                for (int i = 0; i < SIZE; i++) {
+                    for (int j = 0; j < SIZE; j++) {
+                        transformed[i][j] = puzzle[rows[i]][cols[j]];
+                    }
+                }
+                assertEquals(hash, canonicalizer.canonicalize(transformed));
+            }
+        }
+    }
+
+    @Test
+    void toCanonicalAndBackIsTheIdentity() {
+        SplittableRandom random = new SplittableRandom(11);
+        Canonicalizer canonicalizer = new Canonicalizer();
+        int[][] canonical = new int[SIZE][SIZE];
+        int[][] back = new int[SIZE][SIZE];
+        PackedBoard packed = new PackedBoard();
+        for (long seed = 0; seed < 20; seed++) {
+            GeneratedPuzzle generated = TestPuzzles.puzzle(seed, Difficulty.EASY);
+            int[][] puzzle = transform(generated.getPuzzle(), random);
+            int[][] solution = generated.getSolution();
+            canonicalizer.canonicalize(puzzle);
+
+            canonicalizer.toCanonical(puzzle, canonical);
+            assertTrue(canonicalizer.matchesCanonical(canonical));
+            canonicalizer.fromCanonical(canonical, back);
+            assertArrayEquals(puzzle, back);
+
+            canonicalizer.toCanonical(solution, canonical);
+            canonicalizer.fromCanonical(canonical, back);
+            assertArrayEquals(solution, back);
+
+            canonicalizer.toCanonical(solution, packed);
+            assertTrue(packed.isSolved());
+            canonicalizer.fromCanonical(packed, back);
+            assertArrayEquals(solution, back);
+        }
+    }
+
+    @Test
+    void removingAClueChangesTheForm() {
+        Canonicalizer canonicalizer = new Canonicalizer();
+        int[][] puzzle = TestPuzzles.puzzle(1, Difficulty.MEDIUM).getPuzzle();
+        int[][] canonical = new int[SIZE][SIZE];
+        canonicalizer.canonicalize(puzzle);
+        canonicalizer.copyCanonical(canonical);
+
+        int[][] fewer = TestPuzzles.copy(puzzle);
+        int cell = 0;
+        while (fewer[cell / SIZE][cell % SIZE] == 0) {
+            cell++;
+        }
+        fewer[cell / SIZE][cell % SIZE] = 0; // Con una pista menos no puede ser equivalente
+        canonicalizer.canonicalize(fewer);
+        assertFalse(canonicalizer.matchesCanonical(canonical));
+    }
+
+    /**
+     * Aplica una simetría al azar: bandas y filas dentro de cada banda, pilas y columnas dentro de
+     * cada pila, y un renombramiento de los números.
+     */
+
+    private static int[][] transform(int[][] board, SplittableRandom random) {
+        int[] rows = randomOrder(2, 3, random);
+        int[] cols = randomOrder(3, 2, random);
+        int[] relabel = {0, 1, 2, 3, 4, 5, 6};
+        shuffle(relabel, 1, SIZE, random);
+        int[][] out = new int[SIZE][SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            for (int j = 0; j < SIZE; j++) {
+                out[i][j] = relabel[board[rows[i]][cols[j]]];
+            }
+        }
+        return out;
+    }
+
+    /**
+     * @return Un orden al azar de {@code groups} grupos de {@code width} líneas, que solo mueve
+     * líneas dentro de su grupo y grupos enteros.
+     */
+
+    private static int[] randomOrder(int width, int groups, SplittableRandom random) {
+        int[] groupOrder = new int[groups];
+        for (int g = 0; g < groups; g++) {
+            groupOrder[g] = g;
+        }
+        shuffle(groupOrder, 0, groups, random);
+        int[] order = new int[width * groups];
+        for (int g = 0; g < groups; g++) {
+            int[] lines = new int[width];
+            for (int k = 0; k < width; k++) {
+                lines[k] = groupOrder[g] * width + k;
+            }
+            shuffle(lines, 0, width, random);
+            System.arraycopy(lines, 0, order, g * width, width);
+        }
+        return order;
+    }
+
+    private static void shuffle(int[] values, int from, int to, SplittableRandom random) {
+        for (int i = to - 1; i > from; i--) {
+            int j = from + random.nextInt(i - from + 1);
+            int tmp = values[i];
+            values[i] = values[j];
+            values[j] = tmp;
+        }
+    }
+
+    /**
+     * @return Todos los órdenes de {@code groups} grupos de {@code width} líneas: 48 para las filas
+     * (tres bandas de dos) y 72 para las columnas (dos pilas de tres).
+     */
+
+    private static int[][] orders(int width, int groups) {
+        int[][] groupOrders = GridStore.permutationsOf(range(groups)).toArray(int[][]::new);
+        int[][] lineOrders = GridStore.permutationsOf(range(width)).toArray(int[][]::new);
+        int count = groupOrders.length;
+        for (int g = 0; g < groups; g++) {
+            count *= lineOrders.length;
+        }
+        int[][] result = new int[count][];
+        for (int n = 0; n < count; n++) {
+            int rest = n / groupOrders.length;
+            int[] groupOrder = groupOrders[n % groupOrders.length];
+            int[] order = new int[width * groups];
+            for (int g = 0; g < groups; g++) {
+                int[] lines = lineOrders[rest % lineOrders.length];
+                rest /= lineOrders.length;
+                for (int k = 0; k < width; k++) {
+                    order[g * width + k] = (groupOrder[g] - 1) * width + lines[k] - 1;
+                }
+            }
+            result[n] = order;
+        }
+        return result;
+    }
+
+    private static int[] range(int n) {
+        int[] values = new int[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = i + 1;
+        }
+        return values;
+    }
+}
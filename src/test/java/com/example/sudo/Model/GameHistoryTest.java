@@ -0,0 +1,194 @@
+package com.example.sudo.Model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas de {@link GameHistory} sobre un tablero de 6x6 con unas pocas pistas.
+ */
+
+class GameHistoryTest {
+    private SudokuBoard board;
+    private GameHistory history;
+    private BoardSnapshot start;
+
+    @BeforeEach
+    void setUp() {
+        board = new SudokuBoard(BoardGeometry.SIZE_6);
+        int[][] clues = new int[6][6];
+        clues[0][0] = 1;
+        clues[5][5] = 2;
+        board.load(clues);
+        history = new GameHistory(board);
+        start = board.snapshot();
+    }
+
+    @Test
+    void undoAndRedoSingleMoves() {
+        board.place(1, 2);
+        board.place(1, 3);
+        board.place(7, 4);
+
+        assertTrue(history.undo());
+        assertEquals(0, board.get(7));
+        assertTrue(history.undo());
+        assertEquals(2, board.get(1));
+        assertTrue(history.redo());
+        assertEquals(3, board.get(1));
+        assertTrue(history.redo());
+        assertEquals(4, board.get(7));
+        assertFalse(history.redo());
+
+        while (history.undo()) {
+            // Deshace todo
+        }
+        assertEquals(start, board.snapshot());
+        assertFalse(history.canUndo());
+    }
+
+    @Test
+    void aNewMoveDiscardsTheRedoTail() {
+        board.place(1, 2);
+        board.place(2, 3);
+        history.undo();
+        board.place(3, 4);
+
+        assertFalse(history.canRedo());
+        assertEquals(2, history.getPosition());
+        assertEquals(0, board.get(2));
+    }
+
+    @Test
+    void aGroupedStepUndoesAndRedoesAsOne() {
+        board.place(1, 2);
+        history.runAsOneStep(() -> {
+            board.place(2, 3);
+            board.place(3, 4);
+            history.runAsOneStep(() -> board.place(4, 5)); // Anidado, sigue siendo el mismo paso
+        });
+        BoardSnapshot after = board.snapshot();
+
+        assertTrue(history.undo());
+        assertEquals(2, board.get(1));
+        assertEquals(0, board.get(2));
+        assertEquals(0, board.get(3));
+        assertEquals(0, board.get(4));
+
+        assertTrue(history.redo());
+        assertEquals(after, board.snapshot());
+        assertFalse(history.canRedo());
+
+        history.undo();
+        history.undo();
+        assertEquals(start, board.snapshot());
+    }
+
+    @Test
+    void consecutiveGroupsStaySeparate() {
+        history.runAsOneStep(() -> {
+            board.place(1, 2);
+            board.place(2, 3);
+        });
+        history.runAsOneStep(() -> {
+            board.place(3, 4);
+            board.place(4, 5);
+        });
+
+        history.undo();
+        assertEquals(3, board.get(2));
+        assertEquals(0, board.get(3));
+        history.undo();
+        assertEquals(start, board.snapshot());
+    }
+
+    @Test
+    void rollbackReturnsToTheBranchAndDropsLaterMoves() {
+        board.place(1, 2);
+        assertEquals(1, history.markBranch());
+        BoardSnapshot branch = board.snapshot();
+        board.place(2, 3);
+        history.runAsOneStep(() -> {
+            board.place(3, 4);
+            board.place(4, 5);
+        });
+
+        assertTrue(history.rollback());
+        assertEquals(branch, board.snapshot());
+        assertEquals(0, history.getBranchDepth());
+        assertEquals(1, history.getPosition());
+        assertFalse(history.canRedo());
+        assertFalse(history.rollback());
+
+        assertTrue(history.undo());
+        assertEquals(start, board.snapshot());
+    }
+
+    @Test
+    void nestedBranchesRollBackInOrder() {
+        history.markBranch();
+        board.place(1, 2);
+        history.markBranch();
+        BoardSnapshot inner = board.snapshot();
+        board.place(2, 3);
+
+        history.rollback();
+        assertEquals(inner, board.snapshot());
+        history.rollback();
+        assertEquals(start, board.snapshot());
+    }
+
+    @Test
+    void commitBranchKeepsTheMoves() {
+        history.markBranch();
+        board.place(1, 2);
+        BoardSnapshot after = board.snapshot();
+
+        assertTrue(history.commitBranch());
+        assertFalse(history.rollback());
+        assertEquals(after, board.snapshot());
+        assertTrue(history.undo());
+        assertEquals(start, board.snapshot());
+    }
+
+    @Test
+    void undoingABranchedMoveDropsTheBranch() {
+        board.place(1, 2);
+        history.markBranch();
+        history.undo();
+        board.place(2, 3); // Reemplaza lo que se podía rehacer, y la bifurcación quedó por delante
+
+        assertEquals(0, history.getBranchDepth());
+    }
+
+    @Test
+    void revealedCellsStayRevealedAcrossUndoAndRedo() {
+        board.place(1, 2);
+        history.runAsOneStep(() -> {
+            board.reveal(1, 2); // Mismo número: solo cambia la condición
+            board.reveal(2, 3);
+        });
+
+        history.undo();
+        assertFalse(board.isGiven(1));
+        assertFalse(board.isGiven(2));
+        assertEquals(2, board.get(1));
+        assertEquals(0, board.get(2));
+
+        history.redo();
+        assertTrue(board.isGiven(1));
+        assertTrue(board.isGiven(2));
+        assertEquals(3, board.get(2));
+    }
+
+    @Test
+    void fixedCluesAreNotRecorded() {
+        assertFalse(history.canUndo());
+        history.undo();
+        assertEquals(1, board.get(0));
+        assertTrue(board.isFixed(0));
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.sudo.Model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas de las comprobaciones de {@link PackedBoard}, comparadas con una versión directa que
+ * recorre la matriz casilla por casilla.
+ */
+
+class PackedBoardTest {
+    private static final int SIZE = 6;
+
+    @Test
+    void digitMaskMatchesTheCells() {
+        SplittableRandom random = new SplittableRandom(1);
+        for (int trial = 0; trial < 2000; trial++) {
+            int[][] board = randomBoard(random, random.nextInt(37));
+            PackedBoard packed = PackedBoard.of(board);
+            for (int digit = 0; digit <= SIZE; digit++) {
+                long expected = 0;
+                for (int cell = 0; cell < SIZE * SIZE; cell++) {
+                    if (board[cell / SIZE][cell % SIZE] == digit) {
+                        expected |= 1L << cell;
+                    }
+                }
+                assertEquals(expected, packed.digitMask(digit), "número " + digit);
+            }
+            assertEquals(Long.bitCount(packed.digitMask(0)), packed.emptyCount());
+        }
+    }
+
+    @Test
+    void checksMatchTheNaiveVersionOnRandomBoards() {
+        SplittableRandom random = new SplittableRandom(2);
+        for (int trial = 0; trial < 5000; trial++) {
+            int[][] board = randomBoard(random, random.nextInt(37));
+            PackedBoard packed = PackedBoard.of(board);
+            assertEquals(isConsistent(board), packed.isConsistent());
+            assertEquals(isConsistent(board) && isFull(board), packed.isSolved());
+        }
+    }
+
+    @Test
+    void checksMatchTheNaiveVersionNearSolutions() {
+        SplittableRandom random = new SplittableRandom(3);
+        for (long seed = 0; seed < 50; seed++) {
+            GeneratedPuzzle generated = TestPuzzles.puzzle(seed, Difficulty.EASY);
+            int[][] solution = generated.getSolution();
+            PackedBoard packed = PackedBoard.of(solution);
+            assertTrue(packed.isConsistent());
+            assertTrue(packed.isSolved());
+            assertTrue(PackedBoard.of(generated.getPuzzle()).isConsistent());
+            assertFalse(PackedBoard.of(generated.getPuzzle()).isSolved());
+
+            for (int trial = 0; trial < 20; trial++) {
+                int[][] changed = TestPuzzles.copy(solution);
+                int cell = random.nextInt(SIZE * SIZE);
+                changed[cell / SIZE][cell % SIZE] = random.nextInt(SIZE + 1);
+                packed.copyFrom(changed);
+                assertEquals(isConsistent(changed), packed.isConsistent());
+                assertEquals(isConsistent(changed) && isFull(changed), packed.isSolved());
+            }
+
+            int[][] swapped = TestPuzzles.copy(solution);
+            int tmp = swapped[0][0];
+            swapped[0][0] = swapped[0][1];
+            swapped[0][1] = tmp; // La fila sigue completa, pero las columnas no
+            packed.copyFrom(swapped);
+            assertFalse(packed.isConsistent());
+            assertFalse(packed.isSolved());
+        }
+    }
+
+    @Test
+    void copyAndSetKeepTheCells() {
+        SplittableRandom random = new SplittableRandom(4);
+        int[][] board = randomBoard(random, 20);
+        PackedBoard packed = PackedBoard.of(board);
+        int[][] out = new int[SIZE][SIZE];
+        packed.copyTo(out);
+        assertArrayEquals(board, out);
+        assertEquals(packed, packed.copy());
+
+        packed.set(35, 6);
+        packed.set(20, 5);
+        packed.set(21, 4);
+        assertEquals(6, packed.get(5, 5));
+        assertEquals(5, packed.get(20));
+        assertEquals(4, packed.get(21));
+    }
+
+    /**
+     * @return Una matriz con {@code filled} casillas al azar llenas con números al azar, con o sin
+     * repeticiones.
+     */
+
+    private static int[][] randomBoard(SplittableRandom random, int filled) {
+        int[][] board = new int[SIZE][SIZE];
+        for (int n = 0; n < filled; n++) {
+            int cell = random.nextInt(SIZE * SIZE);
+            board[cell / SIZE][cell % SIZE] = 1 + random.nextInt(SIZE);
+        }
+        return board;
+    }
+
+    private static boolean isFull(int[][] board) {
+        for (int[] row : board) {
+            for (int value : row) {
+                if (value == 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean isConsistent(int[][] board) {
+        for (int a = 0; a < SIZE * SIZE; a++) {
+            for (int b = a + 1; b < SIZE * SIZE; b++) {
+                int ra = a / SIZE, ca = a % SIZE, rb = b / SIZE, cb = b % SIZE;
+                boolean peers = ra == rb || ca == cb || (ra / 2 == rb / 2 && ca / 3 == cb / 3);
+                if (peers && board[ra][ca] != 0 && board[ra][ca] == board[rb][cb]) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.sudo.Model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas de {@link PuzzleGenerator}: las partidas generadas tienen solución única, y una pista cuya
+ * comprobación de unicidad se quedó sin nodos no se quita.
+ */
+
+class PuzzleGeneratorTest {
+    private static final int SIZE = 6;
+
+    @Test
+    void generatedPuzzlesHaveExactlyOneSolution() {
+        BitmaskSolver solver = new BitmaskSolver(BoardGeometry.SIZE_6, null);
+        for (Difficulty difficulty : Difficulty.values()) {
+            for (long seed = 0; seed < 30; seed++) {
+                GeneratedPuzzle generated = TestPuzzles.puzzle(seed, difficulty);
+                int[][] puzzle = generated.getPuzzle();
+                assertEquals(1, solver.countSolutions(puzzle, 2), difficulty + " semilla " + seed);
+                assertTrue(countClues(puzzle) >= difficulty.targetClues(BoardGeometry.SIZE_6));
+                assertTrue(solver.solve(puzzle));
+                assertArrayEquals(generated.getSolution(), puzzle);
+            }
+        }
+    }
+
+    @Test
+    void aClueWhoseCheckRanOutOfNodesIsKept() {
+        int[][] solution = TestPuzzles.puzzle(8, Difficulty.EASY).getSolution();
+        for (int exhaustedCall = 1; exhaustedCall <= 10; exhaustedCall++) {
+            ExhaustingCounter counter = new ExhaustingCounter(exhaustedCall);
+            PuzzleGenerator generator = new PuzzleGenerator(BoardGeometry.SIZE_6, new SplittableRandom(exhaustedCall), counter);
+            generator.setCountBudget(SolveControl.CHECK_INTERVAL);
+            int[][] puzzle = TestPuzzles.copy(solution);
+            int clues = generator.removeClues(puzzle);
+
+            assertNotNull(counter.checked, "la comprobación " + exhaustedCall + " no llegó a hacerse");
+            int kept = 0;
+            for (int cell = 0; cell < SIZE * SIZE; cell++) {
+                int row = cell / SIZE;
+                int col = cell % SIZE;
+                if (counter.checked[row][col] == 0 && puzzle[row][col] != 0) {
+                    assertEquals(solution[row][col], puzzle[row][col]);
+                    kept++;
+                }
+            }
+            assertEquals(1, kept, "la pista sin comprobar debe quedarse");
+            assertEquals(countClues(puzzle), clues);
+            assertEquals(1, new BitmaskSolver(BoardGeometry.SIZE_6, null).countSolutions(puzzle, 2));
+        }
+    }
+
+    @Test
+    void thePoolReportsItsGenerationThroughput() {
+        try (PuzzlePool pool = new PuzzlePool(BoardGeometry.SIZE_6, 1)) {
+            assertNotNull(pool.take(Difficulty.MEDIUM));
+            assertTrue(pool.getGeneratedCount() >= 1);
+            assertTrue(pool.getPuzzlesPerSecond() > 0);
+        }
+    }
+
+    private static int countClues(int[][] board) {
+        int count = 0;
+        for (int[] row : board) {
+            for (int value : row) {
+                if (value != 0) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Cuenta con {@link BitmaskSolver}, salvo en la comprobación indicada: ahí agota los nodos del
+     * control y devuelve una cuenta parcial de una solución, que no debe tomarse por definitiva.
+     */
+
+    private static final class ExhaustingCounter implements SudokuSolver {
+        private final BitmaskSolver solver = new BitmaskSolver(BoardGeometry.SIZE_6, null);
+        private final int exhaustedCall;
+        private SolveControl control;
+        private int calls;
+        private int[][] checked;
+
+        ExhaustingCounter(int exhaustedCall) {
+            this.exhaustedCall = exhaustedCall;
+        }
+
+        @Override
+        public boolean solve(int[][] board) {
+            return solver.solve(board);
+        }
+
+        @Override
+        public long countSolutions(int[][] board, long limit) {
+            if (++calls != exhaustedCall) {
+                return solver.countSolutions(board, limit);
+            }
+            checked = TestPuzzles.copy(board);
+            while (!control.node()) {
+                // Nodos vacíos hasta superar el máximo
+            }
+            assertTrue(control.isExhausted());
+            return 1;
+        }
+
+        @Override
+        public void setRandom(RandomGenerator random) {
+            solver.setRandom(random);
+        }
+
+        @Override
+        public void setControl(SolveControl control) {
+            this.control = control;
+            solver.setControl(control);
+        }
+    }
+}
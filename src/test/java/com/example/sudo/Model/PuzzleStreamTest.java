@@ -0,0 +1,97 @@
+package com.example.sudo.Model;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Pruebas de {@link PuzzleStream}: saltar a una posición da la misma partida que recorrer la
+ * secuencia, y el flujo en paralelo da lo mismo que el secuencial para una semilla, con y sin
+ * {@link GridStore}.
+ */
+
+class PuzzleStreamTest {
+    private static final int COUNT = 64;
+
+    private static GridStore grids;
+
+    @BeforeAll
+    static void buildGrids() {
+        grids = GridStore.build(ForkJoinPool.commonPool());
+    }
+
+    @Test
+    void getMatchesTheSequentialStream() {
+        checkSkipAhead(stream(Difficulty.MEDIUM, 12345, null));
+    }
+
+    @Test
+    void getMatchesTheSequentialStreamWithGridStore() {
+        checkSkipAhead(stream(Difficulty.MEDIUM, 12345, grids));
+    }
+
+    @Test
+    void parallelStreamMatchesTheSequentialOne() {
+        for (Difficulty difficulty : Difficulty.values()) {
+            PuzzleStream stream = stream(difficulty, 99, null);
+            assertSamePuzzles(stream.stream(0, COUNT).toList(), stream.stream(0, COUNT).parallel().toList());
+        }
+    }
+
+    @Test
+    void parallelStreamMatchesTheSequentialOneWithGridStore() {
+        for (Difficulty difficulty : Difficulty.values()) {
+            PuzzleStream stream = stream(difficulty, 99, grids);
+            assertSamePuzzles(stream.stream(0, COUNT).toList(), stream.stream(0, COUNT).parallel().toList());
+        }
+    }
+
+    @Test
+    void aSubRangeMatchesTheSameSliceOfTheWholeRange() {
+        PuzzleStream stream = stream(Difficulty.EASY, 7, null);
+        List<GeneratedPuzzle> whole = stream.stream(0, COUNT).toList();
+        assertSamePuzzles(whole.subList(40, 50), stream.stream(40, 50).parallel().toList());
+    }
+
+    @Test
+    void theSameSeedGivesTheSameSequenceAndAnotherSeedDoesNot() {
+        List<GeneratedPuzzle> first = stream(Difficulty.HARD, 1, null).stream(0, 8).toList();
+        List<GeneratedPuzzle> again = stream(Difficulty.HARD, 1, null).stream(0, 8).toList();
+        List<GeneratedPuzzle> other = stream(Difficulty.HARD, 2, null).stream(0, 8).toList();
+        assertSamePuzzles(first, again);
+        assertNotEquals(key(first.get(0)), key(other.get(0)));
+    }
+
+    private static void checkSkipAhead(PuzzleStream stream) {
+        List<GeneratedPuzzle> sequence = stream.stream(0, COUNT).toList();
+        for (int k : new int[]{0, 1, 17, 31, COUNT - 1}) {
+            GeneratedPuzzle skipped = stream.get(k);
+            assertArrayEquals(sequence.get(k).getPuzzle(), skipped.getPuzzle(), "partida " + k);
+            assertArrayEquals(sequence.get(k).getSolution(), skipped.getSolution(), "solución " + k);
+        }
+    }
+
+    private static void assertSamePuzzles(List<GeneratedPuzzle> expected, List<GeneratedPuzzle> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertArrayEquals(expected.get(i).getPuzzle(), actual.get(i).getPuzzle(), "partida " + i);
+            assertArrayEquals(expected.get(i).getSolution(), actual.get(i).getSolution(), "solución " + i);
+        }
+    }
+
+    private static BoardSnapshot key(GeneratedPuzzle puzzle) {
+        return BoardSnapshot.of(BoardGeometry.SIZE_6, puzzle.getPuzzle());
+    }
+
+    private static PuzzleStream stream(Difficulty difficulty, long seed, GridStore grids) {
+        PuzzleStream stream = new PuzzleStream(BoardGeometry.SIZE_6, difficulty, seed);
+        stream.setGridStore(grids);
+        return stream;
+    }
+}
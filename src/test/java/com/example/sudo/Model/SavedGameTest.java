@@ -0,0 +1,153 @@
+package com.example.sudo.Model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.CRC32C;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas del formato de {@link SavedGame}: una partida escrita se lee igual, y un archivo dañado se
+ * rechaza con una {@link IOException}.
+ */
+
+class SavedGameTest {
+    @TempDir
+    Path dir;
+
+    private Sudoku sudoku;
+    private int[][] solution;
+    private SavedGame saved;
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        GeneratedPuzzle puzzle = TestPuzzles.puzzle(42, Difficulty.MEDIUM);
+        solution = puzzle.getSolution();
+        sudoku = new Sudoku(BoardGeometry.SIZE_6);
+        sudoku.loadPuzzle(puzzle);
+        SudokuBoard board = sudoku.getBoard();
+        GameHistory history = sudoku.getHistory();
+        int[] empty = emptyCells(board);
+        board.place(empty[0], solution[empty[0] / 6][empty[0] % 6]);
+        board.reveal(empty[1], solution[empty[1] / 6][empty[1] % 6]);
+        history.markBranch();
+        board.place(empty[2], 1 + solution[empty[2] / 6][empty[2] % 6] % 6); // Un número equivocado
+        board.place(empty[3], solution[empty[3] / 6][empty[3] % 6]);
+        history.undo();
+        sudoku.getMarks()[empty[4]] = 0b101;
+        file = dir.resolve("partida.sav");
+        saved = sudoku.save();
+        saved.write(file);
+    }
+
+    @Test
+    void roundTripRestoresTheWholeGame() throws IOException {
+        SavedGame game = SavedGame.read(file);
+        assertEquals(saved.getElapsedMillis(), game.getElapsedMillis());
+        Sudoku resumed = new Sudoku(BoardGeometry.SIZE_6);
+        resumed.resume(game);
+
+        SudokuBoard expected = sudoku.getBoard();
+        SudokuBoard actual = resumed.getBoard();
+        for (int cell = 0; cell < 36; cell++) {
+            assertEquals(expected.get(cell), actual.get(cell), "valor de la casilla " + cell);
+            assertEquals(expected.isFixed(cell), actual.isFixed(cell), "pista de la casilla " + cell);
+            assertEquals(expected.isGiven(cell), actual.isGiven(cell), "casilla revelada " + cell);
+        }
+        assertArrayEquals(sudoku.getMarks(), resumed.getMarks());
+        assertArrayEquals(sudoku.getClues(), resumed.getClues());
+        assertArrayEquals(solution, resumed.getSolucion());
+        assertEquals(sudoku.getHistory().getPosition(), resumed.getHistory().getPosition());
+        assertArrayEquals(sudoku.getHistory().getMoves(), resumed.getHistory().getMoves());
+        assertEquals(1, resumed.getHistory().getBranchDepth());
+    }
+
+    @Test
+    void resumedHistoryCanRedoAndRollBack() throws IOException {
+        Sudoku resumed = new Sudoku(BoardGeometry.SIZE_6);
+        resumed.resume(SavedGame.read(file));
+        GameHistory history = resumed.getHistory();
+
+        assertTrue(history.redo());
+        sudoku.getHistory().redo();
+        assertEquals(sudoku.getBoard().snapshot(), resumed.getBoard().snapshot());
+
+        assertTrue(history.rollback());
+        sudoku.getHistory().rollback();
+        assertEquals(sudoku.getBoard().snapshot(), resumed.getBoard().snapshot());
+    }
+
+    @Test
+    void rejectsAFlippedByte() throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 0x10;
+        Files.write(file, bytes);
+        assertThrows(IOException.class, () -> SavedGame.read(file));
+    }
+
+    @Test
+    void rejectsAWrongMagicEvenWithAValidChecksum() throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer.wrap(bytes).putInt(0, 0x12345678);
+        writeWithChecksum(bytes);
+        assertThrows(IOException.class, () -> SavedGame.read(file));
+    }
+
+    @Test
+    void rejectsAnUnknownVersion() throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer.wrap(bytes).putInt(Integer.BYTES, 99);
+        writeWithChecksum(bytes);
+        assertThrows(IOException.class, () -> SavedGame.read(file));
+    }
+
+    @Test
+    void rejectsATruncatedFile() throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        writeWithChecksum(Arrays.copyOf(bytes, bytes.length - 12));
+        assertThrows(IOException.class, () -> SavedGame.read(file));
+        Files.write(file, Arrays.copyOf(bytes, 10));
+        assertThrows(IOException.class, () -> SavedGame.read(file));
+    }
+
+    @Test
+    void rejectsAnImpossibleBoardSize() throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer.wrap(bytes).putInt(2 * Integer.BYTES, 7);
+        writeWithChecksum(bytes);
+        assertThrows(IOException.class, () -> SavedGame.read(file));
+    }
+
+    /**
+     * Escribe el archivo con un CRC32C correcto, para que la lectura llegue a las demás comprobaciones.
+     */
+
+    private void writeWithChecksum(byte[] bytes) throws IOException {
+        CRC32C crc = new CRC32C();
+        crc.update(bytes, 0, bytes.length - Integer.BYTES);
+        ByteBuffer.wrap(bytes).putInt(bytes.length - Integer.BYTES, (int) crc.getValue());
+        Files.write(file, bytes);
+    }
+
+    private static int[] emptyCells(SudokuBoard board) {
+        int[] empty = new int[36];
+        int n = 0;
+        for (int cell = 0; cell < 36; cell++) {
+            if (board.get(cell) == 0) {
+                empty[n++] = cell;
+            }
+        }
+        return Arrays.copyOf(empty, n);
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.sudo.Model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas de los motores {@link BitmaskSolver} y {@link DancingLinksSolver} sobre los mismos tableros:
+ * ambos resuelven, coinciden al contar soluciones y se detienen al agotar el máximo de nodos.
+ */
+
+class SolverEngineTest {
+    private static final int SIZE = 6;
+
+    private static List<SudokuSolver> engines(BoardGeometry geometry) {
+        return List.of(new BitmaskSolver(geometry, null), new DancingLinksSolver(geometry, null));
+    }
+
+    @Test
+    void bothEnginesSolveGeneratedPuzzles() {
+        for (long seed = 0; seed < 20; seed++) {
+            GeneratedPuzzle puzzle = TestPuzzles.puzzle(seed, Difficulty.HARD);
+            for (SudokuSolver engine : engines(BoardGeometry.SIZE_6)) {
+                int[][] board = puzzle.getPuzzle();
+                assertTrue(engine.solve(board), engine.getClass().getSimpleName());
+                assertArrayEquals(puzzle.getSolution(), board, engine.getClass().getSimpleName());
+            }
+        }
+    }
+
+    @Test
+    void bothEnginesSolveA9x9Puzzle() {
+        BoardGeometry geometry = BoardGeometry.of(9);
+        PuzzleGenerator generator = new PuzzleGenerator(geometry, new SplittableRandom(3));
+        int[][] puzzle = new int[9][9];
+        int[][] solution = new int[9][9];
+        generator.generate(puzzle, solution);
+        for (SudokuSolver engine : engines(geometry)) {
+            int[][] board = TestPuzzles.copy(puzzle);
+            assertTrue(engine.solve(board));
+            assertArrayEquals(solution, board);
+            assertEquals(1, engine.countSolutions(puzzle, 2));
+        }
+    }
+
+    @Test
+    void enginesAgreeOnUniqueMultipleAndContradictoryBoards() {
+        for (long seed = 0; seed < 20; seed++) {
+            GeneratedPuzzle generated = TestPuzzles.puzzle(seed, Difficulty.MEDIUM);
+            int[][] unique = generated.getPuzzle();
+            int[][] multiple = TestPuzzles.copy(unique);
+            for (int cell = 0; cell < SIZE * SIZE && countClues(multiple) > 4; cell++) {
+                multiple[cell / SIZE][cell % SIZE] = 0; // Con cuatro pistas hay muchas soluciones
+            }
+            int[][] repeated = new int[SIZE][SIZE];
+            repeated[0][0] = 1 + (int) (seed % SIZE);
+            repeated[0][1] = repeated[0][0]; // Un número repetido en la fila
+
+            for (SudokuSolver engine : engines(BoardGeometry.SIZE_6)) {
+                String name = engine.getClass().getSimpleName();
+                assertEquals(1, engine.countSolutions(unique, 2), name);
+                assertEquals(2, engine.countSolutions(multiple, 2), name);
+                assertEquals(0, engine.countSolutions(repeated, 2), name);
+                int[][] board = TestPuzzles.copy(repeated);
+                assertFalse(engine.solve(board), name);
+                assertArrayEquals(repeated, board, name); // Sin solución, el tablero no cambia
+            }
+        }
+    }
+
+    @Test
+    void enginesAgreeOnABoardWithoutRepeatsButNoSolution() {
+        int[][] board = new int[SIZE][SIZE];
+        for (int col = 1; col < SIZE; col++) {
+            board[0][col] = col; // La primera casilla solo podría ser un 6...
+        }
+        board[3][0] = 6; // ...pero la columna ya lo tiene
+        for (SudokuSolver engine : engines(BoardGeometry.SIZE_6)) {
+            assertEquals(0, engine.countSolutions(board, 2), engine.getClass().getSimpleName());
+            assertFalse(engine.solve(TestPuzzles.copy(board)), engine.getClass().getSimpleName());
+        }
+    }
+
+    @Test
+    void enginesCountTheSameSolutionsUpToALimit() {
+        int[][] empty = new int[SIZE][SIZE];
+        int[][] sparse = TestPuzzles.puzzle(5, Difficulty.HARD).getPuzzle();
+        for (int cell = 0; cell < SIZE * SIZE && countClues(sparse) > 3; cell++) {
+            sparse[cell / SIZE][cell % SIZE] = 0;
+        }
+        long bitmask = new BitmaskSolver(BoardGeometry.SIZE_6, null).countSolutions(sparse, 100_000);
+        long dlx = new DancingLinksSolver(BoardGeometry.SIZE_6, null).countSolutions(sparse, 100_000);
+        assertEquals(bitmask, dlx);
+        for (SudokuSolver engine : engines(BoardGeometry.SIZE_6)) {
+            assertEquals(1000, engine.countSolutions(empty, 1000));
+        }
+    }
+
+    @Test
+    void aNodeBudgetStopsTheSearch() {
+        long budget = 5000;
+        for (SudokuSolver engine : engines(BoardGeometry.SIZE_6)) {
+            String name = engine.getClass().getSimpleName();
+            SolveControl control = new SolveControl(null, budget);
+            engine.setControl(control);
+            long count = engine.countSolutions(new int[SIZE][SIZE], Long.MAX_VALUE);
+
+            assertTrue(control.isExhausted(), name);
+            assertTrue(control.isStopped(), name);
+            assertTrue(count < 28_200_960L, name); // Todas las soluciones de 6x6
+            assertTrue(control.getNodes() < budget + 2 * SolveControl.CHECK_INTERVAL, name);
+
+            engine.setControl(null);
+            assertEquals(1, engine.countSolutions(TestPuzzles.puzzle(1, Difficulty.EASY).getPuzzle(), 2), name);
+        }
+    }
+
+    @Test
+    void aLargeEnoughBudgetDoesNotStopTheSearch() {
+        int[][] puzzle = TestPuzzles.puzzle(2, Difficulty.HARD).getPuzzle();
+        for (SudokuSolver engine : engines(BoardGeometry.SIZE_6)) {
+            SolveControl control = new SolveControl(null, 1 << 20);
+            engine.setControl(control);
+            assertEquals(1, engine.countSolutions(puzzle, 2));
+            assertFalse(control.isStopped());
+            assertTrue(control.getNodes() > 0);
+        }
+    }
+
+    private static int countClues(int[][] board) {
+        int count = 0;
+        for (int[] row : board) {
+            for (int value : row) {
+                if (value != 0) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+}
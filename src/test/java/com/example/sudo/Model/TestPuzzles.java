@@ -0,0 +1,34 @@
+package com.example.sudo.Model;
+
+import java.util.SplittableRandom;
+
+/**
+ * Partidas de 6x6 reproducibles para las pruebas, generadas con una semilla fija.
+ */
+
+final class TestPuzzles {
+    private TestPuzzles() {
+    }
+
+    /**
+     * @return La partida generada con la semilla indicada.
+     */
+
+    static GeneratedPuzzle puzzle(long seed, Difficulty difficulty) {
+        BoardGeometry geometry = BoardGeometry.SIZE_6;
+        PuzzleGenerator generator = new PuzzleGenerator(geometry, new SplittableRandom(seed));
+        generator.setTargetClues(difficulty.targetClues(geometry));
+        int[][] puzzle = new int[6][6];
+        int[][] solution = new int[6][6];
+        generator.generate(puzzle, solution);
+        return new GeneratedPuzzle(puzzle, solution, difficulty);
+    }
+
+    static int[][] copy(int[][] board) {
+        int[][] out = new int[board.length][];
+        for (int i = 0; i < board.length; i++) {
+            out[i] = board[i].clone();
+        }
+        return out;
+    }
+}